@@ -156,7 +156,12 @@ tasks {
     }
 
     test {
-        useJUnitPlatform()
+        useJUnitPlatform {
+            // Microbenchmarks are opt-in: ./gradlew test -Pbenchmarks
+            if (!project.hasProperty("benchmarks")) {
+                excludeTags("benchmark")
+            }
+        }
     }
 
     buildSearchableOptions {
@@ -10,7 +10,9 @@ import brig.concord.yaml.psi.YAMLValue;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.patterns.PlatformPatterns;
 import com.intellij.psi.*;
+import com.intellij.psi.impl.source.tree.LeafPsiElement;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.IncorrectOperationException;
 import com.intellij.util.ProcessingContext;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -71,6 +73,15 @@ public class ElReferenceContributor extends PsiReferenceContributor {
             }
             return null;
         }
+
+        @Override
+        public PsiElement handleElementRename(@NotNull String newElementName) throws IncorrectOperationException {
+            if (!(getElement().getIdentifier() instanceof LeafPsiElement identifier)) {
+                throw new IncorrectOperationException("Cannot rename " + getElement().getText());
+            }
+            identifier.replaceWithText(newElementName);
+            return getElement();
+        }
     }
 
     private static class ElPropertyRef extends PsiReferenceBase<ElMemberName> {
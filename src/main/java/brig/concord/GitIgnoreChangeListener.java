@@ -1,7 +1,8 @@
 // SPDX-License-Identifier: Apache-2.0
 package brig.concord;
 
-import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import brig.concord.psi.ConcordInvalidationStats;
+import brig.concord.psi.ConcordScopeService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vcs.changes.ChangeListListener;
 import com.intellij.ui.EditorNotifications;
@@ -33,10 +34,13 @@ public final class GitIgnoreChangeListener implements ChangeListListener {
             return;
         }
 
+        // Re-check cached ignore statuses, scopes are refreshed if any of them changed
+        ConcordScopeService.getInstance(project).refreshIgnoreStatus();
+
         // Update editor notifications (out-of-scope banners)
         EditorNotifications.getInstance(project).updateAllNotifications();
 
         // Restart code analysis to re-run inspections
-        DaemonCodeAnalyzer.getInstance(project).restart("VCS ignore status changed");
+        ConcordInvalidationStats.restartDaemon(project, "VCS ignore status changed");
     }
 }
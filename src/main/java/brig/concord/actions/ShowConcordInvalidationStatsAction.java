@@ -0,0 +1,50 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.actions;
+
+import brig.concord.psi.ConcordInvalidationStats;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.ide.CopyPasteManager;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.ui.Messages;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.datatransfer.StringSelection;
+
+/**
+ * Internal action showing {@link ConcordInvalidationStats}: batches, tracker ticks and daemon restarts.
+ */
+public final class ShowConcordInvalidationStatsAction extends DumbAwareAction {
+
+    private static final int COPY = 0;
+    private static final int RESET = 1;
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        var project = e.getProject();
+        if (project == null || project.isDisposed()) {
+            return;
+        }
+
+        var stats = ConcordInvalidationStats.getInstance(project);
+        var report = stats.report();
+        var choice = Messages.showDialog(project, report, "Concord Invalidation Statistics",
+                new String[]{"Copy", "Reset", Messages.getCancelButton()}, 2, Messages.getInformationIcon());
+
+        if (choice == COPY) {
+            CopyPasteManager.getInstance().setContents(new StringSelection(report));
+        } else if (choice == RESET) {
+            stats.reset();
+        }
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+}
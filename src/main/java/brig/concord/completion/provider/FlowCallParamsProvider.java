@@ -5,11 +5,14 @@ import brig.concord.ConcordType;
 import brig.concord.ConcordTypes;
 import brig.concord.meta.ConcordMetaType;
 import brig.concord.meta.model.value.AnyMapMetaType;
-import brig.concord.meta.model.value.AnythingMetaType;
 import brig.concord.yaml.meta.model.TypeProps;
 import brig.concord.meta.model.call.CallInParamMetaType;
-import brig.concord.psi.FlowDocParameter;
+import brig.concord.psi.ConcordModificationTracker;
+import brig.concord.psi.ConcordPsiModificationTracker;
 import brig.concord.psi.FlowDocumentation;
+import brig.concord.psi.FlowSignature;
+import brig.concord.psi.FlowSignatureIndex;
+import brig.concord.psi.ProcessDefinition;
 import brig.concord.psi.ProcessDefinitionProvider;
 import brig.concord.psi.YamlPsiUtils;
 import com.intellij.openapi.project.DumbService;
@@ -19,11 +22,11 @@ import com.intellij.psi.PsiFile;
 import com.intellij.psi.util.CachedValue;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.containers.CollectionFactory;
+import com.intellij.util.indexing.FileBasedIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import brig.concord.yaml.meta.model.Field;
 import brig.concord.yaml.meta.model.YamlMetaType;
 import brig.concord.yaml.psi.YAMLDocument;
 import brig.concord.yaml.psi.YAMLKeyValue;
@@ -33,6 +36,7 @@ import brig.concord.yaml.psi.YAMLScalar;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 public class FlowCallParamsProvider {
 
@@ -42,11 +46,18 @@ public class FlowCallParamsProvider {
     private static final Key<CachedValue<FlowDocumentation>> CALL_SITE_DOC_CACHE =
             Key.create("brig.concord.FlowCallParamsProvider.call.site.doc");
 
-    private static final Key<CachedValue<FlowDocMetaType>> FLOW_DOC_META_TYPE_CACHE =
-            Key.create("brig.concord.FlowCallParamsProvider.flow.doc.meta.type");
+    private static final Key<CachedValue<FlowDocMetaType>> CALL_SITE_META_TYPE_CACHE =
+            Key.create("brig.concord.FlowCallParamsProvider.call.site.meta.type");
+
+    private static final Key<CachedValue<FlowSignature>> CALL_SITE_SIGNATURE_CACHE =
+            Key.create("brig.concord.FlowCallParamsProvider.call.site.signature");
 
     private static final YamlMetaType DEFAULT_OBJECT_TYPE = AnyMapMetaType.getInstance();
 
+    // call sites of flows with equal signatures share one meta type, and so its resolved fields
+    private static final ConcurrentMap<FlowSignature, FlowDocMetaType> SIGNATURE_META_TYPES =
+            CollectionFactory.createConcurrentWeakValueMap();
+
     private static final FlowCallParamsProvider INSTANCE = new FlowCallParamsProvider();
 
     public static FlowCallParamsProvider getInstance() {
@@ -77,22 +88,27 @@ public class FlowCallParamsProvider {
             return DEFAULT_OBJECT_TYPE;
         }
 
-        var documentation = findFlowDocumentation(element);
-        if (documentation == null || documentation.getInputParameters().isEmpty()) {
+        var callKv = findCallKv(element);
+        if (callKv == null) {
             return DEFAULT_OBJECT_TYPE;
         }
 
-        return CachedValuesManager.getCachedValue(documentation, FLOW_DOC_META_TYPE_CACHE, () ->
-                CachedValueProvider.Result.create(new FlowDocMetaType(documentation), documentation));
+        var metaType = CachedValuesManager.getCachedValue(callKv, CALL_SITE_META_TYPE_CACHE, () -> {
+            var signature = findFlowSignature(callKv);
+            var result = signature == null || signature.inputParameters().isEmpty() ? null
+                    : SIGNATURE_META_TYPES.computeIfAbsent(signature, FlowDocMetaType::new);
+            return CachedValueProvider.Result.create(result, signatureDependencies(callKv));
+        });
+        return metaType != null ? metaType : DEFAULT_OBJECT_TYPE;
     }
 
     static class FlowDocMetaType extends ConcordMetaType implements CallInParamMetaType {
 
-        private final FlowDocumentation documentation;
+        private final FlowSignature signature;
         private volatile Map<String, YamlMetaType> features;
 
-        public FlowDocMetaType(FlowDocumentation documentation) {
-            this.documentation = documentation;
+        public FlowDocMetaType(FlowSignature signature) {
+            this.signature = signature;
         }
 
         @Override
@@ -103,9 +119,8 @@ public class FlowCallParamsProvider {
             }
 
             var result = new HashMap<String, YamlMetaType>();
-            for (var param : documentation.getInputParameters()) {
-                var metaType = toMetaType(param);
-                result.put(param.getName(), metaType);
+            for (var param : signature.inputParameters()) {
+                result.putIfAbsent(param.name(), toMetaType(param));
             }
             f = Map.copyOf(result);
             this.features = f;
@@ -132,20 +147,75 @@ public class FlowCallParamsProvider {
         return null;
     }
 
-    private static YamlMetaType toMetaType(FlowDocParameter parameter) {
-        if (parameter == null) {
-            return AnythingMetaType.getInstance();
-        }
-
-        var concordType = ConcordTypes.resolve(parameter.getBaseType(), ConcordType.YamlBaseType.ANY);
-        var props = TypeProps.desc(parameter.getDescription()).andRequired(parameter.isMandatory());
+    private static YamlMetaType toMetaType(FlowSignature.Param parameter) {
+        var concordType = ConcordTypes.resolve(parameter.baseType(), ConcordType.YamlBaseType.ANY);
+        var props = TypeProps.desc(parameter.description()).andRequired(parameter.mandatory());
 
-        if (parameter.isArrayType()) {
+        if (parameter.arrayType()) {
             return concordType.arrayMetaType(props);
         }
         return concordType.scalarMetaType(props);
     }
 
+    /**
+     * Returns the documented signature of the flow called at the given call site.
+     * Served from {@link FlowSignatureIndex}: the callee file is neither loaded nor reparsed.
+     * Cached per call site until the call site's file or any flow definition changes.
+     */
+    public static @Nullable FlowSignature findFlowSignature(PsiElement element) {
+        if (element == null || DumbService.isDumb(element.getProject())) {
+            return null;
+        }
+
+        var callKv = findCallKv(element);
+        if (callKv == null) {
+            return null;
+        }
+
+        return CachedValuesManager.getCachedValue(callKv, CALL_SITE_SIGNATURE_CACHE, () ->
+                CachedValueProvider.Result.create(doFindFlowSignature(callKv), signatureDependencies(callKv)));
+    }
+
+    private static Object @NotNull [] signatureDependencies(@NotNull YAMLKeyValue callKv) {
+        var project = callKv.getProject();
+        return new Object[]{
+                callKv.getContainingFile(),
+                ConcordPsiModificationTracker.getInstance(project).flowDefinitions(),
+                ConcordModificationTracker.getInstance(project).structure()
+        };
+    }
+
+    private static @Nullable FlowSignature doFindFlowSignature(@NotNull YAMLKeyValue callKv) {
+        if (!(callKv.getValue() instanceof YAMLScalar scalar) || YamlPsiUtils.isDynamicExpression(scalar)) {
+            return null;
+        }
+
+        var flowName = scalar.getTextValue();
+        if (flowName.isBlank()) {
+            return null;
+        }
+
+        // The signature of the definition the call resolves to, in case several files define the flow
+        var definition = ProcessDefinitionProvider.getInstance().get(callKv).flow(flowName);
+        var definitionFile = definition != null ? definition.getContainingFile().getVirtualFile() : null;
+        if (definitionFile != null) {
+            var signatures = FileBasedIndex.getInstance().getFileData(FlowSignatureIndex.KEY, definitionFile, callKv.getProject());
+            var signature = signatures.get(flowName);
+            if (signature != null) {
+                return signature;
+            }
+        }
+
+        // In a completion copy the original file's PSI (and so its index data) may miss
+        // the documentation block, see doFindFlowDocumentation
+        var file = callKv.getContainingFile();
+        if (file != null && file != file.getOriginalFile()) {
+            var documentation = doFindFlowDocumentation(callKv);
+            return documentation != null ? FlowSignature.of(documentation) : null;
+        }
+        return null;
+    }
+
     public static @Nullable FlowDocumentation findFlowDocumentation(PsiElement element) {
         var callKv = findCallKv(element);
         if (callKv == null) {
@@ -154,7 +224,13 @@ public class FlowCallParamsProvider {
 
         return CachedValuesManager.getCachedValue(callKv, CALL_SITE_DOC_CACHE, () -> {
             var doc = doFindFlowDocumentation(callKv);
-            return CachedValueProvider.Result.create(doc, PsiModificationTracker.MODIFICATION_COUNT);
+            var project = callKv.getProject();
+            var psiTracker = ConcordPsiModificationTracker.getInstance(project);
+            return CachedValueProvider.Result.create(doc,
+                    psiTracker.forElement(callKv),
+                    psiTracker.flowDefinitions(),
+                    ConcordModificationTracker.getInstance(project).structure(),
+                    DumbService.getInstance(project).getModificationTracker());
         });
     }
 
@@ -199,7 +275,7 @@ public class FlowCallParamsProvider {
 
     private static @Nullable FlowDocumentation findFlowDocCached(PsiElement definition) {
         return CachedValuesManager.getCachedValue(definition, FLOW_DOC_CACHE, () -> {
-            var doc = findFlowDocumentationBefore(definition);
+            var doc = ProcessDefinition.findFlowDocumentationBefore(definition);
             var file = definition.getContainingFile();
             return CachedValueProvider.Result.create(doc, file != null ? file : definition);
         });
@@ -222,18 +298,4 @@ public class FlowCallParamsProvider {
 
         return flowKey.getParent();
     }
-
-    public static @Nullable FlowDocumentation findFlowDocumentationBefore(PsiElement flowDefinition) {
-        var sibling = flowDefinition.getPrevSibling();
-        while (sibling != null) {
-            if (sibling instanceof FlowDocumentation doc) {
-                return doc;
-            }
-            if (sibling.getTextLength() > 0 && !sibling.getText().isBlank()) {
-                break;
-            }
-            sibling = sibling.getPrevSibling();
-        }
-        return null;
-    }
 }
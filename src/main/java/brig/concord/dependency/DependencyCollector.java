@@ -5,6 +5,9 @@ import brig.concord.psi.ConcordFile;
 import brig.concord.psi.ConcordModificationTracker;
 import brig.concord.psi.ConcordRoot;
 import brig.concord.psi.ConcordScopeService;
+import brig.concord.psi.stub.ConcordFileStubs;
+import brig.concord.psi.stub.ConcordKeyValueStub;
+import brig.concord.psi.stub.ConcordStubKind;
 import brig.concord.yaml.psi.YAMLMapping;
 import brig.concord.yaml.psi.YAMLScalar;
 import brig.concord.yaml.psi.YAMLSequence;
@@ -15,8 +18,8 @@ import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiManager;
 import com.intellij.psi.util.CachedValue;
 import com.intellij.psi.util.CachedValueProvider;
-import com.intellij.psi.util.CachedValuesManager;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
@@ -35,8 +38,8 @@ import java.util.function.Consumer;
 @Service(Service.Level.PROJECT)
 public final class DependencyCollector {
 
-    private static final Key<CachedValue<List<ScopeDependencies>>> CACHE_KEY =
-            Key.create("DependencyCollector.byScope");
+    private static final Key<CachedValue<ScopeDependencies>> CACHE_KEY =
+            Key.create("DependencyCollector.scope");
 
     private final Project project;
 
@@ -50,11 +53,14 @@ public final class DependencyCollector {
 
     /**
      * A single dependency occurrence with its source location.
+     *
+     * @param profile the declaring profile, null for the top-level configuration
      */
     public record DependencyOccurrence(
             @NotNull MavenCoordinate coordinate,
             @NotNull VirtualFile file,
-            int textOffset
+            int textOffset,
+            @Nullable String profile
     ) {}
 
     /**
@@ -84,22 +90,18 @@ public final class DependencyCollector {
 
     /**
      * Collects dependencies grouped by scope (ConcordRoot).
-     * Results are cached and invalidated when project structure or dependencies change.
+     * Results are cached per scope and invalidated when the structure or dependencies of that scope change.
      */
     public @NotNull List<ScopeDependencies> collectByScope() {
-        return CachedValuesManager.getManager(project).getCachedValue(project, CACHE_KEY, () -> {
-            var result = doCollectByScope();
-            var tracker = ConcordModificationTracker.getInstance(project);
-            return CachedValueProvider.Result.create(result, tracker.structure(), tracker.dependencies());
-        }, false);
-    }
-
-    private @NotNull List<ScopeDependencies> doCollectByScope() {
         List<ScopeDependencies> result = new ArrayList<>();
         var roots = ConcordScopeService.getInstance(project).findRoots();
 
         for (var root : roots) {
-            result.add(collectForScope(root));
+            result.add(root.getCachedValue(CACHE_KEY, () -> {
+                var tracker = ConcordModificationTracker.getInstance(project);
+                return CachedValueProvider.Result.create(collectForScope(root),
+                        tracker.structure(root), tracker.dependencies(root));
+            }));
         }
 
         return result;
@@ -112,22 +114,51 @@ public final class DependencyCollector {
         var filesInScope = scopeService.getFilesInScope(root);
 
         for (var virtualFile : filesInScope) {
+            var indexed = DependencyIndex.get(project, virtualFile);
+            if (indexed != null) {
+                // Pure index lookup, no PSI involved; malformed items are already skipped by the index
+                for (var entry : indexed.entries()) {
+                    if (!entry.listed()) {
+                        continue;
+                    }
+                    var coordinate = MavenCoordinate.parse(entry.text());
+                    if (coordinate != null) {
+                        occurrences.add(new DependencyOccurrence(coordinate, virtualFile, entry.offset(), entry.profile()));
+                    }
+                }
+                continue;
+            }
+
             var psiFile = PsiManager.getInstance(project).findFile(virtualFile);
             if (!(psiFile instanceof ConcordFile concordFile)) {
                 continue;
             }
 
-            forEachDependencyScalar(concordFile, scalar -> {
-                var coordinate = MavenCoordinate.parse(scalar.getTextValue());
-                if (coordinate != null) {
-                    occurrences.add(new DependencyOccurrence(coordinate, virtualFile, scalar.getTextOffset()));
+            // Dumb mode: dependencies are read from stubs, the AST of the file is not loaded
+            for (var stub : ConcordFileStubs.find(concordFile, ConcordStubKind.DEPENDENCIES)) {
+                var profile = profileOf(stub);
+                for (var value : stub.getValues()) {
+                    var coordinate = MavenCoordinate.parse(value.text());
+                    if (coordinate != null) {
+                        occurrences.add(new DependencyOccurrence(coordinate, virtualFile, value.offset(), profile));
+                    }
                 }
-            });
+            }
         }
 
         return new ScopeDependencies(root, occurrences);
     }
 
+    private static @Nullable String profileOf(@NotNull ConcordKeyValueStub dependenciesStub) {
+        // profiles.<name>.configuration.dependencies
+        var configuration = dependenciesStub.getParentKeyStub();
+        if (configuration == null || configuration.getKind() != ConcordStubKind.PROFILE_CONFIGURATION) {
+            return null;
+        }
+        var profile = configuration.getParentKeyStub();
+        return profile != null ? profile.getKeyText().trim() : null;
+    }
+
     /**
      * Iterates over all dependency scalar values in a Concord file.
      * Visits scalars in:
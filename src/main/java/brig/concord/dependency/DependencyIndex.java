@@ -0,0 +1,246 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.dependency;
+
+import brig.concord.ConcordFileType;
+import brig.concord.psi.ConcordFile;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import brig.concord.yaml.psi.YAMLMapping;
+import brig.concord.yaml.psi.YAMLScalar;
+import brig.concord.yaml.psi.YAMLSequence;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.IOUtil;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-file index of dependency declarations:
+ * <ul>
+ *     <li>configuration.dependencies / extraDependencies</li>
+ *     <li>profiles.*.configuration.dependencies / extraDependencies</li>
+ * </ul>
+ * Stores the trimmed scalar text (coordinates are parsed by the caller), the profile origin and the text offset.
+ * Also records whether the dependency sections are well-formed, with the same rules as
+ * {@link brig.concord.psi.ConcordFingerprintComputer}, so the fingerprint can be taken from the index.
+ */
+public final class DependencyIndex extends SingleEntryFileBasedIndexExtension<DependencyIndex.FileDependencies> {
+
+    @NonNls
+    public static final ID<Integer, FileDependencies> KEY = ID.create("concord.yaml.dependencies");
+
+    /**
+     * @param text    trimmed scalar text, not necessarily a valid {@link MavenCoordinate}
+     * @param profile name of the declaring profile, null for the top-level configuration
+     * @param extra   whether declared in {@code extraDependencies}
+     * @param listed  whether the scalar is an item of a dependency list; a plain scalar section value
+     *                is not a dependency, it is kept only for the fingerprint
+     * @param offset  text offset of the scalar
+     */
+    public record Entry(@NotNull String text, @Nullable String profile, boolean extra, boolean listed, int offset) {
+    }
+
+    /**
+     * @param valid    false if a dependency section (or an enclosing mapping) is malformed; the well-formed
+     *                 parts are still read into {@code profiles} and {@code entries}
+     * @param profiles names of all declared profiles, in document order
+     * @param entries  dependency declarations, in document order
+     */
+    public record FileDependencies(boolean valid, @NotNull List<String> profiles, @NotNull List<Entry> entries) {
+        public static final FileDependencies EMPTY = new FileDependencies(true, List.of(), List.of());
+        public static final FileDependencies INVALID = new FileDependencies(false, List.of(), List.of());
+    }
+
+    /**
+     * Returns the indexed dependencies of the file, or null when indexes are not available (dumb mode).
+     */
+    public static @Nullable FileDependencies get(@NotNull Project project, @NotNull VirtualFile file) {
+        if (DumbService.isDumb(project)) {
+            return null;
+        }
+        var data = FileBasedIndex.getInstance().getSingleEntryIndexData(KEY, file, project);
+        return data != null ? data : FileDependencies.EMPTY;
+    }
+
+    @Override
+    public @NotNull ID<Integer, FileDependencies> getName() {
+        return KEY;
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    public @NotNull SingleEntryIndexer<FileDependencies> getIndexer() {
+        return new SingleEntryIndexer<>(false) {
+            @Override
+            protected @Nullable FileDependencies computeValue(@NotNull FileContent inputData) {
+                if (!(inputData.getPsiFile() instanceof ConcordFile file)) {
+                    return null;
+                }
+                return read(file);
+            }
+        };
+    }
+
+    private static @NotNull FileDependencies read(@NotNull ConcordFile file) {
+        List<Entry> entries = new ArrayList<>();
+        var valid = true;
+
+        var configKv = file.configuration().orElse(null);
+        if (configKv != null) {
+            if (configKv.getValue() instanceof YAMLMapping configMapping) {
+                valid = readSections(configMapping, null, entries);
+            } else {
+                valid = false;
+            }
+        }
+
+        List<String> profiles = new ArrayList<>();
+        var profilesKv = file.profiles().orElse(null);
+        if (profilesKv != null) {
+            if (profilesKv.getValue() instanceof YAMLMapping profilesMapping) {
+                for (var profileKv : profilesMapping.getKeyValues()) {
+                    if (!(profileKv.getValue() instanceof YAMLMapping profileMapping)) {
+                        valid = false;
+                        continue;
+                    }
+
+                    var profileName = profileKv.getKeyText().trim();
+                    profiles.add(profileName);
+
+                    var profileConfigKv = profileMapping.getKeyValueByKey("configuration");
+                    if (profileConfigKv == null) {
+                        continue;
+                    }
+                    if (profileConfigKv.getValue() instanceof YAMLMapping profileConfig) {
+                        valid &= readSections(profileConfig, profileName, entries);
+                    } else {
+                        valid = false;
+                    }
+                }
+            } else {
+                valid = false;
+            }
+        }
+
+        if (valid && entries.isEmpty() && profiles.isEmpty()) {
+            return FileDependencies.EMPTY;
+        }
+        return new FileDependencies(valid, List.copyOf(profiles), List.copyOf(entries));
+    }
+
+    /**
+     * Reads both dependency sections of the configuration; malformed items are skipped.
+     *
+     * @return false if a section is malformed
+     */
+    private static boolean readSections(@NotNull YAMLMapping config, @Nullable String profile, @NotNull List<Entry> entries) {
+        var dependencies = readSection(config.getKeyValueByKey("dependencies"), profile, false, entries);
+        var extraDependencies = readSection(config.getKeyValueByKey("extraDependencies"), profile, true, entries);
+        return dependencies && extraDependencies;
+    }
+
+    private static boolean readSection(@Nullable YAMLKeyValue kv, @Nullable String profile, boolean extra,
+                                       @NotNull List<Entry> entries) {
+        if (kv == null) {
+            return true;
+        }
+
+        switch (kv.getValue()) {
+            case YAMLSequence sequence -> {
+                var valid = true;
+                for (var item : sequence.getItems()) {
+                    if (item.getValue() instanceof YAMLScalar scalar) {
+                        add(scalar, profile, extra, true, entries);
+                    } else {
+                        valid = false;
+                    }
+                }
+                return valid;
+            }
+            case YAMLScalar scalar -> {
+                // Not a dependency list, but a valid fingerprint input
+                add(scalar, profile, extra, false, entries);
+                return true;
+            }
+            case null, default -> {
+                return false;
+            }
+        }
+    }
+
+    private static void add(@NotNull YAMLScalar scalar, @Nullable String profile, boolean extra, boolean listed,
+                            @NotNull List<Entry> entries) {
+        var text = scalar.getTextValue().trim();
+        if (!text.isEmpty()) {
+            entries.add(new Entry(text, profile, extra, listed, scalar.getTextOffset()));
+        }
+    }
+
+    @Override
+    public @NotNull DataExternalizer<FileDependencies> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, FileDependencies value) throws IOException {
+                out.writeBoolean(value.valid());
+
+                DataInputOutputUtil.writeINT(out, value.profiles().size());
+                for (var profile : value.profiles()) {
+                    IOUtil.writeUTF(out, profile);
+                }
+
+                DataInputOutputUtil.writeINT(out, value.entries().size());
+                for (var entry : value.entries()) {
+                    IOUtil.writeUTF(out, entry.text());
+                    // 0 = top-level, otherwise 1-based index into profiles
+                    DataInputOutputUtil.writeINT(out, entry.profile() == null ? 0 : value.profiles().indexOf(entry.profile()) + 1);
+                    out.writeBoolean(entry.extra());
+                    out.writeBoolean(entry.listed());
+                    DataInputOutputUtil.writeINT(out, entry.offset());
+                }
+            }
+
+            @Override
+            public FileDependencies read(@NotNull DataInput in) throws IOException {
+                var valid = in.readBoolean();
+
+                var profileCount = DataInputOutputUtil.readINT(in);
+                List<String> profiles = new ArrayList<>(profileCount);
+                for (int i = 0; i < profileCount; i++) {
+                    profiles.add(IOUtil.readUTF(in));
+                }
+
+                var entryCount = DataInputOutputUtil.readINT(in);
+                List<Entry> entries = new ArrayList<>(entryCount);
+                for (int i = 0; i < entryCount; i++) {
+                    var text = IOUtil.readUTF(in);
+                    var profileIndex = DataInputOutputUtil.readINT(in);
+                    var extra = in.readBoolean();
+                    var listed = in.readBoolean();
+                    var offset = DataInputOutputUtil.readINT(in);
+                    entries.add(new Entry(text, profileIndex == 0 ? null : profiles.get(profileIndex - 1), extra, listed, offset));
+                }
+
+                return new FileDependencies(valid, List.copyOf(profiles), List.copyOf(entries));
+            }
+        };
+    }
+
+    @Override
+    public @NotNull FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(ConcordFileType.INSTANCE);
+    }
+}
@@ -1,8 +1,8 @@
 // SPDX-License-Identifier: Apache-2.0
 package brig.concord.dependency;
 
+import brig.concord.psi.ConcordInvalidationStats;
 import brig.concord.psi.ConcordScopeService;
-import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.ReadAction;
@@ -221,10 +221,9 @@ public final class TaskRegistry implements Disposable {
             if (project.isDisposed()) {
                 return;
             }
-            var analyzer = DaemonCodeAnalyzer.getInstance(project);
             for (var psiFile : psiFiles) {
                 if (psiFile.isValid()) {
-                    analyzer.restart(psiFile, "Concord dependency resolution changed");
+                    ConcordInvalidationStats.restartDaemon(psiFile, "Concord dependency resolution changed");
                 }
             }
         }, project.getDisposed());
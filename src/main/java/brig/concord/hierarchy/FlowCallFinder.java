@@ -10,8 +10,10 @@ import brig.concord.yaml.psi.*;
 import com.intellij.openapi.actionSystem.ex.ActionUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -47,7 +49,8 @@ public final class FlowCallFinder {
 
     /**
      * Find all places where the given flow is called.
-     * Uses ReferencesSearch to find all references to the flow definition.
+     * Call sites come from {@link FlowCallSitesIndex}, only the files that contain
+     * a call of the flow are loaded and no references are resolved.
      *
      * @param flowDefinition the flow definition (YAMLKeyValue under /flows)
      * @param scope          the search scope
@@ -63,16 +66,27 @@ public final class FlowCallFinder {
         }
 
         var flowName = flowDefinition.getKeyText();
+        if (flowName.isBlank()) {
+            return List.of();
+        }
+
+        var psiManager = PsiManager.getInstance(project);
         List<CallSite> result = new ArrayList<>();
 
-        ReferencesSearch.search(flowDefinition, scope).forEach(reference -> {
-            var element = reference.getElement();
-            var callKv = findCallKeyValue(element);
-            if (callKv != null) {
-                result.add(new CallSite(callKv, flowName, false));
+        FileBasedIndex.getInstance().processValues(FlowCallSitesIndex.KEY, flowName, null, (file, sites) -> {
+            var psiFile = psiManager.findFile(file);
+            if (psiFile == null) {
+                return true;
+            }
+
+            for (var site : sites) {
+                var callKv = findCallKeyValueAt(psiFile, site.offset());
+                if (callKv != null) {
+                    result.add(new CallSite(callKv, flowName, false));
+                }
             }
             return true;
-        });
+        }, scope);
 
         return result;
     }
@@ -136,22 +150,14 @@ public final class FlowCallFinder {
     }
 
     /**
-     * Find the call: key-value that contains the given element.
+     * Find the call: key-value whose key starts at the given offset.
      */
-    private static @Nullable YAMLKeyValue findCallKeyValue(@NotNull PsiElement element) {
-        // Element is typically the scalar value of call: flowName
-        // Walk up to find the YAMLKeyValue with key "call"
-        var parent = element.getParent();
-        if (parent instanceof YAMLKeyValue kv && CALL_KEY.equals(kv.getKeyText())) {
+    private static @Nullable YAMLKeyValue findCallKeyValueAt(@NotNull PsiFile file, int offset) {
+        var element = file.findElementAt(offset);
+        var kv = PsiTreeUtil.getParentOfType(element, YAMLKeyValue.class, false);
+        if (kv != null && kv.getTextOffset() == offset && CALL_KEY.equals(kv.getKeyText())) {
             return kv;
         }
-        // Try one more level up (for quoted strings)
-        if (parent != null) {
-            var grandParent = parent.getParent();
-            if (grandParent instanceof YAMLKeyValue kv && CALL_KEY.equals(kv.getKeyText())) {
-                return kv;
-            }
-        }
         return null;
     }
 
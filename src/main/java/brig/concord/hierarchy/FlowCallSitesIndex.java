@@ -0,0 +1,127 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.hierarchy;
+
+import brig.concord.ConcordFileType;
+import brig.concord.meta.model.call.CallStepMetaType;
+import brig.concord.psi.ConcordFile;
+import brig.concord.psi.YamlPsiUtils;
+import brig.concord.yaml.psi.*;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+import static brig.concord.psi.ProcessDefinition.findEnclosingFlowDefinition;
+
+/**
+ * Reverse index of {@code call:} steps: maps the called flow name to the call sites in a file.
+ * <p>
+ * Calls are keyed by the flow name. Dynamic calls ({@code call: ${...}}) are not indexed,
+ * their expression text can never match a flow name.
+ */
+public final class FlowCallSitesIndex extends FileBasedIndexExtension<String, List<FlowCallSitesIndex.CallSiteOffset>> {
+
+    @NonNls
+    public static final ID<String, List<CallSiteOffset>> KEY = ID.create("concord.yaml.flow.callSites");
+
+    private static final String CALL_KEY = CallStepMetaType.getInstance().getIdentity();
+
+    /**
+     * @param offset text offset of the {@code call} key
+     */
+    public record CallSiteOffset(int offset) {
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<CallSiteOffset>, FileContent> getIndexer() {
+        return inputData -> {
+            if (!(inputData.getPsiFile() instanceof ConcordFile)) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, List<CallSiteOffset>> map = new HashMap<>();
+            inputData.getPsiFile().accept(new YamlRecursivePsiElementVisitor() {
+                @Override
+                public void visitKeyValue(@NotNull YAMLKeyValue keyValue) {
+                    if (isCallStep(keyValue) && keyValue.getValue() instanceof YAMLScalar scalar
+                            && !YamlPsiUtils.isDynamicExpression(scalar)) {
+                        var target = scalar.getTextValue().trim();
+                        if (!target.isEmpty()) {
+                            map.computeIfAbsent(target, k -> new ArrayList<>(1)).add(new CallSiteOffset(keyValue.getTextOffset()));
+                        }
+                    }
+                    super.visitKeyValue(keyValue);
+                }
+            });
+            return map;
+        };
+    }
+
+    private static boolean isCallStep(@NotNull YAMLKeyValue keyValue) {
+        return CALL_KEY.equals(keyValue.getKeyText())
+                && keyValue.getParentMapping() != null
+                && keyValue.getParentMapping().getParent() instanceof YAMLSequenceItem
+                && findEnclosingFlowDefinition(keyValue) != null;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<CallSiteOffset>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<CallSiteOffset> value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.size());
+                for (var site : value) {
+                    DataInputOutputUtil.writeINT(out, site.offset());
+                }
+            }
+
+            @Override
+            public List<CallSiteOffset> read(@NotNull DataInput in) throws IOException {
+                var size = DataInputOutputUtil.readINT(in);
+                var result = new ArrayList<CallSiteOffset>(size);
+                for (int i = 0; i < size; i++) {
+                    result.add(new CallSiteOffset(DataInputOutputUtil.readINT(in)));
+                }
+                return result;
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public ID<String, List<CallSiteOffset>> getName() {
+        return KEY;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(ConcordFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
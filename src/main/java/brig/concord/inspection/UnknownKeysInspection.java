@@ -78,10 +78,11 @@ public class UnknownKeysInspection extends YamlMetaTypeInspectionBase {
         }
 
         private void handleCallInParams(@NotNull YAMLKeyValue keyValue) {
-            var flowDoc = FlowCallParamsProvider.findFlowDocumentation(keyValue);
-            if (flowDoc != null && keyValue.getKey() != null) {
+            // The callee's documentation is resolved by the quick fix, only when it is applied
+            var signature = FlowCallParamsProvider.findFlowSignature(keyValue);
+            if (signature != null && keyValue.getKey() != null) {
                 var paramType = inferTypeFromValue(keyValue.getValue());
-                var quickFix = new AddParameterToFlowDocQuickFix(keyValue.getKey(), keyValue.getKeyText(), paramType, flowDoc);
+                var quickFix = new AddParameterToFlowDocQuickFix(keyValue.getKey(), keyValue.getKeyText(), paramType);
                 registerUnknownKeyProblem(keyValue, quickFix);
             } else {
                 registerUnknownKeyProblem(keyValue);
@@ -3,7 +3,7 @@ package brig.concord.inspection.fix;
 
 import brig.concord.ConcordBundle;
 import brig.concord.ConcordNotifications;
-import brig.concord.psi.FlowDocumentation;
+import brig.concord.completion.provider.FlowCallParamsProvider;
 import com.intellij.codeInsight.intention.preview.IntentionPreviewUtils;
 import com.intellij.codeInspection.LocalQuickFixOnPsiElement;
 import com.intellij.notification.Notification;
@@ -16,21 +16,17 @@ import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.SmartPointerManager;
-import com.intellij.psi.SmartPsiElementPointer;
 import org.jetbrains.annotations.NotNull;
 
 public class AddParameterToFlowDocQuickFix extends LocalQuickFixOnPsiElement {
 
     private final String paramName;
     private final String paramType;
-    @SafeFieldForPreview
-    private final SmartPsiElementPointer<FlowDocumentation> flowDocPointer;
 
-    public AddParameterToFlowDocQuickFix(@NotNull PsiElement element, @NotNull String paramName, @NotNull String paramType, @NotNull FlowDocumentation flowDoc) {
+    public AddParameterToFlowDocQuickFix(@NotNull PsiElement element, @NotNull String paramName, @NotNull String paramType) {
         super(element);
         this.paramName = paramName;
         this.paramType = paramType;
-        this.flowDocPointer = SmartPointerManager.getInstance(flowDoc.getProject()).createSmartPsiElementPointer(flowDoc);
     }
 
     @Override
@@ -51,10 +47,12 @@ public class AddParameterToFlowDocQuickFix extends LocalQuickFixOnPsiElement {
             return;
         }
 
-        var flowDoc = flowDocPointer.getElement();
+        // Resolved lazily: the inspection only checks the indexed signature of the callee
+        var flowDoc = FlowCallParamsProvider.findFlowDocumentation(startElement);
         if (flowDoc == null) {
             return;
         }
+        var flowDocPointer = SmartPointerManager.getInstance(project).createSmartPsiElementPointer(flowDoc);
 
         flowDoc.addInputParameter(paramName, paramType);
 
@@ -4,7 +4,9 @@ package brig.concord.inspection.fix;
 import brig.concord.ConcordBundle;
 import brig.concord.dependency.MavenCoordinate;
 import brig.concord.psi.ConcordFile;
+import brig.concord.psi.ConcordRoot;
 import brig.concord.psi.ConcordScopeService;
+import brig.concord.psi.ProfileNamesIndex;
 import brig.concord.yaml.YAMLElementGenerator;
 import brig.concord.yaml.psi.YAMLDocument;
 import brig.concord.yaml.psi.YAMLKeyValue;
@@ -14,15 +16,24 @@ import com.intellij.codeInsight.intention.preview.IntentionPreviewInfo;
 import com.intellij.codeInsight.intention.preview.IntentionPreviewUtils;
 import com.intellij.codeInspection.LocalQuickFix;
 import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Comparator;
+
 public class ExtractToCliProfileQuickFix implements LocalQuickFix {
 
+    private static final String CLI_PROFILE = "cli";
+
     @SafeFieldForPreview
     private final MavenCoordinate coordinate;
 
@@ -90,16 +101,41 @@ public class ExtractToCliProfileQuickFix implements LocalQuickFix {
 
         var psiManager = PsiManager.getInstance(project);
         for (var scope : scopes) {
-            var rootVf = scope.getRootFile();
-            var rootPsi = psiManager.findFile(rootVf);
-            if (!(rootPsi instanceof ConcordFile rootConcord)) {
+            var targetVf = findCliProfileFile(project, scope);
+            var targetPsi = psiManager.findFile(targetVf);
+            if (!(targetPsi instanceof ConcordFile targetConcord)) {
                 continue;
             }
 
             WriteCommandAction.runWriteCommandAction(project, getFamilyName(), null, () -> {
-                insertDependency(project, rootConcord, depString);
-            }, rootPsi);
+                insertDependency(project, targetConcord, depString);
+            }, targetPsi);
+        }
+    }
+
+    /**
+     * Returns the file of the scope that already declares the {@code cli} profile, the root file otherwise.
+     * Looked up in {@link ProfileNamesIndex}, so the other files of the scope are not loaded.
+     */
+    private static @NotNull VirtualFile findCliProfileFile(@NotNull Project project, @NotNull ConcordRoot scope) {
+        var rootVf = scope.getRootFile();
+        if (DumbService.isDumb(project)) {
+            return rootVf;
         }
+
+        return ReadAction.compute(() -> {
+            var candidates = FileBasedIndex.getInstance()
+                    .getContainingFiles(ProfileNamesIndex.KEY, CLI_PROFILE, GlobalSearchScope.projectScope(project));
+            if (candidates.isEmpty() || candidates.contains(rootVf)) {
+                return rootVf;
+            }
+
+            var filesInScope = ConcordScopeService.getInstance(project).getFilesInScope(scope);
+            return candidates.stream()
+                    .filter(filesInScope::contains)
+                    .min(Comparator.comparing(VirtualFile::getPath))
+                    .orElse(rootVf);
+        });
     }
 
     private void insertDependency(@NotNull Project project,
@@ -141,9 +177,9 @@ public class ExtractToCliProfileQuickFix implements LocalQuickFix {
             return;
         }
 
-        var cliKv = profilesMapping.getKeyValueByKey("cli");
+        var cliKv = profilesMapping.getKeyValueByKey(CLI_PROFILE);
         if (cliKv == null) {
-            var newKv = generator.createYamlKeyValue("cli",
+            var newKv = generator.createYamlKeyValue(CLI_PROFILE,
                     "configuration:\n  dependencies:\n    - " + depString);
             profilesMapping.putKeyValue(newKv);
             return;
@@ -44,22 +44,17 @@ public final class ConcordMetaTypeProvider extends YamlMetaTypeProvider {
     }
 
     public @Nullable YamlMetaType getBaseMetaType(@NotNull PsiElement element) {
-        MetaTypeProxy proxy = super.getMetaTypeProxy(element);
+        MetaTypeProxy proxy = getBaseMetaTypeProxy(element);
         return proxy != null ? proxy.getMetaType() : null;
     }
 
     private static MetaTypeProxy of(MetaTypeProxy result, YamlMetaType newType) {
-        return FieldAndRelation.forNullable(new Field(result.getField().getName(), newType), result.getField().getDefaultRelation());
+        return FieldAndRelation.of(newType.canonicalField(result.getField().getName()), result.getField().getDefaultRelation());
     }
 
-    @Nullable
+    @NotNull
     @Override
-    public MetaTypeProxy getMetaTypeProxy(@NotNull PsiElement element) {
-        MetaTypeProxy result = super.getMetaTypeProxy(element);
-        if (result == null) {
-            return null;
-        }
-
+    protected MetaTypeProxy resolveMetaTypeProxy(@NotNull MetaTypeProxy result, @NotNull PsiElement element) {
         if (result.getMetaType() instanceof DynamicMetaType dynamicMetaType) {
             var resolved = dynamicMetaType.resolve(element);
             if (resolved != null) {
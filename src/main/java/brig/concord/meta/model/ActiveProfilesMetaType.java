@@ -0,0 +1,54 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.meta.model;
+
+import brig.concord.meta.model.value.StringMetaType;
+import brig.concord.psi.ProcessDefinitionProvider;
+import brig.concord.yaml.meta.model.CompletionContext;
+import brig.concord.yaml.meta.model.TypeProps;
+import brig.concord.yaml.meta.model.YamlArrayType;
+import brig.concord.yaml.psi.YAMLScalar;
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * List of profile names, completed from the profiles declared in the current scope.
+ */
+public class ActiveProfilesMetaType extends YamlArrayType {
+
+    private static final ActiveProfilesMetaType INSTANCE = new ActiveProfilesMetaType();
+
+    public static ActiveProfilesMetaType getInstance() {
+        return INSTANCE;
+    }
+
+    public ActiveProfilesMetaType() {
+        super(ProfileNameMetaType.getInstance());
+    }
+
+    public ActiveProfilesMetaType(@NotNull TypeProps props) {
+        super(ProfileNameMetaType.getInstance(), props);
+    }
+
+    private static class ProfileNameMetaType extends StringMetaType {
+
+        private static final ProfileNameMetaType INSTANCE = new ProfileNameMetaType();
+
+        public static ProfileNameMetaType getInstance() {
+            return INSTANCE;
+        }
+
+        @Override
+        public @NotNull List<? extends LookupElement> getValueLookups(@NotNull YAMLScalar insertedScalar, @Nullable CompletionContext completionContext) {
+            var processDefinition = ProcessDefinitionProvider.getInstance().get(insertedScalar);
+            return processDefinition.profileNames().stream()
+                    .sorted()
+                    .map(name -> LookupElementBuilder.create(name)
+                            .withTypeText("profile"))
+                    .toList();
+        }
+    }
+}
@@ -6,7 +6,6 @@ import brig.concord.meta.ConcordMetaType;
 import brig.concord.meta.HighlightProvider;
 import brig.concord.meta.model.call.CallMetaType;
 import brig.concord.meta.model.value.AnyMapMetaType;
-import brig.concord.meta.model.value.StringArrayMetaType;
 import brig.concord.meta.model.value.StringMetaType;
 import brig.concord.meta.model.value.TimezoneMetaType;
 import brig.concord.yaml.meta.model.TypeProps;
@@ -31,7 +30,7 @@ public class CronTriggerEntryMetaType extends ConcordMetaType implements Highlig
             "spec", new StringMetaType("cron", descKey("doc.triggers.cron.spec.description").andRequired()),
             "entryPoint", new CallMetaType(descKey("doc.triggers.cron.entryPoint.description").andRequired()),
             "runAs", new RunAsMetaType(descKey("doc.triggers.cron.runAs.description")),
-            "activeProfiles", new StringArrayMetaType(descKey("doc.triggers.cron.activeProfiles.description")),
+            "activeProfiles", new ActiveProfilesMetaType(descKey("doc.triggers.cron.activeProfiles.description")),
             "timezone", TimezoneMetaType.getInstance(),
             "arguments", new AnyMapMetaType(descKey("doc.triggers.cron.arguments.description")),
             "exclusive", TriggerExclusiveMetaType.getInstance()
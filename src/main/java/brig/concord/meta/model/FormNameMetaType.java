@@ -0,0 +1,47 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.meta.model;
+
+import brig.concord.meta.model.value.StringMetaType;
+import brig.concord.psi.FormsIndex;
+import brig.concord.psi.ProcessDefinitionProvider;
+import brig.concord.yaml.meta.model.CompletionContext;
+import brig.concord.yaml.meta.model.TypeProps;
+import brig.concord.yaml.psi.YAMLScalar;
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Form step {@code form} value, completed from the forms declared in the current scope.
+ */
+public class FormNameMetaType extends StringMetaType {
+
+    public FormNameMetaType(@NotNull TypeProps props) {
+        super(props);
+    }
+
+    @Override
+    public @NotNull List<? extends LookupElement> getValueLookups(@NotNull YAMLScalar insertedScalar, @Nullable CompletionContext completionContext) {
+        var processDefinition = ProcessDefinitionProvider.getInstance().get(insertedScalar);
+        return processDefinition.forms().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> LookupElementBuilder.create(e.getKey())
+                        .withTailText(fieldsText(e.getValue()), true)
+                        .withTypeText("form"))
+                .toList();
+    }
+
+    private static @NotNull String fieldsText(@NotNull FormsIndex.Form form) {
+        if (form.fields().isEmpty()) {
+            return "";
+        }
+        return form.fields().stream()
+                .map(f -> f.type() != null ? f.name() + ": " + f.type() : f.name())
+                .collect(Collectors.joining(", ", " (", ")"));
+    }
+}
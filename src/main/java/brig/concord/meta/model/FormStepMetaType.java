@@ -26,7 +26,7 @@ public class FormStepMetaType extends IdentityMetaType {
     }
 
     private static final Map<String, YamlMetaType> features = Map.of(
-            "form", new StringMetaType(descKey("doc.step.form.key.description").andRequired()),
+            "form", new FormNameMetaType(descKey("doc.step.form.key.description").andRequired()),
             "yield", new BooleanMetaType(descKey("doc.step.feature.yield.description")),
             "saveSubmittedBy", new BooleanMetaType(descKey("doc.step.feature.saveSubmittedBy.description")),
             "runAs", RunAsType.getInstance(),
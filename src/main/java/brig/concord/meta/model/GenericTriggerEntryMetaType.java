@@ -5,7 +5,6 @@ import brig.concord.meta.ConcordMetaType;
 import brig.concord.meta.model.call.CallMetaType;
 import brig.concord.meta.model.value.AnyMapMetaType;
 import brig.concord.meta.model.value.IntegerMetaType;
-import brig.concord.meta.model.value.StringArrayMetaType;
 import brig.concord.yaml.meta.model.YamlMetaType;
 import org.jetbrains.annotations.NotNull;
 
@@ -24,7 +23,7 @@ public class GenericTriggerEntryMetaType extends ConcordMetaType {
 
     private static final Map<String, YamlMetaType> features = Map.of(
             "entryPoint", new CallMetaType(descKey("doc.step.call.key.description").andRequired()),
-            "activeProfiles", StringArrayMetaType.getInstance(),
+            "activeProfiles", ActiveProfilesMetaType.getInstance(),
             "arguments", AnyMapMetaType.getInstance(),
             "exclusive", TriggerExclusiveMetaType.getInstance(),
             "conditions", new AnyMapMetaType(required()),
@@ -27,7 +27,7 @@ public class GitTriggerEntryMetaType extends ConcordMetaType implements Highligh
     private static final Map<String, YamlMetaType> features = Map.of(
             "entryPoint", new CallMetaType(descKey("doc.triggers.github.entryPoint.description").andRequired()),
             "useInitiator", new BooleanMetaType(descKey("doc.triggers.github.useInitiator.description")),
-            "activeProfiles", new StringArrayMetaType(descKey("doc.triggers.github.activeProfiles.description")),
+            "activeProfiles", new ActiveProfilesMetaType(descKey("doc.triggers.github.activeProfiles.description")),
             "useEventCommitId", new BooleanMetaType(descKey("doc.triggers.github.useEventCommitId.description")),
             "ignoreEmptyPush", new BooleanMetaType(descKey("doc.triggers.github.ignoreEmptyPush.description")),
             "arguments", new AnyMapMetaType(descKey("doc.triggers.github.arguments.description")),
@@ -10,29 +10,53 @@ import brig.concord.yaml.psi.YAMLKeyValue;
 import brig.concord.yaml.psi.YAMLMapping;
 import brig.concord.yaml.psi.YAMLValue;
 import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public abstract class IdentityElementMetaType extends YamlAnyOfType implements DynamicMetaType {
 
     private final List<IdentityMetaType> entries;
 
+    // Identity -> index of the first entry with it; earlier entries win when a mapping has several identities
+    private final Object2IntMap<String> entryIndexByIdentity;
+
+    private final Key<CachedValue<IdentityMetaType>> guessedEntryKey;
+
+    // Features are resolved per element on specialization, so one field per name serves all mappings
+    private final ConcurrentMap<String, Field> fieldsByName = new ConcurrentHashMap<>();
+
     protected IdentityElementMetaType(List<IdentityMetaType> entries) {
         super(List.copyOf(entries));
 
         this.entries = entries;
+
+        var index = new Object2IntOpenHashMap<String>(entries.size());
+        index.defaultReturnValue(-1);
+        for (var i = 0; i < entries.size(); i++) {
+            index.putIfAbsent(entries.get(i).getIdentity(), i);
+        }
+        this.entryIndexByIdentity = index;
+        this.guessedEntryKey = Key.create(getClass().getName() + ".guessedEntry");
     }
 
     public IdentityMetaType findEntry(YAMLMapping element) {
-        for (var entry : entries) {
-            if (element.getKeyValueByKey(entry.getIdentity()) != null) {
-                return entry;
-            }
+        var entry = identifyEntry(element);
+        if (entry != null) {
+            return entry;
         }
-        return guessEntry(YamlPsiUtils.keys(element));
+        return CachedValuesManager.getCachedValue(element, guessedEntryKey, () ->
+                CachedValueProvider.Result.create(guessEntry(YamlPsiUtils.keys(element)), element));
     }
 
     @Override
@@ -45,10 +69,17 @@ public abstract class IdentityElementMetaType extends YamlAnyOfType implements D
 
     @Override
     public @Nullable Field findFeatureByName(@NotNull String name) {
+        var field = fieldsByName.get(name);
+        if (field != null) {
+            return field;
+        }
         if (!hasFeature(name)) {
             return null;
         }
+        return fieldsByName.computeIfAbsent(name, this::newFeatureField);
+    }
 
+    private @NotNull Field newFeatureField(@NotNull String name) {
         return new Field(name, this) {
 
             @Override
@@ -70,7 +101,7 @@ public abstract class IdentityElementMetaType extends YamlAnyOfType implements D
 
                 var field = meta.findFeatureByName(kv.getKeyText());
                 if (field != null) {
-                    return new Field(name, field.resolveToSpecializedField(element).getDefaultType());
+                    return field.resolveToSpecializedField(element).getDefaultType().canonicalField(name);
                 }
 
                 return this;
@@ -121,23 +152,31 @@ public abstract class IdentityElementMetaType extends YamlAnyOfType implements D
         meta.validateValue(value, problemsHolder);
     }
 
+    /**
+     * Finds the entry whose identity key is present in the mapping, in a single pass over its keys.
+     */
     protected IdentityMetaType identifyEntry(@NotNull YAMLMapping element) {
-        for (var entry : entries) {
-            if (element.getKeyValueByKey(entry.getIdentity()) != null) {
-                return entry;
+        var best = -1;
+        for (var child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof YAMLKeyValue kv) {
+                var index = entryIndexByIdentity.getInt(kv.getKeyText());
+                if (index >= 0 && (best < 0 || index < best)) {
+                    best = index;
+                }
             }
         }
-        return null;
+        return best >= 0 ? entries.get(best) : null;
     }
 
     protected IdentityMetaType identifyEntry(Set<String> existingKeys) {
-        for (var step : entries) {
-            if (existingKeys.contains(step.getIdentity())) {
-                return step;
+        var best = -1;
+        for (var key : existingKeys) {
+            var index = entryIndexByIdentity.getInt(key);
+            if (index >= 0 && (best < 0 || index < best)) {
+                best = index;
             }
         }
-
-        return null;
+        return best >= 0 ? entries.get(best) : null;
     }
 
     /**
@@ -6,7 +6,6 @@ import brig.concord.meta.ConcordMetaType;
 import brig.concord.meta.HighlightProvider;
 import brig.concord.meta.model.call.CallMetaType;
 import brig.concord.meta.model.value.AnyMapMetaType;
-import brig.concord.meta.model.value.StringArrayMetaType;
 import brig.concord.meta.model.value.StringMetaType;
 import brig.concord.yaml.meta.model.YamlMetaType;
 import com.intellij.openapi.editor.colors.TextAttributesKey;
@@ -28,7 +27,7 @@ public class ManualTriggerEntryMetaType extends ConcordMetaType implements Highl
     private static final Map<String, YamlMetaType> features = Map.of(
             "name", new StringMetaType(descKey("doc.triggers.manual.name.description")),
             "entryPoint", new CallMetaType(descKey("doc.triggers.manual.entryPoint.description").andRequired()),
-            "activeProfiles", new StringArrayMetaType(descKey("doc.triggers.manual.activeProfiles.description")),
+            "activeProfiles", new ActiveProfilesMetaType(descKey("doc.triggers.manual.activeProfiles.description")),
             "arguments", new AnyMapMetaType(descKey("doc.triggers.manual.arguments.description")),
             "exclusive", TriggerExclusiveMetaType.getInstance()
     );
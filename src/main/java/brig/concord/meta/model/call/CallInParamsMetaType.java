@@ -7,11 +7,13 @@ import brig.concord.meta.model.value.ExpressionMetaType;
 import brig.concord.yaml.meta.model.YamlAnyOfType;
 import brig.concord.yaml.meta.model.YamlMetaType;
 import com.intellij.psi.PsiElement;
+import com.intellij.util.containers.CollectionFactory;
 
 import brig.concord.documentation.Documented;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 
 import static brig.concord.yaml.meta.model.TypeProps.descKey;
 
@@ -19,6 +21,12 @@ public class CallInParamsMetaType extends YamlAnyOfType implements DynamicMetaTy
 
     private static final CallInParamsMetaType INSTANCE = new CallInParamsMetaType();
 
+    // one wrapper per parameters type, so that resolved fields are shared between call sites
+    private static final ConcurrentMap<YamlMetaType, CallInParamsMetaType> RESOLVED =
+            CollectionFactory.createConcurrentWeakKeyWeakValueMap();
+
+    private final YamlMetaType objectType;
+
     public static CallInParamsMetaType getInstance() {
         return INSTANCE;
     }
@@ -30,6 +38,7 @@ public class CallInParamsMetaType extends YamlAnyOfType implements DynamicMetaTy
     private CallInParamsMetaType(YamlMetaType objectType) {
         super(List.of(ExpressionMetaType.getInstance(), objectType),
                 descKey("doc.step.feature.in.description"));
+        this.objectType = objectType;
     }
 
     @Override
@@ -41,7 +50,11 @@ public class CallInParamsMetaType extends YamlAnyOfType implements DynamicMetaTy
 
     @Override
     public YamlMetaType resolve(PsiElement element) {
-        return new CallInParamsMetaType(objectMetaType(element));
+        var objectType = objectMetaType(element);
+        if (objectType == INSTANCE.objectType) {
+            return INSTANCE;
+        }
+        return RESOLVED.computeIfAbsent(objectType, CallInParamsMetaType::new);
     }
 
     private static YamlMetaType objectMetaType(PsiElement element) {
@@ -32,22 +32,22 @@ public class CallOutValueMetaType extends StringMetaType implements OutVarContai
 
     @Override
     public @NotNull List<? extends LookupElement> getValueLookups(@NotNull YAMLScalar insertedScalar, @Nullable CompletionContext completionContext) {
-        var documentation = FlowCallParamsProvider.findFlowDocumentation(insertedScalar);
-        if (documentation == null) {
+        var signature = FlowCallParamsProvider.findFlowSignature(insertedScalar);
+        if (signature == null) {
             return List.of();
         }
 
-        var outputParams = documentation.getOutputParameters();
+        var outputParams = signature.outputParameters();
         if (outputParams.isEmpty()) {
             return List.of();
         }
 
         return outputParams.stream()
                 .map(param -> LookupElementBuilder.create(
-                                new OutParameterLookup(param.getName(), param.getType(),
-                                        param.isMandatory(), param.getDescription()),
-                                param.getName())
-                        .withTypeText(param.getType()))
+                                new OutParameterLookup(param.name(), param.type(),
+                                        param.mandatory(), param.description()),
+                                param.name())
+                        .withTypeText(param.type()))
                 .collect(Collectors.toList());
     }
 }
@@ -2,6 +2,7 @@
 package brig.concord.navigation;
 
 import brig.concord.ConcordBundle;
+import brig.concord.psi.ConcordRoot;
 import brig.concord.psi.ConcordScopeService;
 import com.intellij.ide.actions.SearchEverywherePsiRenderer;
 import com.intellij.ide.actions.searcheverywhere.SearchEverywhereContributor;
@@ -15,19 +16,21 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.psi.PsiManager;
+import com.intellij.psi.codeStyle.NameUtil;
 import com.intellij.psi.search.ProjectScope;
-import com.intellij.util.CommonProcessors;
 import com.intellij.util.Processor;
 import com.intellij.util.TextWithIcon;
 import com.intellij.util.indexing.FileBasedIndex;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class FlowDefinitionSearchEverywhereContributor implements SearchEverywhereContributor<FlowDefinitionNavigationItem> {
@@ -116,69 +119,93 @@ public class FlowDefinitionSearchEverywhereContributor implements SearchEverywhe
             return;
         }
 
-        var allKeys = FileBasedIndex.getInstance().getAllKeys(FlowNamesIndex.KEY, myProject);
+        var everywhere = SearchEverywhereManager.getInstance(myProject).isEverywhere();
+        var filter = everywhere ? ProjectScope.getAllScope(myProject) : ProjectScope.getProjectScope(myProject);
 
-        var sorted = applyPattern(allKeys, pattern, progressIndicator);
+        var index = FileBasedIndex.getInstance();
+        var allKeys = new ArrayList<String>();
+        index.processAllKeys(FlowNamesIndex.KEY, key -> {
+            progressIndicator.checkCanceled();
+            allKeys.add(key);
+            return true;
+        }, filter, null);
 
-        var scopeService = ConcordScopeService.getInstance(myProject);
+        var ranked = applyPattern(allKeys, pattern, progressIndicator);
 
-        var everywhere = SearchEverywhereManager.getInstance(myProject).isEverywhere();
-        for (var name : sorted) {
+        // names are resolved best match first, so the top results are shown before the tail is resolved;
+        // positions and scope names are read once per file and shared by all the flows it defines
+        var scopeService = ConcordScopeService.getInstance(myProject);
+        var fileEntries = new HashMap<VirtualFile, FileEntry>();
+        for (var name : ranked) {
             progressIndicator.checkCanceled();
-            var files = new CommonProcessors.CollectProcessor<VirtualFile>();
-            var filter = everywhere ? ProjectScope.getAllScope(myProject) : ProjectScope.getProjectScope(myProject);
-            FileBasedIndex.getInstance().getFilesWithKey(FlowNamesIndex.KEY,
-                    Collections.singleton(name),
-                    files,
-                    filter);
-
-            for (var file : files.getResults()) {
-                if (file == null || !file.isValid()) {
+            for (var file : index.getContainingFiles(FlowNamesIndex.KEY, name, filter)) {
+                if (!file.isValid()) {
                     continue;
                 }
 
-                if (scopeService.isIgnored(file)) {
+                var entry = fileEntries.computeIfAbsent(file, f -> readFileEntry(scopeService, f));
+                if (entry == FileEntry.IGNORED) {
                     continue;
                 }
 
-                var psiFile = PsiManager.getInstance(myProject).findFile(file);
-                if (psiFile == null) {
-                    continue;
-                }
-
-                var position = FileBasedIndex.getInstance().getFileData(FlowNamesIndex.KEY, file, myProject).get(name);
-                if (position != null) {
-                    var scopes = scopeService.getScopesForFile(file);
-                    var scopeName = scopes.isEmpty() ? null :
-                            scopes.stream()
-                                    .map(brig.concord.psi.ConcordRoot::getScopeName)
-                                    .distinct()
-                                    .collect(Collectors.joining(", "));
-
-                    if (!consumer.process(new FlowDefinitionNavigationItem(myProject, name, file, position, scopeName))) {
-                        return;
-                    }
+                var position = entry.positions().get(name);
+                if (position != null
+                        && !consumer.process(new FlowDefinitionNavigationItem(myProject, name, file, position, entry.scopeName()))) {
+                    return;
                 }
             }
         }
     }
 
+    private @NotNull FileEntry readFileEntry(@NotNull ConcordScopeService scopeService, @NotNull VirtualFile file) {
+        if (scopeService.isIgnored(file)) {
+            return FileEntry.IGNORED;
+        }
+
+        var positions = FileBasedIndex.getInstance().getFileData(FlowNamesIndex.KEY, file, myProject);
+        var scopes = scopeService.getScopesForFile(file);
+        var scopeName = scopes.isEmpty() ? null :
+                scopes.stream()
+                        .map(ConcordRoot::getScopeName)
+                        .distinct()
+                        .collect(Collectors.joining(", "));
+        return new FileEntry(positions, scopeName);
+    }
+
+    private record FileEntry(@NotNull Map<String, Integer> positions, @Nullable String scopeName) {
+        static final FileEntry IGNORED = new FileEntry(Map.of(), null);
+    }
+
+    /**
+     * Returns the keys matching the pattern (CamelHumps, fuzzy), best match first.
+     * Equally ranked keys are sorted by name.
+     */
     @NotNull
-    private static List<String> applyPattern(@NotNull Collection<String> keys,
-                                             @NotNull String pattern,
-                                             ProgressIndicator progressIndicator) {
-        String lowerPattern = pattern.toLowerCase();
-        List<String> result = new ArrayList<>();
+    static List<String> applyPattern(@NotNull Collection<String> keys,
+                                     @NotNull String pattern,
+                                     ProgressIndicator progressIndicator) {
+        var matcher = NameUtil.buildMatcher("*" + pattern, NameUtil.MatchingCaseSensitivity.NONE);
+
+        var matches = new ArrayList<RankedName>();
         for (var key : keys) {
             progressIndicator.checkCanceled();
-            if (key.toLowerCase().contains(lowerPattern)) {
-                result.add(key);
+            if (matcher.matches(key)) {
+                matches.add(new RankedName(key, matcher.matchingDegree(key)));
             }
         }
-        Collections.sort(result);
+
+        matches.sort(Comparator.comparingInt(RankedName::degree).reversed().thenComparing(RankedName::name));
+
+        var result = new ArrayList<String>(matches.size());
+        for (var match : matches) {
+            result.add(match.name());
+        }
         return result;
     }
 
+    private record RankedName(@NotNull String name, int degree) {
+    }
+
     public static class Factory implements SearchEverywhereContributorFactory<FlowDefinitionNavigationItem> {
         @NotNull
         @Override
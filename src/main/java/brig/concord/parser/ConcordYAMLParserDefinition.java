@@ -1,7 +1,6 @@
 // SPDX-License-Identifier: Apache-2.0
 package brig.concord.parser;
 
-import brig.concord.ConcordLanguage;
 import brig.concord.lexer.ConcordYAMLFlexLexer;
 import brig.concord.lexer.ExpressionSplittingLexer;
 import brig.concord.lexer.FlowDocElementTypes;
@@ -12,6 +11,7 @@ import brig.concord.psi.impl.yaml.YAMLConcordKeyValueImpl;
 import brig.concord.psi.impl.yaml.YAMLConcordPlainTextImpl;
 import brig.concord.psi.impl.yaml.YAMLConcordQuotedTextImpl;
 import brig.concord.psi.impl.yaml.YAMLConcordScalarList;
+import brig.concord.psi.stub.ConcordFileElementType;
 import brig.concord.yaml.YAMLElementTypes;
 import brig.concord.yaml.psi.impl.*;
 import com.intellij.extapi.psi.ASTWrapperPsiElement;
@@ -30,7 +30,7 @@ import org.jetbrains.annotations.NotNull;
 
 public class ConcordYAMLParserDefinition implements ParserDefinition {
 
-    public static final IFileElementType FILE = new IFileElementType(ConcordLanguage.INSTANCE);
+    public static final IFileElementType FILE = new ConcordFileElementType();
 
     @Override
     public @NotNull Lexer createLexer(final Project project) {
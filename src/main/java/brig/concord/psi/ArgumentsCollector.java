@@ -1,9 +1,12 @@
 // SPDX-License-Identifier: Apache-2.0
 package brig.concord.psi;
 
+import brig.concord.psi.stub.ConcordFileStubs;
+import brig.concord.schema.SchemaInference;
+import brig.concord.psi.stub.ConcordStubKind;
 import brig.concord.yaml.psi.YAMLKeyValue;
-import brig.concord.yaml.psi.YAMLMapping;
 import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Key;
 import com.intellij.openapi.vfs.VirtualFile;
@@ -11,16 +14,41 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiManager;
 import com.intellij.psi.util.CachedValue;
 import com.intellij.psi.util.CachedValueProvider;
-import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
 @Service(Service.Level.PROJECT)
 public final class ArgumentsCollector {
 
-    private static final Key<CachedValue<Map<VirtualFile, Map<String, YAMLKeyValue>>>> CACHE_KEY =
-            Key.create("ArgumentsCollector.byScope");
+    private static final Key<CachedValue<Map<String, YAMLKeyValue>>> CACHE_KEY =
+            Key.create("ArgumentsCollector.scope");
+
+    private static final Key<CachedValue<Map<String, IndexedArgument>>> INDEXED_CACHE_KEY =
+            Key.create("ArgumentsCollector.indexedScope");
+
+    /**
+     * An argument read from {@link ArgumentsIndex}, the declaring PSI is resolved on demand.
+     */
+    public record IndexedArgument(@NotNull VirtualFile file, @NotNull ArgumentsIndex.ArgumentData data) {
+
+        public @Nullable YAMLKeyValue resolve(@NotNull Project project) {
+            if (!file.isValid()) {
+                return null;
+            }
+
+            var psiFile = PsiManager.getInstance(project).findFile(file);
+            if (psiFile == null) {
+                return null;
+            }
+
+            var kv = PsiTreeUtil.getParentOfType(psiFile.findElementAt(data.offset()), YAMLKeyValue.class, false);
+            return kv != null && kv.getTextOffset() == data.offset() ? kv : null;
+        }
+    }
 
     private final Project project;
 
@@ -43,30 +71,40 @@ public final class ArgumentsCollector {
             return Map.of();
         }
 
-        var byScope = collectByScope();
         Map<String, YAMLKeyValue> merged = new LinkedHashMap<>();
         for (var scope : scopes) {
-            var scopeArgs = byScope.get(scope.getRootFile());
-            if (scopeArgs != null) {
-                merged.putAll(scopeArgs);
-            }
+            merged.putAll(argumentsOf(scope));
         }
 
         return merged;
     }
 
     /**
-     * Returns arguments grouped by scope root (cached).
+     * Same as {@link #getArguments(PsiElement)}, but served from {@link ArgumentsIndex}
+     * without loading or retaining any PSI. In dumb mode it is computed from the PSI instead.
      */
-    public @NotNull Map<VirtualFile, Map<String, YAMLKeyValue>> collectByScope() {
-        return CachedValuesManager.getManager(project).getCachedValue(project, CACHE_KEY, () -> {
-            var result = doCollectByScope();
-            var tracker = ConcordModificationTracker.getInstance(project);
-            return CachedValueProvider.Result.create(result, tracker.structure(), tracker.arguments());
-        }, false);
+    public @NotNull Map<String, IndexedArgument> getIndexedArguments(@NotNull PsiElement context) {
+        var scopeService = ConcordScopeService.getInstance(project);
+        var scopes = scopeService.getScopes(context);
+        if (scopes.isEmpty()) {
+            return Map.of();
+        }
+
+        if (scopes.size() == 1) {
+            return indexedArgumentsOf(scopes.getFirst());
+        }
+
+        Map<String, IndexedArgument> merged = new LinkedHashMap<>();
+        for (var scope : scopes) {
+            merged.putAll(indexedArgumentsOf(scope));
+        }
+        return merged;
     }
 
-    private @NotNull Map<VirtualFile, Map<String, YAMLKeyValue>> doCollectByScope() {
+    /**
+     * Returns arguments grouped by scope root.
+     */
+    public @NotNull Map<VirtualFile, Map<String, YAMLKeyValue>> collectByScope() {
         var scopeService = ConcordScopeService.getInstance(project);
         var roots = scopeService.findRoots();
 
@@ -76,7 +114,7 @@ public final class ArgumentsCollector {
 
         Map<VirtualFile, Map<String, YAMLKeyValue>> result = new HashMap<>();
         for (var root : roots) {
-            var args = collectForScope(root);
+            var args = argumentsOf(root);
             if (!args.isEmpty()) {
                 result.put(root.getRootFile(), args);
             }
@@ -86,64 +124,84 @@ public final class ArgumentsCollector {
     }
 
     /**
-     * Collects merged arguments for a single scope.
-     * Files are sorted by name, then path; root file is processed last (overrides everything).
+     * Merged arguments of a single scope, cached until the structure or arguments of that scope change.
      */
-    private @NotNull Map<String, YAMLKeyValue> collectForScope(@NotNull ConcordRoot root) {
-        var scopeService = ConcordScopeService.getInstance(project);
-        var filesInScope = scopeService.getFilesInScope(root);
-        var rootFile = root.getRootFile();
+    private @NotNull Map<String, YAMLKeyValue> argumentsOf(@NotNull ConcordRoot root) {
+        return root.getCachedValue(CACHE_KEY, () -> {
+            var tracker = ConcordModificationTracker.getInstance(project);
+            return CachedValueProvider.Result.create(collectForScope(root),
+                    tracker.structure(root), tracker.arguments(root));
+        });
+    }
 
-        List<VirtualFile> sortedFiles = new ArrayList<>(filesInScope);
-        sortedFiles.remove(rootFile);
-        sortedFiles.sort(Comparator.comparing(VirtualFile::getName)
-                .thenComparing(VirtualFile::getPath));
+    private @NotNull Map<String, IndexedArgument> indexedArgumentsOf(@NotNull ConcordRoot root) {
+        if (DumbService.isDumb(project)) {
+            // ArgumentsIndex is not available, fall back to the stub-based arguments
+            return fromPsi(argumentsOf(root));
+        }
+        return root.getCachedValue(INDEXED_CACHE_KEY, () -> {
+            var tracker = ConcordModificationTracker.getInstance(project);
+            return CachedValueProvider.Result.create(collectIndexedForScope(root),
+                    tracker.structure(root), tracker.arguments(root));
+        });
+    }
 
+    /**
+     * Collects merged arguments for a single scope.
+     * Files are processed in {@link ConcordScopeService#getFilesInMergeOrder} order.
+     */
+    private @NotNull Map<String, YAMLKeyValue> collectForScope(@NotNull ConcordRoot root) {
         Map<String, YAMLKeyValue> result = new LinkedHashMap<>();
         var psiManager = PsiManager.getInstance(project);
 
-        for (var vf : sortedFiles) {
+        for (var vf : ConcordScopeService.getInstance(project).getFilesInMergeOrder(root)) {
             var psiFile = psiManager.findFile(vf);
             if (psiFile instanceof ConcordFile concordFile) {
                 collectArguments(concordFile, result);
             }
         }
 
-        // Root file processed last — overrides everything
-        var rootPsiFile = psiManager.findFile(rootFile);
-        if (rootPsiFile instanceof ConcordFile concordFile) {
-            collectArguments(concordFile, result);
+        return result;
+    }
+
+    private @NotNull Map<String, IndexedArgument> collectIndexedForScope(@NotNull ConcordRoot root) {
+        Map<String, IndexedArgument> result = new LinkedHashMap<>();
+        var index = FileBasedIndex.getInstance();
+
+        for (var vf : ConcordScopeService.getInstance(project).getFilesInMergeOrder(root)) {
+            var fileData = new ArrayList<>(index.getFileData(ArgumentsIndex.KEY, vf, project).entrySet());
+            // Index data is unordered, keep the declaration order
+            fileData.sort(Comparator.comparingInt(e -> e.getValue().offset()));
+            for (var entry : fileData) {
+                result.put(entry.getKey(), new IndexedArgument(vf, entry.getValue()));
+            }
         }
 
         return result;
     }
 
+    private static @NotNull Map<String, IndexedArgument> fromPsi(@NotNull Map<String, YAMLKeyValue> arguments) {
+        Map<String, IndexedArgument> result = new LinkedHashMap<>();
+        arguments.forEach((name, kv) -> {
+            var vf = kv.getContainingFile().getVirtualFile();
+            if (vf != null) {
+                var data = new ArgumentsIndex.ArgumentData(SchemaInference.inferType(kv.getValue()), kv.getTextOffset());
+                result.put(name, new IndexedArgument(vf, data));
+            }
+        });
+        return result;
+    }
+
     /**
      * Extracts arguments from a single ConcordFile into the target map.
+     * Reads {@code configuration.arguments} keys from the file's stubs, so the AST is not loaded.
      */
     private static void collectArguments(@NotNull ConcordFile file, @NotNull Map<String, YAMLKeyValue> target) {
-        file.configuration().ifPresent(configKv -> {
-            var configValue = configKv.getValue();
-            if (!(configValue instanceof YAMLMapping configMapping)) {
-                return;
+        for (var stub : ConcordFileStubs.find(file, ConcordStubKind.ARGUMENT)) {
+            var key = stub.getKeyText().trim();
+            if (!key.isEmpty()) {
+                target.put(key, stub.getPsi());
             }
-
-            var argsKv = configMapping.getKeyValueByKey("arguments");
-            if (argsKv == null) {
-                return;
-            }
-
-            var argsValue = argsKv.getValue();
-            if (!(argsValue instanceof YAMLMapping argsMapping)) {
-                return;
-            }
-
-            for (var kv : argsMapping.getKeyValues()) {
-                var key = kv.getKeyText().trim();
-                if (!key.isEmpty()) {
-                    target.put(key, kv);
-                }
-            }
-        });
+        }
     }
 }
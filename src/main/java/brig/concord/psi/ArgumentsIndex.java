@@ -0,0 +1,178 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import brig.concord.ConcordFileType;
+import brig.concord.ConcordType;
+import brig.concord.schema.ObjectSchema;
+import brig.concord.schema.SchemaInference;
+import brig.concord.schema.SchemaProperty;
+import brig.concord.schema.SchemaType;
+import brig.concord.yaml.psi.*;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Maps {@code configuration.arguments} names to their inferred schema type and offset.
+ * Lets argument variables be built without loading the PSI of the declaring files.
+ */
+public final class ArgumentsIndex extends FileBasedIndexExtension<String, ArgumentsIndex.ArgumentData> {
+
+    @NonNls
+    public static final ID<String, ArgumentData> KEY = ID.create("concord.yaml.arguments");
+
+    /**
+     * @param type   schema type inferred from the value, see {@link SchemaInference#inferType}
+     * @param offset text offset of the argument key
+     */
+    public record ArgumentData(@NotNull SchemaType type, int offset) {
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, ArgumentData, FileContent> getIndexer() {
+        return inputData -> {
+            if (!(inputData.getPsiFile() instanceof ConcordFile file)) {
+                return Collections.emptyMap();
+            }
+
+            var arguments = file.configuration()
+                    .map(YAMLKeyValue::getValue)
+                    .filter(YAMLMapping.class::isInstance)
+                    .map(m -> ((YAMLMapping) m).getKeyValueByKey("arguments"))
+                    .map(YAMLKeyValue::getValue)
+                    .orElse(null);
+            if (!(arguments instanceof YAMLMapping mapping)) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, ArgumentData> map = new HashMap<>();
+            for (var kv : mapping.getKeyValues()) {
+                var name = kv.getKeyText().trim();
+                if (!name.isEmpty()) {
+                    map.put(name, new ArgumentData(SchemaInference.inferType(kv.getValue()), kv.getTextOffset()));
+                }
+            }
+            return map;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<ArgumentData> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, ArgumentData value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.offset());
+                writeType(out, value.type());
+            }
+
+            @Override
+            public ArgumentData read(@NotNull DataInput in) throws IOException {
+                var offset = DataInputOutputUtil.readINT(in);
+                return new ArgumentData(readType(in), offset);
+            }
+        };
+    }
+
+    private static final byte TYPE_ANY = 0;
+    private static final byte TYPE_SCALAR = 1;
+    private static final byte TYPE_ARRAY = 2;
+    private static final byte TYPE_OBJECT = 3;
+
+    /**
+     * Writes the subset of {@link SchemaType} produced by {@link SchemaInference#inferType}.
+     * Anything else is stored as {@link SchemaType#ANY}.
+     */
+    private static void writeType(@NotNull DataOutput out, @NotNull SchemaType type) throws IOException {
+        switch (type) {
+            case SchemaType.Scalar s when s.concordType() instanceof ConcordType.WellKnown wk -> {
+                out.writeByte(TYPE_SCALAR);
+                out.writeByte(wk.ordinal());
+            }
+            case SchemaType.Array a when a.itemType() instanceof ConcordType.WellKnown wk -> {
+                out.writeByte(TYPE_ARRAY);
+                out.writeByte(wk.ordinal());
+            }
+            case SchemaType.Object o -> {
+                out.writeByte(TYPE_OBJECT);
+                var properties = o.section().properties();
+                DataInputOutputUtil.writeINT(out, properties.size());
+                for (var property : properties.values()) {
+                    IOUtil.writeUTF(out, property.name());
+                    writeType(out, property.schemaType());
+                }
+            }
+            default -> out.writeByte(TYPE_ANY);
+        }
+    }
+
+    private static @NotNull SchemaType readType(@NotNull DataInput in) throws IOException {
+        var tag = in.readByte();
+        return switch (tag) {
+            case TYPE_SCALAR -> scalar(ConcordType.WellKnown.values()[in.readByte()]);
+            case TYPE_ARRAY -> {
+                var itemType = ConcordType.WellKnown.values()[in.readByte()];
+                yield itemType == ConcordType.WellKnown.ANY ? SchemaType.Array.ANY : new SchemaType.Array(itemType);
+            }
+            case TYPE_OBJECT -> {
+                var size = DataInputOutputUtil.readINT(in);
+                var properties = new LinkedHashMap<String, SchemaProperty>(size);
+                for (int i = 0; i < size; i++) {
+                    var name = IOUtil.readUTF(in);
+                    properties.put(name, new SchemaProperty(name, readType(in), null, false));
+                }
+                yield new SchemaType.Object(new ObjectSchema(Collections.unmodifiableMap(properties), Collections.emptySet(), true));
+            }
+            default -> new SchemaType.Any();
+        };
+    }
+
+    private static @NotNull SchemaType scalar(@NotNull ConcordType.WellKnown type) {
+        return switch (type) {
+            case STRING -> SchemaType.Scalar.STRING;
+            case BOOLEAN -> SchemaType.Scalar.BOOLEAN;
+            case INTEGER -> SchemaType.Scalar.INTEGER;
+            case OBJECT -> SchemaType.Scalar.OBJECT;
+            default -> new SchemaType.Scalar(type);
+        };
+    }
+
+    @NotNull
+    @Override
+    public ID<String, ArgumentData> getName() {
+        return KEY;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(ConcordFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
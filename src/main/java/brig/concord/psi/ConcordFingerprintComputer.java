@@ -1,6 +1,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package brig.concord.psi;
 
+import brig.concord.dependency.DependencyIndex;
 import brig.concord.yaml.psi.YAMLDocument;
 import brig.concord.yaml.psi.YAMLMapping;
 import brig.concord.yaml.psi.YAMLScalar;
@@ -15,10 +16,27 @@ import java.util.*;
 
 public final class ConcordFingerprintComputer {
 
+    private static final String CONFIGURATION_KEY = "configuration";
+    private static final String PROFILES_KEY = "profiles";
+    private static final String RESOURCES_KEY = "resources";
+
     private ConcordFingerprintComputer() {
     }
 
     public static @Nullable ConcordFileFingerprint compute(@NotNull ConcordFile yamlFile, boolean isRoot) {
+        return compute(yamlFile, isRoot, null);
+    }
+
+    /**
+     * @param indexed dependencies of the file from {@link DependencyIndex}; when present,
+     *                dependency sections are not re-read from the PSI
+     */
+    public static @Nullable ConcordFileFingerprint compute(@NotNull ConcordFile yamlFile, boolean isRoot,
+                                                           @Nullable DependencyIndex.FileDependencies indexed) {
+        if (indexed != null && !indexed.valid()) {
+            return null;
+        }
+
         var doc = PsiTreeUtil.getChildOfType(yamlFile, YAMLDocument.class);
         if (doc == null) {
             return ConcordFileFingerprint.EMPTY;
@@ -36,6 +54,12 @@ public final class ConcordFingerprintComputer {
             return null;
         }
 
+        var argumentsHash = readArgumentsHash(config.mapping);
+
+        if (indexed != null) {
+            return fromIndex(normalize(resources), indexed, argumentsHash);
+        }
+
         var dependencies = readList(config.mapping, "dependencies");
         if (dependencies == null) {
             return null;
@@ -51,8 +75,6 @@ public final class ConcordFingerprintComputer {
             return null;
         }
 
-        var argumentsHash = readArgumentsHash(config.mapping);
-
         return new ConcordFileFingerprint(
                 normalize(resources),
                 normalize(dependencies),
@@ -62,6 +84,119 @@ public final class ConcordFingerprintComputer {
         );
     }
 
+    /**
+     * Whether an edit confined to the given top-level sections can change the fingerprint of the file.
+     */
+    public static boolean affectsFingerprint(@NotNull Set<String> sections, boolean isRoot) {
+        return readsDependencies(sections) || isRoot && sections.contains(RESOURCES_KEY);
+    }
+
+    /**
+     * Whether an edit confined to the given top-level sections can change the dependencies of the file.
+     */
+    public static boolean readsDependencies(@NotNull Set<String> sections) {
+        return sections.contains(CONFIGURATION_KEY) || sections.contains(PROFILES_KEY);
+    }
+
+    /**
+     * Recomputes only the components of {@code previous} read from the given top-level sections,
+     * the other components are carried over.
+     *
+     * @param sections top-level sections the file was edited in since {@code previous} was computed
+     */
+    public static @Nullable ConcordFileFingerprint update(@NotNull ConcordFile yamlFile, boolean isRoot,
+                                                          @Nullable DependencyIndex.FileDependencies indexed,
+                                                          @NotNull ConcordFileFingerprint previous,
+                                                          @NotNull Set<String> sections) {
+        var doc = PsiTreeUtil.getChildOfType(yamlFile, YAMLDocument.class);
+        if (doc == null) {
+            return ConcordFileFingerprint.EMPTY;
+        }
+
+        var root = PsiTreeUtil.getChildOfType(doc, YAMLMapping.class);
+        if (root == null) {
+            return ConcordFileFingerprint.EMPTY;
+        }
+
+        var resources = isRoot && sections.contains(RESOURCES_KEY)
+                ? normalize(readResources(root))
+                : previous.resourcePatterns();
+
+        var argumentsHash = previous.argumentsHash();
+        var dependencies = previous.dependencies();
+        var extraDependencies = previous.extraDependencies();
+        if (sections.contains(CONFIGURATION_KEY)) {
+            var config = readMapping(root, CONFIGURATION_KEY);
+            if (config.state == MappingState.INVALID) {
+                return null;
+            }
+
+            argumentsHash = readArgumentsHash(config.mapping);
+
+            if (indexed == null) {
+                var readDependencies = readList(config.mapping, "dependencies");
+                var readExtraDependencies = readList(config.mapping, "extraDependencies");
+                if (readDependencies == null || readExtraDependencies == null) {
+                    return null;
+                }
+                dependencies = normalize(readDependencies);
+                extraDependencies = normalize(readExtraDependencies);
+            }
+        }
+
+        if (indexed != null && readsDependencies(sections)) {
+            if (!indexed.valid()) {
+                return null;
+            }
+            return fromIndex(resources, indexed, argumentsHash);
+        }
+
+        var profiles = previous.profiles();
+        if (sections.contains(PROFILES_KEY)) {
+            profiles = readProfiles(root);
+            if (profiles == null) {
+                return null;
+            }
+        }
+
+        return new ConcordFileFingerprint(resources, dependencies, extraDependencies, profiles, argumentsHash);
+    }
+
+    private static @NotNull ConcordFileFingerprint fromIndex(@NotNull List<String> resources,
+                                                             @NotNull DependencyIndex.FileDependencies indexed,
+                                                             long argumentsHash) {
+        List<String> dependencies = new ArrayList<>();
+        List<String> extraDependencies = new ArrayList<>();
+        Map<String, List<String>> profileDependencies = new HashMap<>();
+        Map<String, List<String>> profileExtraDependencies = new HashMap<>();
+
+        for (var entry : indexed.entries()) {
+            if (entry.profile() == null) {
+                (entry.extra() ? extraDependencies : dependencies).add(entry.text());
+            } else {
+                (entry.extra() ? profileExtraDependencies : profileDependencies)
+                        .computeIfAbsent(entry.profile(), k -> new ArrayList<>())
+                        .add(entry.text());
+            }
+        }
+
+        Map<String, ConcordFileFingerprint.ProfileFingerprint> profiles = new HashMap<>();
+        for (var profile : indexed.profiles()) {
+            profiles.put(profile, new ConcordFileFingerprint.ProfileFingerprint(
+                    normalize(profileDependencies.get(profile)),
+                    normalize(profileExtraDependencies.get(profile))
+            ));
+        }
+
+        return new ConcordFileFingerprint(
+                resources,
+                normalize(dependencies),
+                normalize(extraDependencies),
+                Map.copyOf(profiles),
+                argumentsHash
+        );
+    }
+
     private static @Nullable List<String> readResources(@NotNull YAMLMapping root) {
         var resources = readMapping(root, "resources");
         if (resources.state == MappingState.ABSENT) {
@@ -0,0 +1,293 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and histograms of the invalidation work done by the plugin: {@link ConcordModificationTracker} batches,
+ * the trackers they tick and daemon restarts with their reasons.
+ * <p>
+ * Shown by the internal "Concord Invalidation Statistics" action and also emitted as JFR events
+ * in the {@code Concord} category, so invalidation storms can be found in a recording of a large repository.
+ */
+@Service(Service.Level.PROJECT)
+public final class ConcordInvalidationStats {
+
+    private final AtomicLong since = new AtomicLong(System.currentTimeMillis());
+
+    private final AtomicLong readAttempts = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final Histogram dirtyFiles = new Histogram();
+    private final Histogram readTimeMicros = new Histogram();
+
+    private final AtomicLong fingerprintsComputed = new AtomicLong();
+    private final AtomicLong fingerprintsUpdated = new AtomicLong();
+    private final AtomicLong fingerprintsSkipped = new AtomicLong();
+
+    private final AtomicLong structureTicks = new AtomicLong();
+    private final AtomicLong scopeRebuilds = new AtomicLong();
+    private final AtomicLong dependenciesTicks = new AtomicLong();
+    private final AtomicLong argumentsTicks = new AtomicLong();
+
+    private final ConcurrentMap<String, Restarts> restarts = new ConcurrentHashMap<>();
+
+    public static @NotNull ConcordInvalidationStats getInstance(@NotNull Project project) {
+        return project.getService(ConcordInvalidationStats.class);
+    }
+
+    /**
+     * Restarts the daemon for the whole project and records the reason.
+     */
+    public static void restartDaemon(@NotNull Project project, @NotNull String reason) {
+        getInstance(project).restarted(reason, 0);
+        DaemonCodeAnalyzer.getInstance(project).restart(reason);
+    }
+
+    /**
+     * Restarts the daemon for the given file and records the reason.
+     */
+    public static void restartDaemon(@NotNull PsiFile file, @NotNull String reason) {
+        getInstance(file.getProject()).restarted(reason, 1);
+        DaemonCodeAnalyzer.getInstance(file.getProject()).restart(file, reason);
+    }
+
+    void readStarted() {
+        readAttempts.incrementAndGet();
+    }
+
+    /**
+     * @param fingerprints how the fingerprints of the dirty files were obtained
+     */
+    void batchRead(int files, long nanos, @NotNull FingerprintCounts fingerprints,
+                   boolean structure, boolean dependencies, boolean arguments) {
+        batches.incrementAndGet();
+        dirtyFiles.record(files);
+        readTimeMicros.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        fingerprintsComputed.addAndGet(fingerprints.computed);
+        fingerprintsUpdated.addAndGet(fingerprints.updated);
+        fingerprintsSkipped.addAndGet(fingerprints.skipped);
+
+        var event = new BatchEvent();
+        if (event.shouldCommit()) {
+            event.dirtyFiles = files;
+            event.readTime = nanos;
+            event.fingerprintsComputed = fingerprints.computed;
+            event.fingerprintsSkipped = fingerprints.skipped;
+            event.structure = structure;
+            event.dependencies = dependencies;
+            event.arguments = arguments;
+            event.commit();
+        }
+    }
+
+    void trackersTicked(boolean structure, boolean scopeRebuild, boolean dependencies, boolean arguments) {
+        if (structure) {
+            structureTicks.incrementAndGet();
+        }
+        if (scopeRebuild) {
+            scopeRebuilds.incrementAndGet();
+        }
+        if (dependencies) {
+            dependenciesTicks.incrementAndGet();
+        }
+        if (arguments) {
+            argumentsTicks.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param files number of files restarted, 0 for the whole project
+     */
+    void restarted(@NotNull String reason, int files) {
+        restarts.computeIfAbsent(reason, k -> new Restarts()).record(files);
+
+        var event = new RestartEvent();
+        if (event.shouldCommit()) {
+            event.reason = reason;
+            event.files = files;
+            event.commit();
+        }
+    }
+
+    public void reset() {
+        since.set(System.currentTimeMillis());
+        readAttempts.set(0);
+        batches.set(0);
+        dirtyFiles.reset();
+        readTimeMicros.reset();
+        fingerprintsComputed.set(0);
+        fingerprintsUpdated.set(0);
+        fingerprintsSkipped.set(0);
+        structureTicks.set(0);
+        scopeRebuilds.set(0);
+        dependenciesTicks.set(0);
+        argumentsTicks.set(0);
+        restarts.clear();
+    }
+
+    /**
+     * A plain-text summary of everything recorded since the last {@link #reset()}.
+     */
+    public @NotNull String report() {
+        var seconds = Math.max(1, (System.currentTimeMillis() - since.get()) / 1000);
+        var sb = new StringBuilder();
+        sb.append("Recorded for ").append(seconds).append(" s\n\n");
+
+        sb.append("Batches: ").append(batches.get())
+                .append(" (read attempts: ").append(readAttempts.get()).append(")\n");
+        sb.append("  dirty files: ").append(dirtyFiles.summary("")).append('\n');
+        sb.append("  read time: ").append(readTimeMicros.summary(" us")).append('\n');
+        sb.append("  fingerprints: computed ").append(fingerprintsComputed.get())
+                .append(", updated ").append(fingerprintsUpdated.get())
+                .append(", skipped ").append(fingerprintsSkipped.get()).append('\n');
+
+        sb.append("\nTracker ticks:\n");
+        sb.append("  structure: ").append(structureTicks.get())
+                .append(" (full scope rebuilds: ").append(scopeRebuilds.get()).append(")\n");
+        sb.append("  dependencies: ").append(dependenciesTicks.get()).append('\n');
+        sb.append("  arguments: ").append(argumentsTicks.get()).append('\n');
+
+        sb.append("\nDaemon restarts:\n");
+        if (restarts.isEmpty()) {
+            sb.append("  none\n");
+        }
+        for (var entry : new TreeMap<>(restarts).entrySet()) {
+            var r = entry.getValue();
+            sb.append("  ").append(entry.getKey()).append(": ").append(r.count.get())
+                    .append(" (").append(String.format("%.2f", r.count.get() / (double) seconds)).append("/s");
+            if (r.files.get() > 0) {
+                sb.append(", ").append(r.files.get()).append(" files");
+            }
+            sb.append(")\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * How the fingerprints of the files of one batch were obtained.
+     */
+    static final class FingerprintCounts {
+        int computed;
+        int updated;
+        int skipped;
+    }
+
+    private static final class Restarts {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong files = new AtomicLong();
+
+        void record(int files) {
+            count.incrementAndGet();
+            this.files.addAndGet(files);
+        }
+    }
+
+    /**
+     * Power-of-two buckets: bucket {@code i} counts values in {@code [2^(i-1), 2^i)}, bucket 0 counts zeros.
+     */
+    private static final class Histogram {
+        private final long[] buckets = new long[Long.SIZE + 1];
+        private long count;
+        private long sum;
+        private long max;
+
+        synchronized void record(long value) {
+            var v = Math.max(0, value);
+            buckets[Long.SIZE - Long.numberOfLeadingZeros(v)]++;
+            count++;
+            sum += v;
+            max = Math.max(max, v);
+        }
+
+        synchronized void reset() {
+            Arrays.fill(buckets, 0);
+            count = 0;
+            sum = 0;
+            max = 0;
+        }
+
+        synchronized @NotNull String summary(@NotNull String unit) {
+            if (count == 0) {
+                return "-";
+            }
+            return "mean " + sum / count + unit
+                    + ", p50 < " + percentile(0.5) + unit
+                    + ", p90 < " + percentile(0.9) + unit
+                    + ", p99 < " + percentile(0.99) + unit
+                    + ", max " + max + unit;
+        }
+
+        /**
+         * Upper bound of the bucket the percentile falls into.
+         */
+        private long percentile(double p) {
+            var target = (long) Math.ceil(count * p);
+            var seen = 0L;
+            for (var i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target) {
+                    return i == 0 ? 1 : i >= Long.SIZE - 1 ? Long.MAX_VALUE : 1L << i;
+                }
+            }
+            return max;
+        }
+    }
+
+    @Name("brig.concord.InvalidationBatch")
+    @Label("Concord Invalidation Batch")
+    @Category("Concord")
+    @Description("A batch of Concord file changes processed by ConcordModificationTracker")
+    static final class BatchEvent extends Event {
+        @Label("Dirty Files")
+        int dirtyFiles;
+
+        @Label("Read Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long readTime;
+
+        @Label("Fingerprints Computed")
+        int fingerprintsComputed;
+
+        @Label("Fingerprints Skipped")
+        int fingerprintsSkipped;
+
+        @Label("Structure Changed")
+        boolean structure;
+
+        @Label("Dependencies Changed")
+        boolean dependencies;
+
+        @Label("Arguments Changed")
+        boolean arguments;
+    }
+
+    @Name("brig.concord.DaemonRestart")
+    @Label("Concord Daemon Restart")
+    @Category("Concord")
+    @Description("Code analysis restarted by the Concord plugin")
+    static final class RestartEvent extends Event {
+        @Label("Reason")
+        String reason;
+
+        @Label("Files")
+        @Description("Number of files restarted, 0 for the whole project")
+        int files;
+    }
+}
@@ -1,7 +1,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package brig.concord.psi;
 
-import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import brig.concord.dependency.DependencyIndex;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.ModalityState;
@@ -10,7 +10,12 @@ import com.intellij.openapi.components.Service;
 import com.intellij.openapi.editor.EditorFactory;
 import com.intellij.openapi.editor.event.DocumentEvent;
 import com.intellij.openapi.editor.event.DocumentListener;
+import com.intellij.openapi.fileTypes.FileTypeEvent;
+import com.intellij.openapi.fileTypes.FileTypeListener;
+import com.intellij.openapi.fileTypes.FileTypeManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
 import com.intellij.openapi.roots.ProjectFileIndex;
 import com.intellij.openapi.util.ModificationTracker;
 import com.intellij.openapi.util.SimpleModificationTracker;
@@ -29,8 +34,12 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -41,11 +50,17 @@ import java.util.concurrent.atomic.AtomicReference;
  * Change categories:
  * - STRUCTURE_CHANGE: structural VFS changes, .gitignore changes, resources.concord changes (in root files only).
  * - DEPENDENCIES_CHANGE: dependency sections changes (root + profiles) in ANY Concord file.
+ * - ARGUMENTS_CHANGE: configuration.arguments changes in ANY Concord file.
+ * <p>
+ * Each category also has a tracker per {@link ConcordRoot}, bumped only for the roots whose scopes contain
+ * the changed files, so caches kept per scope survive edits in unrelated scopes. The project-wide trackers
+ * change whenever any of the per-root trackers does.
  */
 @Service(Service.Level.PROJECT)
 public final class ConcordModificationTracker implements Disposable {
 
     private static final int QUEUE_DELAY_MS = 200;
+    private static final int STRUCTURE_LOG_SIZE = 64;
 
     private enum ProcessingState {
         IDLE,
@@ -57,10 +72,16 @@ public final class ConcordModificationTracker implements Disposable {
     private final SimpleModificationTracker structureTracker = new SimpleModificationTracker();
     private final SimpleModificationTracker dependenciesTracker = new SimpleModificationTracker();
     private final SimpleModificationTracker argumentsTracker = new SimpleModificationTracker();
+    private final RootTrackers structureRoots = new RootTrackers();
+    private final RootTrackers dependenciesRoots = new RootTrackers();
+    private final RootTrackers argumentsRoots = new RootTrackers();
 
     private final AtomicReference<DirtyState> dirtyRef = new AtomicReference<>(DirtyState.empty());
     private final AtomicReference<ProcessingState> state = new AtomicReference<>(ProcessingState.IDLE);
 
+    // Recent structure changes, so scope membership can catch up incrementally. Guarded by itself.
+    private final ArrayDeque<StructureChange> structureLog = new ArrayDeque<>();
+
     // Unified cache for all Concord files
     private final ConcurrentMap<VirtualFile, ConcordFileFingerprint> fileCache = new ConcurrentHashMap<>();
 
@@ -95,6 +116,20 @@ public final class ConcordModificationTracker implements Disposable {
 
         connection.subscribe(VirtualFileManager.VFS_CHANGES, new ConcordVfsListener());
 
+        // Excluded roots and ignored file patterns are part of the cached ignore status
+        connection.subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+            @Override
+            public void rootsChanged(@NotNull ModuleRootEvent event) {
+                forceRefresh();
+            }
+        });
+        connection.subscribe(FileTypeManager.TOPIC, new FileTypeListener() {
+            @Override
+            public void fileTypesChanged(@NotNull FileTypeEvent event) {
+                forceRefresh();
+            }
+        });
+
         EditorFactory.getInstance().getEventMulticaster().addDocumentListener(new ConcordDocumentChangeListener(), this);
     }
 
@@ -114,13 +149,84 @@ public final class ConcordModificationTracker implements Disposable {
         return argumentsTracker;
     }
 
+    /**
+     * Changes to the set of files or resources.concord patterns of the root's scope.
+     */
+    public @NotNull ModificationTracker structure(@NotNull ConcordRoot root) {
+        return structureRoots.get(root.getRootFile());
+    }
+
+    /**
+     * Changes to the dependency sections of the files in the root's scope.
+     */
+    public @NotNull ModificationTracker dependencies(@NotNull ConcordRoot root) {
+        return dependenciesRoots.get(root.getRootFile());
+    }
+
+    /**
+     * Changes to the arguments of the files in the root's scope.
+     */
+    public @NotNull ModificationTracker arguments(@NotNull ConcordRoot root) {
+        return argumentsRoots.get(root.getRootFile());
+    }
+
     @TestOnly
     public void setForceSyncInTests(boolean value) {
         this.forceSyncInTests = value;
     }
 
+    /**
+     * What a structure change did to scope membership.
+     *
+     * @param files        Concord files that were created, deleted, moved or renamed
+     * @param patternRoots root files whose resources.concord patterns changed
+     */
+    record ScopeDelta(@NotNull Set<VirtualFile> files, @NotNull Set<VirtualFile> patternRoots) {
+    }
+
+    private record StructureChange(long stamp, @Nullable ScopeDelta delta) {
+    }
+
+    /**
+     * Returns the scope deltas of the structure changes after {@code fromStamp} up to {@code toStamp},
+     * or null if any of them is unknown (no delta was recorded or it fell out of the log)
+     * and scope membership must be recomputed from scratch.
+     */
+    @Nullable List<ScopeDelta> scopeDeltas(long fromStamp, long toStamp) {
+        synchronized (structureLog) {
+            var result = new ArrayList<ScopeDelta>();
+            var expected = fromStamp + 1;
+            for (var change : structureLog) {
+                if (change.stamp() <= fromStamp) {
+                    continue;
+                }
+                if (change.stamp() > toStamp) {
+                    break;
+                }
+                if (change.stamp() != expected || change.delta() == null) {
+                    return null;
+                }
+                result.add(change.delta());
+                expected++;
+            }
+            return expected == toStamp + 1 ? result : null;
+        }
+    }
+
+    private void incStructure(@Nullable ScopeDelta delta) {
+        synchronized (structureLog) {
+            structureTracker.incModificationCount();
+            structureLog.addLast(new StructureChange(structureTracker.getModificationCount(), delta));
+            if (structureLog.size() > STRUCTURE_LOG_SIZE) {
+                structureLog.removeFirst();
+            }
+        }
+    }
+
     public void forceRefresh() {
-        structureTracker.incModificationCount();
+        ConcordScopeService.getInstance(project).invalidateIgnoreStatus();
+        incStructure(null);
+        structureRoots.incAll();
         ApplicationManager.getApplication().invokeLater(() -> {
             if (!project.isDisposed()) {
                 project.getMessageBus().syncPublisher(ConcordProjectListener.TOPIC).projectChanged();
@@ -130,17 +236,21 @@ public final class ConcordModificationTracker implements Disposable {
 
     @TestOnly
     public void invalidate() {
-        structureTracker.incModificationCount();
+        ConcordScopeService.getInstance(project).invalidateIgnoreStatus();
+        incStructure(null);
+        structureRoots.incAll();
     }
 
     @TestOnly
     public void invalidateDependencies() {
         dependenciesTracker.incModificationCount();
+        dependenciesRoots.incAll();
     }
 
     @TestOnly
     public void invalidateArguments() {
         argumentsTracker.incModificationCount();
+        argumentsRoots.incAll();
     }
 
     private void onDirty(@NotNull DirtyState delta) {
@@ -149,11 +259,14 @@ public final class ConcordModificationTracker implements Disposable {
         }
 
         if (forceSyncInTests && ApplicationManager.getApplication().isUnitTestMode()) {
-            structureTracker.incModificationCount();
+            incStructure(null);
+            structureRoots.incAll();
             dependenciesTracker.incModificationCount();
+            dependenciesRoots.incAll();
             argumentsTracker.incModificationCount();
+            argumentsRoots.incAll();
             if (delta.vfsContentChanged() || delta.structureDirty()) {
-                DaemonCodeAnalyzer.getInstance(project).restart("Concord VFS content changed (test)");
+                ConcordInvalidationStats.restartDaemon(project, "Concord VFS content changed (test)");
             }
             return;
         }
@@ -199,7 +312,7 @@ public final class ConcordModificationTracker implements Disposable {
                     return;
                 }
 
-                var readTask = ReadAction.nonBlocking(() -> processBatchRead(batch))
+                var readTask = ReadAction.nonBlocking(() -> timedBatchRead(batch))
                         .expireWith(this);
 
                 if (batch.requiresSmartMode() && needsIndexScan()) {
@@ -229,14 +342,38 @@ public final class ConcordModificationTracker implements Disposable {
         return false;
     }
 
-    private BatchResult processBatchRead(@NotNull DirtyState batch) {
+    private BatchResult timedBatchRead(@NotNull DirtyState batch) {
+        var stats = ConcordInvalidationStats.getInstance(project);
+        stats.readStarted();
+
+        var start = System.nanoTime();
+        var fingerprints = new ConcordInvalidationStats.FingerprintCounts();
+        var result = processBatchRead(batch, fingerprints);
+        stats.batchRead(batch.dirtyFiles.size(), System.nanoTime() - start, fingerprints,
+                result.structure != null, result.dependencies != null, result.arguments != null);
+        return result;
+    }
+
+    private BatchResult processBatchRead(@NotNull DirtyState batch,
+                                         @NotNull ConcordInvalidationStats.FingerprintCounts fingerprints) {
         if (project.isDisposed()) {
             return BatchResult.empty();
         }
 
-        var structureChanged = batch.structureDirty || batch.gitignoreDirty;
-        var dependenciesChanged = false;
-        var argumentsChanged = false;
+        var scopeService = ConcordScopeService.getInstance(project);
+        var structure = new RootsChangeBuilder();
+        var dependencies = new RootsChangeBuilder();
+        var arguments = new RootsChangeBuilder();
+        var patternRoots = new HashSet<VirtualFile>();
+
+        if (batch.rescanNeeded) {
+            structure.addAll();
+        } else if (batch.structureDirty || batch.gitignoreDirty) {
+            structure.changed = true;
+            for (var vf : batch.movedFiles) {
+                structure.add(scopeService.rootsAffectedBy(vf));
+            }
+        }
 
         // Process all dirty files
         for (var vf : batch.dirtyFiles) {
@@ -247,19 +384,22 @@ public final class ConcordModificationTracker implements Disposable {
                 var oldFp = fileCache.remove(vf);
                 if (oldFp != null) {
                     // File was tracked, now invalid or not concord
-                    if (oldFp.hasDependencies()) {
-                        dependenciesChanged = true;
-                    }
-                    if (oldFp.argumentsHash() != 0) {
-                        argumentsChanged = true;
-                    }
                     // If it was a root file and had resources, technically structure changed,
                     // but we usually catch file deletion/rename in VFS listener already setting structureDirty=true.
                     // We can double check resources if we want to be super precise, but VFS events usually cover this.
+                    removed(vf, oldFp, dependencies, arguments);
                 }
                 continue;
             }
 
+            // Edits confined to sections the fingerprint does not read, e.g. flows, leave it as is
+            var sections = batch.movedFiles.contains(vf) ? null : batch.editedSections.get(vf);
+            var cachedFp = sections != null ? fileCache.get(vf) : null;
+            if (cachedFp != null && !ConcordFingerprintComputer.affectsFingerprint(sections, isRoot)) {
+                fingerprints.skipped++;
+                continue;
+            }
+
             PsiFile psiFile;
             try {
                 psiFile = PsiManager.getInstance(project).findFile(vf);
@@ -269,28 +409,28 @@ public final class ConcordModificationTracker implements Disposable {
             if (!(psiFile instanceof ConcordFile concordFile)) {
                 var oldFp = fileCache.remove(vf);
                 if (oldFp != null) {
-                    if (oldFp.hasDependencies()) {
-                        dependenciesChanged = true;
-                    }
-                    if (oldFp.argumentsHash() != 0) {
-                        argumentsChanged = true;
-                    }
+                    removed(vf, oldFp, dependencies, arguments);
                 }
                 continue;
             }
 
-            var newFp = ConcordFingerprintComputer.compute(concordFile, isRoot);
+            // Dependency sections come from the index when it is available
+            ConcordFileFingerprint newFp;
+            if (cachedFp != null) {
+                var indexed = ConcordFingerprintComputer.readsDependencies(sections) ? DependencyIndex.get(project, vf) : null;
+                newFp = ConcordFingerprintComputer.update(concordFile, isRoot, indexed, cachedFp, sections);
+                fingerprints.updated++;
+            } else {
+                fingerprints.computed++;
+                newFp = ConcordFingerprintComputer.compute(concordFile, isRoot, DependencyIndex.get(project, vf));
+            }
             if (newFp == null) {
                 var old = fileCache.remove(vf);
                 if (old != null) {
-                    if (old.hasDependencies()) {
-                        dependenciesChanged = true;
-                    }
-                    if (old.argumentsHash() != 0) {
-                        argumentsChanged = true;
-                    }
+                    removed(vf, old, dependencies, arguments);
                     if (isRoot && !old.resourcePatterns().isEmpty()) {
-                        structureChanged = true;
+                        structure.add(Set.of(vf));
+                        patternRoots.add(vf);
                     }
                 }
                 continue;
@@ -298,34 +438,37 @@ public final class ConcordModificationTracker implements Disposable {
 
             var oldFp = fileCache.put(vf, newFp);
             if (oldFp == null) {
-                // New file tracked
+                // New file tracked, it may have just joined scopes
                 if (newFp.hasDependencies()) {
-                    dependenciesChanged = true;
+                    dependencies.add(scopeService.rootsAffectedBy(vf));
                 }
                 if (newFp.argumentsHash() != 0) {
-                    argumentsChanged = true;
+                    arguments.add(scopeService.rootsAffectedBy(vf));
                 }
                 // If it's a new root file with resources, structure changed.
                 if (isRoot && !newFp.resourcePatterns().isEmpty()) {
-                    structureChanged = true;
+                    structure.add(Set.of(vf));
+                    patternRoots.add(vf);
                 }
             } else {
                 // Existing file changed
                 if (isRoot && !oldFp.resourcePatterns().equals(newFp.resourcePatterns())) {
-                    structureChanged = true;
+                    structure.add(Set.of(vf));
+                    patternRoots.add(vf);
                 }
 
+                var moved = batch.movedFiles.contains(vf);
                 if (!oldFp.dependenciesEquals(newFp)) {
-                    dependenciesChanged = true;
+                    dependencies.add(moved ? scopeService.rootsAffectedBy(vf) : scopeRoots(vf));
                 }
 
                 if (!oldFp.argumentsEquals(newFp)) {
-                    argumentsChanged = true;
+                    arguments.add(moved ? scopeService.rootsAffectedBy(vf) : scopeRoots(vf));
                 }
             }
         }
 
-        if (structureChanged || batch.cleanupNeeded) {
+        if (structure.changed || batch.cleanupNeeded) {
             var iterator = fileCache.entrySet().iterator();
             while (iterator.hasNext()) {
                 var entry = iterator.next();
@@ -334,44 +477,142 @@ public final class ConcordModificationTracker implements Disposable {
                 var remove = !vf.isValid() || !ConcordFile.isConcordFileName(vf.getName());
 
                 if (remove) {
-                    var fp = entry.getValue();
-                    if (fp.hasDependencies()) {
-                        dependenciesChanged = true;
-                    }
-                    if (fp.argumentsHash() != 0) {
-                        argumentsChanged = true;
-                    }
+                    removed(vf, entry.getValue(), dependencies, arguments);
                     iterator.remove();
                 }
             }
         }
 
-        return new BatchResult(structureChanged, dependenciesChanged, argumentsChanged, batch.vfsContentChanged);
+        var scopeDelta = batch.rescanNeeded ? null : new ScopeDelta(batch.movedFiles, Set.copyOf(patternRoots));
+        return new BatchResult(structure.build(), scopeDelta, dependencies.build(), arguments.build(),
+                batch.vfsContentChanged);
+    }
+
+    /**
+     * Records the sections of a file that is no longer tracked as changed in the scopes it belonged to.
+     */
+    private void removed(@NotNull VirtualFile vf, @NotNull ConcordFileFingerprint fp,
+                         @NotNull RootsChangeBuilder dependencies, @NotNull RootsChangeBuilder arguments) {
+        if (!fp.hasDependencies() && fp.argumentsHash() == 0) {
+            return;
+        }
+        var roots = ConcordScopeService.getInstance(project).rootsAffectedBy(vf);
+        if (fp.hasDependencies()) {
+            dependencies.add(roots);
+        }
+        if (fp.argumentsHash() != 0) {
+            arguments.add(roots);
+        }
+    }
+
+    private @NotNull Set<VirtualFile> scopeRoots(@NotNull VirtualFile vf) {
+        var scopes = ConcordScopeService.getInstance(project).getScopesForFile(vf);
+        var result = new HashSet<VirtualFile>(scopes.size());
+        for (var scope : scopes) {
+            result.add(scope.getRootFile());
+        }
+        return result;
     }
 
     private void applyBatchResult(@NotNull BatchResult result) {
-        if (result.structureChanged) {
-            structureTracker.incModificationCount();
+        ConcordInvalidationStats.getInstance(project).trackersTicked(result.structure != null,
+                result.structure != null && result.scopeDelta == null,
+                result.dependencies != null, result.arguments != null);
+
+        // Project-wide trackers first, scope membership follows the structure stamp
+        if (result.structure != null) {
+            incStructure(result.scopeDelta);
+            structureRoots.inc(result.structure);
+            structureRoots.prune();
+            dependenciesRoots.prune();
+            argumentsRoots.prune();
             project.getMessageBus().syncPublisher(ConcordProjectListener.TOPIC).projectChanged();
         }
 
-        if (result.dependenciesChanged) {
+        if (result.dependencies != null) {
             dependenciesTracker.incModificationCount();
+            dependenciesRoots.inc(result.dependencies);
             project.getMessageBus().syncPublisher(ConcordDependenciesListener.TOPIC).dependenciesChanged();
         }
 
-        if (result.argumentsChanged) {
+        if (result.arguments != null) {
             argumentsTracker.incModificationCount();
+            argumentsRoots.inc(result.arguments);
+        }
+
+        if (result.vfsContentChanged || result.structure != null) {
+            ConcordInvalidationStats.restartDaemon(project, "Concord VFS content changed");
+        }
+    }
+
+    /**
+     * Changes of one category in a batch, null in {@link BatchResult} if there were none.
+     *
+     * @param allRoots  the affected roots are unknown, every root is affected
+     * @param rootFiles root files of the affected scopes, may be empty for changes outside any scope
+     */
+    private record RootsChange(boolean allRoots, @NotNull Set<VirtualFile> rootFiles) {
+    }
+
+    private static final class RootsChangeBuilder {
+        private boolean changed;
+        private boolean allRoots;
+        private final Set<VirtualFile> rootFiles = new HashSet<>();
+
+        void add(@NotNull Set<VirtualFile> files) {
+            changed = true;
+            rootFiles.addAll(files);
+        }
+
+        void addAll() {
+            changed = true;
+            allRoots = true;
+        }
+
+        @Nullable RootsChange build() {
+            if (!changed) {
+                return null;
+            }
+            return new RootsChange(allRoots, allRoots ? Set.of() : Set.copyOf(rootFiles));
+        }
+    }
+
+    /**
+     * Per-root trackers of one change category. A root's tracker also moves on changes
+     * that could not be attributed to particular roots.
+     */
+    private static final class RootTrackers {
+        private final SimpleModificationTracker allRoots = new SimpleModificationTracker();
+        private final ConcurrentMap<VirtualFile, SimpleModificationTracker> byRoot = new ConcurrentHashMap<>();
+
+        @NotNull ModificationTracker get(@NotNull VirtualFile rootFile) {
+            var own = byRoot.computeIfAbsent(rootFile, k -> new SimpleModificationTracker());
+            return () -> allRoots.getModificationCount() + own.getModificationCount();
+        }
+
+        void inc(@NotNull RootsChange change) {
+            if (change.allRoots()) {
+                incAll();
+                return;
+            }
+            for (var rootFile : change.rootFiles()) {
+                byRoot.computeIfAbsent(rootFile, k -> new SimpleModificationTracker()).incModificationCount();
+            }
         }
 
-        if (result.vfsContentChanged || result.structureChanged) {
-            DaemonCodeAnalyzer.getInstance(project).restart("Concord VFS content changed");
+        void incAll() {
+            allRoots.incModificationCount();
+        }
+
+        void prune() {
+            byRoot.keySet().removeIf(rootFile -> !rootFile.isValid());
         }
     }
 
-    private record BatchResult(boolean structureChanged, boolean dependenciesChanged, boolean argumentsChanged,
+    private record BatchResult(@Nullable RootsChange structure, @Nullable ScopeDelta scopeDelta,
+                               @Nullable RootsChange dependencies, @Nullable RootsChange arguments,
                                boolean vfsContentChanged) {
-        private static final BatchResult EMPTY = new BatchResult(false, false, false, false);
+        private static final BatchResult EMPTY = new BatchResult(null, null, null, null, false);
 
         private static BatchResult empty() {
             return EMPTY;
@@ -410,7 +651,15 @@ public final class ConcordModificationTracker implements Disposable {
                 var isDirectory = isDirectoryEvent(resolvedFile, event);
 
                 if (isDirectory) {
+                    // Directory moves and deletions change the paths of everything below, rescan scopes
                     builder.structureDirty = true;
+                    builder.rescanNeeded = true;
+                    builder.ignoreStatusDirs.add(event.getPath());
+                    if (event instanceof VFileMoveEvent moveEvent) {
+                        builder.ignoreStatusDirs.add(moveEvent.getOldPath());
+                    } else if (event instanceof VFilePropertyChangeEvent propEvent) {
+                        builder.ignoreStatusDirs.add(propEvent.getOldPath());
+                    }
                 }
 
                 if (event instanceof VFilePropertyChangeEvent propEvent
@@ -428,10 +677,15 @@ public final class ConcordModificationTracker implements Disposable {
                     }
                     if (oldGitignore || newGitignore) {
                         builder.gitignoreDirty = true;
+                        builder.rescanNeeded = true;
+                        builder.ignoreStatusDirs.add(parentPath(event.getPath()));
                     }
 
                     if (resolvedFile != null && (oldConcord || newConcord)) {
                         builder.dirtyFiles.add(resolvedFile);
+                        builder.movedFiles.add(resolvedFile);
+                    } else if (oldConcord || newConcord) {
+                        builder.rescanNeeded = true;
                     }
 
                     continue;
@@ -440,6 +694,11 @@ public final class ConcordModificationTracker implements Disposable {
                 if (isGitignoreEvent(event, resolvedFile, fileName)) {
                     builder.structureDirty = true;
                     builder.gitignoreDirty = true;
+                    builder.rescanNeeded = true;
+                    builder.ignoreStatusDirs.add(parentPath(event.getPath()));
+                    if (event instanceof VFileMoveEvent moveEvent) {
+                        builder.ignoreStatusDirs.add(parentPath(moveEvent.getOldPath()));
+                    }
                     continue;
                 }
 
@@ -455,15 +714,26 @@ public final class ConcordModificationTracker implements Disposable {
                     builder.structureDirty = true; // Added/Deleted/Moved concord file affects structure/scopes
                     if (resolvedFile != null) {
                         builder.dirtyFiles.add(resolvedFile);
+                        builder.movedFiles.add(resolvedFile);
                     } else {
                         builder.cleanupNeeded = true;
+                        builder.rescanNeeded = true;
                     }
                 }
             }
 
+            if (!builder.movedFiles.isEmpty() || !builder.ignoreStatusDirs.isEmpty()) {
+                ConcordScopeService.getInstance(project).invalidateIgnoreStatus(builder.movedFiles, builder.ignoreStatusDirs);
+            }
+
             onDirty(builder.build());
         }
 
+        private static @NotNull String parentPath(@NotNull String path) {
+            var slash = path.lastIndexOf('/');
+            return slash > 0 ? path.substring(0, slash) : "/";
+        }
+
         private boolean isGitignoreEvent(@NotNull VFileEvent event, @Nullable VirtualFile file, @Nullable String fileName) {
             var isGitignore = false;
             if (file != null) {
@@ -542,7 +812,9 @@ public final class ConcordModificationTracker implements Disposable {
                 return;
             }
 
-            onDirty(DirtyState.create(vf));
+            var section = ConcordTopLevelSections.editedSection(event.getDocument().getImmutableCharSequence(),
+                    event.getOffset(), event.getOldFragment(), event.getNewFragment());
+            onDirty(DirtyState.create(vf, section));
         }
     }
 
@@ -551,10 +823,14 @@ public final class ConcordModificationTracker implements Disposable {
         private boolean gitignoreDirty;
         private boolean cleanupNeeded;
         private boolean vfsContentChanged;
+        private boolean rescanNeeded;
         private final Set<VirtualFile> dirtyFiles = new HashSet<>();
+        private final Set<VirtualFile> movedFiles = new HashSet<>();
+        private final Set<String> ignoreStatusDirs = new HashSet<>();
 
         DirtyState build() {
-            return new DirtyState(structureDirty, gitignoreDirty, cleanupNeeded, vfsContentChanged, dirtyFiles);
+            return new DirtyState(structureDirty, gitignoreDirty, cleanupNeeded, vfsContentChanged, rescanNeeded,
+                    dirtyFiles, movedFiles, Map.of());
         }
     }
 
@@ -563,30 +839,46 @@ public final class ConcordModificationTracker implements Disposable {
             boolean gitignoreDirty,
             boolean cleanupNeeded,
             boolean vfsContentChanged,
-            Set<VirtualFile> dirtyFiles
+            boolean rescanNeeded,
+            Set<VirtualFile> dirtyFiles,
+            Set<VirtualFile> movedFiles,
+            // Top-level sections the dirty files were edited in, if every change to the file was confined to known sections
+            Map<VirtualFile, Set<String>> editedSections
     ) {
 
         private DirtyState(boolean structureDirty, boolean gitignoreDirty, boolean cleanupNeeded,
-                           boolean vfsContentChanged, Set<VirtualFile> dirtyFiles) {
+                           boolean vfsContentChanged, boolean rescanNeeded,
+                           Set<VirtualFile> dirtyFiles, Set<VirtualFile> movedFiles,
+                           Map<VirtualFile, Set<String>> editedSections) {
             this.structureDirty = structureDirty;
             this.gitignoreDirty = gitignoreDirty;
             this.cleanupNeeded = cleanupNeeded;
             this.vfsContentChanged = vfsContentChanged;
+            this.rescanNeeded = rescanNeeded;
             this.dirtyFiles = Set.copyOf(dirtyFiles);
+            this.movedFiles = Set.copyOf(movedFiles);
+            this.editedSections = Map.copyOf(editedSections);
         }
 
         static DirtyState empty() {
-            return new DirtyState(false, false, false, false, Set.of());
+            return new DirtyState(false, false, false, false, false, Set.of(), Set.of(), Map.of());
         }
 
-        /** Document-originated change (editor typing) — no daemon restart needed. */
-        static DirtyState create(@NotNull VirtualFile file) {
+        /**
+         * Document-originated change (editor typing) — no daemon restart needed.
+         *
+         * @param section the top-level section the edit was confined to, null if unknown
+         */
+        static DirtyState create(@NotNull VirtualFile file, @Nullable String section) {
             return new DirtyState(
                     false,
                     false,
                     false,
                     false,
-                    Set.of(file)
+                    false,
+                    Set.of(file),
+                    Set.of(),
+                    section != null ? Map.of(file, Set.of(section)) : Map.of()
             );
         }
 
@@ -603,9 +895,43 @@ public final class ConcordModificationTracker implements Disposable {
             var gd = gitignoreDirty || other.gitignoreDirty;
             var cn = cleanupNeeded || other.cleanupNeeded;
             var vc = vfsContentChanged || other.vfsContentChanged;
+            var rn = rescanNeeded || other.rescanNeeded;
             var files = new HashSet<>(dirtyFiles);
             files.addAll(other.dirtyFiles);
-            return new DirtyState(sd, gd, cn, vc, files);
+            var moved = new HashSet<>(movedFiles);
+            moved.addAll(other.movedFiles);
+            return new DirtyState(sd, gd, cn, vc, rn, files, moved, mergeSections(other, files));
+        }
+
+        /**
+         * Sections of a file stay known only if every change to it so far was confined to known sections.
+         */
+        private Map<VirtualFile, Set<String>> mergeSections(@NotNull DirtyState other, @NotNull Set<VirtualFile> files) {
+            if (editedSections.isEmpty() && other.editedSections.isEmpty()) {
+                return Map.of();
+            }
+            var result = new HashMap<VirtualFile, Set<String>>();
+            for (var file : files) {
+                var own = sectionsOf(file);
+                var others = other.sectionsOf(file);
+                if (own == null || others == null) {
+                    continue;
+                }
+                var merged = new HashSet<>(own);
+                merged.addAll(others);
+                result.put(file, Set.copyOf(merged));
+            }
+            return result;
+        }
+
+        /**
+         * Returns the sections the file was edited in: empty if it is not dirty, null if unknown.
+         */
+        private @Nullable Set<String> sectionsOf(@NotNull VirtualFile file) {
+            if (!dirtyFiles.contains(file)) {
+                return Set.of();
+            }
+            return editedSections.get(file);
         }
     }
 
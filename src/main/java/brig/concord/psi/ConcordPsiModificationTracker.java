@@ -0,0 +1,358 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import brig.concord.yaml.psi.YAMLDocument;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import brig.concord.yaml.psi.YAMLMapping;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiTreeChangeAdapter;
+import com.intellij.psi.PsiTreeChangeEvent;
+import com.intellij.psi.impl.PsiTreeChangeEventImpl;
+import com.intellij.util.PathUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static brig.concord.meta.ConcordFileMetaType.FLOWS_KEY;
+
+/**
+ * PSI modification trackers finer than {@link com.intellij.psi.util.PsiModificationTracker}:
+ * one per flow definition and one per top-level section of a Concord file, maintained from PSI tree change events.
+ * <p>
+ * An edit inside a flow's steps only moves the tracker of that flow. Edits in a section move the section's tracker
+ * and {@link #sections} of that name.
+ * Changes to the flows mapping itself (flows added, removed or renamed, flow documentation) move all flows of the file
+ * and {@link #flowDefinitions()}; anything that cannot be attributed to a section moves every tracker of the file.
+ */
+@Service(Service.Level.PROJECT)
+public final class ConcordPsiModificationTracker implements Disposable {
+
+    private static final Key<FileTrackers> FILE_TRACKERS_KEY = Key.create("ConcordPsiModificationTracker.file");
+
+    private final Project project;
+    private final SimpleModificationTracker flowDefinitionsTracker = new SimpleModificationTracker();
+    private final SimpleModificationTracker allSectionsTracker = new SimpleModificationTracker();
+    private final ConcurrentMap<String, SimpleModificationTracker> sectionTrackers = new ConcurrentHashMap<>();
+
+    // Files being reparsed that have not reported a specific change yet
+    private final Set<PsiFile> pendingReparse = ConcurrentHashMap.newKeySet();
+
+    public ConcordPsiModificationTracker(@NotNull Project project) {
+        this.project = project;
+        PsiManager.getInstance(project).addPsiTreeChangeListener(new Listener(), this);
+        project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new VfsListener());
+    }
+
+    public static @NotNull ConcordPsiModificationTracker getInstance(@NotNull Project project) {
+        return project.getService(ConcordPsiModificationTracker.class);
+    }
+
+    /**
+     * Changes to the flow definition: its steps, its name or its documentation.
+     */
+    public @NotNull ModificationTracker flow(@NotNull YAMLKeyValue flowKv) {
+        var file = flowKv.getContainingFile();
+        if (file == null || !file.isPhysical()) {
+            return fileTracker(file);
+        }
+        var trackers = trackers(file);
+        var own = trackers.flows.computeIfAbsent(flowKv.getKeyText(), k -> new SimpleModificationTracker());
+        return () -> trackers.file.getModificationCount()
+                + trackers.flowsSection.getModificationCount()
+                + own.getModificationCount();
+    }
+
+    /**
+     * Changes to the top-level section with the given name, e.g. {@code configuration} or {@code forms}.
+     */
+    public @NotNull ModificationTracker section(@NotNull PsiFile file, @NotNull String name) {
+        if (!file.isPhysical()) {
+            return fileTracker(file);
+        }
+        var trackers = trackers(file);
+        if (FLOWS_KEY.equals(name)) {
+            return () -> trackers.file.getModificationCount() + trackers.flowsSection.getModificationCount();
+        }
+        var own = trackers.sections.computeIfAbsent(name, k -> new SimpleModificationTracker());
+        return () -> trackers.file.getModificationCount() + own.getModificationCount();
+    }
+
+    /**
+     * The narrowest tracker covering the element: its flow, its top-level section or its whole file.
+     */
+    public @NotNull ModificationTracker forElement(@NotNull PsiElement element) {
+        var file = element.getContainingFile();
+        if (file == null || !file.isPhysical()) {
+            return fileTracker(file);
+        }
+
+        var location = Location.of(element);
+        if (location.flow() != null) {
+            return flow(location.flow());
+        }
+        if (location.section() != null) {
+            return section(file, location.section().getKeyText());
+        }
+        var trackers = trackers(file);
+        return trackers.file;
+    }
+
+    /**
+     * Changes to the set of flows or their documentation in any Concord file of the project,
+     * including files changed on disk without loaded PSI, and dumb mode changes, after which index-based answers differ.
+     */
+    public @NotNull ModificationTracker flowDefinitions() {
+        var dumbTracker = DumbService.getInstance(project).getModificationTracker();
+        return () -> flowDefinitionsTracker.getModificationCount() + dumbTracker.getModificationCount();
+    }
+
+    /**
+     * Changes to the top-level section with the given name in any Concord file of the project,
+     * with the same coverage as {@link #flowDefinitions()}.
+     */
+    public @NotNull ModificationTracker sections(@NotNull String name) {
+        if (FLOWS_KEY.equals(name)) {
+            return flowDefinitions();
+        }
+        var own = sectionTrackers.computeIfAbsent(name, k -> new SimpleModificationTracker());
+        var dumbTracker = DumbService.getInstance(project).getModificationTracker();
+        return () -> allSectionsTracker.getModificationCount() + own.getModificationCount()
+                + dumbTracker.getModificationCount();
+    }
+
+    private static @NotNull ModificationTracker fileTracker(@Nullable PsiFile file) {
+        return file != null ? file::getModificationStamp : ModificationTracker.EVER_CHANGED;
+    }
+
+    private static @NotNull FileTrackers trackers(@NotNull PsiFile file) {
+        var trackers = file.getUserData(FILE_TRACKERS_KEY);
+        if (trackers == null) {
+            trackers = file.putUserDataIfAbsent(FILE_TRACKERS_KEY, new FileTrackers());
+        }
+        return trackers;
+    }
+
+    private void anyFileChanged() {
+        flowDefinitionsTracker.incModificationCount();
+        allSectionsTracker.incModificationCount();
+    }
+
+    /**
+     * @param comment a comment was changed; flow documentation may end up in the preceding flow's subtree,
+     *                so such changes count as changes to the flows mapping
+     */
+    private void changed(@Nullable PsiElement parent, @Nullable PsiFile file, boolean comment) {
+        if (!(file instanceof ConcordFile) || !file.isPhysical()) {
+            return;
+        }
+
+        var trackers = file.getUserData(FILE_TRACKERS_KEY);
+        var location = parent != null && parent != file ? Location.of(parent) : Location.NONE;
+
+        if (location.flow() != null && parent != location.flow() && !comment) {
+            // Inside the steps of a single flow
+            if (trackers != null) {
+                var own = trackers.flows.get(location.flow().getKeyText());
+                if (own != null) {
+                    own.incModificationCount();
+                }
+            }
+            return;
+        }
+
+        if (location.section() != null && parent != location.section()) {
+            var name = location.section().getKeyText();
+            if (FLOWS_KEY.equals(name)) {
+                // The flows mapping itself, or a flow key: flows added, removed, renamed or documented
+                flowDefinitionsTracker.incModificationCount();
+                if (trackers != null) {
+                    trackers.flowsSection.incModificationCount();
+                }
+            } else {
+                var anyFile = sectionTrackers.get(name);
+                if (anyFile != null) {
+                    anyFile.incModificationCount();
+                }
+                var own = trackers != null ? trackers.sections.get(name) : null;
+                if (own != null) {
+                    own.incModificationCount();
+                }
+            }
+            return;
+        }
+
+        anyFileChanged();
+        if (trackers != null) {
+            trackers.file.incModificationCount();
+        }
+    }
+
+    private final class Listener extends PsiTreeChangeAdapter {
+
+        @Override
+        public void childAdded(@NotNull PsiTreeChangeEvent event) {
+            handle(event.getParent(), event);
+        }
+
+        @Override
+        public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+            handle(event.getParent(), event);
+        }
+
+        @Override
+        public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+            handle(event.getParent(), event);
+        }
+
+        @Override
+        public void beforeChildrenChange(@NotNull PsiTreeChangeEvent event) {
+            if (isReparse(event)) {
+                pendingReparse.add(event.getFile());
+            }
+        }
+
+        @Override
+        public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+            if (isReparse(event)) {
+                // A reparse reports the changed nodes before this summary, count the summary only if there were none
+                if (pendingReparse.remove(event.getFile())) {
+                    changed(null, event.getFile(), false);
+                }
+                return;
+            }
+            handle(event.getParent(), event);
+        }
+
+        @Override
+        public void childMoved(@NotNull PsiTreeChangeEvent event) {
+            handle(event.getOldParent(), event);
+            handle(event.getNewParent(), event);
+        }
+
+        @Override
+        public void propertyChanged(@NotNull PsiTreeChangeEvent event) {
+            var element = event.getElement();
+            if (element instanceof PsiFile file) {
+                changed(null, file, false);
+            }
+        }
+
+        private void handle(@Nullable PsiElement parent, @NotNull PsiTreeChangeEvent event) {
+            var file = event.getFile();
+            if (file != null) {
+                pendingReparse.remove(file);
+                var comment = event.getChild() instanceof PsiComment
+                        || event.getOldChild() instanceof PsiComment
+                        || event.getNewChild() instanceof PsiComment;
+                changed(parent, file, comment);
+                return;
+            }
+
+            // Files added, removed or moved between directories
+            if (event.getChild() instanceof ConcordFile || event.getOldChild() instanceof ConcordFile
+                    || event.getNewChild() instanceof ConcordFile) {
+                anyFileChanged();
+            }
+        }
+    }
+
+    /**
+     * Concord files changed on disk, created, deleted, renamed or moved, whether their PSI is loaded or not.
+     */
+    private final class VfsListener implements BulkFileListener {
+
+        @Override
+        public void after(@NotNull List<? extends VFileEvent> events) {
+            for (var event : events) {
+                if (isConcordChange(event)) {
+                    anyFileChanged();
+                    return;
+                }
+            }
+        }
+
+        private static boolean isConcordChange(@NotNull VFileEvent event) {
+            if (event instanceof VFilePropertyChangeEvent propEvent) {
+                return VirtualFile.PROP_NAME.equals(propEvent.getPropertyName())
+                        && (isConcordOrDirectory(event) || ConcordFile.isConcordFileName(String.valueOf(propEvent.getOldValue())));
+            }
+            if (event instanceof VFileContentChangeEvent) {
+                return ConcordFile.isConcordFileName(PathUtil.getFileName(event.getPath()));
+            }
+            return isConcordOrDirectory(event);
+        }
+
+        private static boolean isConcordOrDirectory(@NotNull VFileEvent event) {
+            var file = event.getFile();
+            var directory = file != null ? file.isDirectory() : event instanceof VFileCreateEvent create && create.isDirectory();
+            return directory || ConcordFile.isConcordFileName(PathUtil.getFileName(event.getPath()));
+        }
+    }
+
+    /**
+     * The generic change a reparse of the whole file is wrapped in.
+     */
+    private static boolean isReparse(@NotNull PsiTreeChangeEvent event) {
+        return event instanceof PsiTreeChangeEventImpl impl
+                && impl.isGenericChange()
+                && event.getFile() instanceof ConcordFile
+                && event.getParent() == event.getFile();
+    }
+
+    /**
+     * The top-level section and flow definition an element belongs to.
+     * The section or flow is the element itself if it is the section or flow key-value.
+     */
+    private record Location(@Nullable YAMLKeyValue section, @Nullable YAMLKeyValue flow) {
+
+        private static final Location NONE = new Location(null, null);
+
+        static @NotNull Location of(@NotNull PsiElement element) {
+            YAMLKeyValue flow = null;
+            var current = element;
+            while (current != null && !(current instanceof PsiFile)) {
+                if (current instanceof YAMLKeyValue kv && kv.getParent() instanceof YAMLMapping mapping) {
+                    if (mapping.getParent() instanceof YAMLDocument) {
+                        var isFlows = FLOWS_KEY.equals(kv.getKeyText());
+                        return new Location(kv, isFlows ? flow : null);
+                    }
+                    flow = kv;
+                }
+                current = current.getParent();
+            }
+            return NONE;
+        }
+    }
+
+    private static final class FileTrackers {
+        private final SimpleModificationTracker file = new SimpleModificationTracker();
+        private final SimpleModificationTracker flowsSection = new SimpleModificationTracker();
+        private final ConcurrentMap<String, SimpleModificationTracker> flows = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, SimpleModificationTracker> sections = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
@@ -0,0 +1,272 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import com.intellij.openapi.util.SystemInfoRt;
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The resources.concord patterns of a root compiled into a single matcher over
+ * system-independent path strings ({@link com.intellij.openapi.vfs.VirtualFile#getPath()}).
+ * <p>
+ * Each pattern is checked against its literal prefix and, for globs, the literal suffixes it can end with
+ * (e.g. {@code concord.yml}/{@code concord.yaml}). Patterns without wildcards are compared as strings, and the
+ * common glob shapes (see {@link Shape}) are matched on the path string. Only the other patterns run the JDK
+ * {@link PathMatcher} from {@link ConcordResourcePatterns#parsePattern}.
+ */
+public final class ConcordResourceMatcher {
+
+    public static final ConcordResourceMatcher EMPTY = new ConcordResourceMatcher(List.of());
+
+    private static final boolean IGNORE_CASE = SystemInfoRt.isWindows;
+    private static final String GLOB_META_CHARS = "\\*?[{";
+    private static final String DEFAULT_LAYOUT = "{**/,}{*.,}concord.{yml,yaml}";
+
+    private final List<CompiledPattern> patterns;
+    private final String commonPrefix;
+
+    private ConcordResourceMatcher(@NotNull List<CompiledPattern> patterns) {
+        this.patterns = List.copyOf(patterns);
+        this.commonPrefix = commonPrefix(this.patterns);
+    }
+
+    public static @NotNull ConcordResourceMatcher of(@NotNull List<CompiledPattern> patterns) {
+        return patterns.isEmpty() ? EMPTY : new ConcordResourceMatcher(patterns);
+    }
+
+    /**
+     * Compiles a single resources.concord entry resolved against the root directory.
+     *
+     * @throws IllegalArgumentException if the pattern is invalid, same as {@link ConcordResourcePatterns#parsePattern}
+     */
+    public static @NotNull CompiledPattern compile(@NotNull String pattern, @NotNull String rootDirPrefix) {
+        var matcher = ConcordResourcePatterns.parsePattern(pattern, rootDirPrefix);
+
+        if (pattern.startsWith("glob:")) {
+            var glob = ConcordResourcePatterns.resolve(rootDirPrefix, pattern.substring("glob:".length()));
+            var prefix = literalPrefix(glob);
+            if (prefix.length() == glob.length()) {
+                return new CompiledPattern(glob, List.of(), Shape.EXACT, null);
+            }
+
+            var rest = glob.substring(prefix.length());
+            if (prefix.endsWith("/") && rest.equals(DEFAULT_LAYOUT)) {
+                return new CompiledPattern(prefix, List.of("concord.yml", "concord.yaml"), Shape.CONCORD_FILES, null);
+            }
+            if (rest.length() > 1 && rest.charAt(0) == '*' && isPlainName(rest.substring(1))) {
+                return new CompiledPattern(prefix, List.of(rest.substring(1)), Shape.FILE_NAME, null);
+            }
+            return new CompiledPattern(prefix, literalSuffixes(glob), Shape.MATCHER, matcher);
+        }
+
+        if (pattern.startsWith("regex:")) {
+            return new CompiledPattern("", List.of(), Shape.MATCHER, matcher);
+        }
+
+        var target = Paths.get(ConcordResourcePatterns.resolve(rootDirPrefix, pattern)).toAbsolutePath();
+        return new CompiledPattern(FileUtil.toSystemIndependentName(target.toString()), List.of(), Shape.EXACT, null);
+    }
+
+    /**
+     * The compiled patterns, one per valid resources.concord entry.
+     */
+    public @NotNull List<CompiledPattern> patterns() {
+        return patterns;
+    }
+
+    public boolean isEmpty() {
+        return patterns.isEmpty();
+    }
+
+    /**
+     * Checks a system-independent path. Does not allocate unless a pattern of the {@link Shape#MATCHER} shape is run.
+     */
+    public boolean matches(@NotNull String path) {
+        if (!startsWith(path, commonPrefix)) {
+            return false;
+        }
+        for (var pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * How a pattern is matched once the path has its prefix.
+     */
+    public enum Shape {
+        /**
+         * The path is the prefix.
+         */
+        EXACT,
+        /**
+         * The default resources layout below a directory prefix: a file named {@code concord.yml}/{@code concord.yaml}
+         * or ending with {@code .concord.yml}/{@code .concord.yaml}, at any depth.
+         */
+        CONCORD_FILES,
+        /**
+         * {@code <prefix>*<suffix>}: a path ending with the suffix and no {@code /} after the prefix.
+         */
+        FILE_NAME,
+        /**
+         * Any other pattern, run through the {@link PathMatcher}.
+         */
+        MATCHER
+    }
+
+    /**
+     * A single resources.concord entry.
+     *
+     * @param prefix   literal prefix every matching path starts with; the whole path if {@link Shape#EXACT}
+     * @param suffixes literal endings one of which every matching path has, empty if unknown
+     * @param matcher  the full pattern, null unless {@link Shape#MATCHER}
+     */
+    public record CompiledPattern(@NotNull String prefix, @NotNull List<String> suffixes,
+                                  @NotNull Shape shape, @Nullable PathMatcher matcher) implements PathMatcher {
+
+        public boolean exact() {
+            return shape == Shape.EXACT;
+        }
+
+        public boolean matches(@NotNull String path) {
+            if (shape == Shape.EXACT) {
+                return path.length() == prefix.length() && startsWith(path, prefix);
+            }
+            if (!startsWith(path, prefix)) {
+                return false;
+            }
+            var suffix = suffixes.isEmpty() ? "" : endingOf(path, suffixes);
+            if (suffix == null) {
+                return false;
+            }
+
+            var nameEnd = path.length() - suffix.length();
+            return switch (shape) {
+                case CONCORD_FILES -> {
+                    // "concord.yml" as the whole name, or after a '.' within the name
+                    var nameStart = path.lastIndexOf('/') + 1;
+                    yield nameEnd == nameStart || nameEnd > nameStart && path.charAt(nameEnd - 1) == '.';
+                }
+                case FILE_NAME -> nameEnd >= prefix.length() && path.indexOf('/', prefix.length()) < 0;
+                case MATCHER -> matcher != null && matcher.matches(Paths.get(path));
+                case EXACT -> false;
+            };
+        }
+
+        @Override
+        public boolean matches(Path path) {
+            return matches(FileUtil.toSystemIndependentName(path.toAbsolutePath().toString()));
+        }
+    }
+
+    private static @NotNull String commonPrefix(@NotNull List<CompiledPattern> patterns) {
+        if (patterns.isEmpty()) {
+            return "";
+        }
+        var result = patterns.getFirst().prefix();
+        for (var pattern : patterns) {
+            var prefix = pattern.prefix();
+            var length = 0;
+            var max = Math.min(result.length(), prefix.length());
+            while (length < max && result.regionMatches(IGNORE_CASE, length, prefix, length, 1)) {
+                length++;
+            }
+            result = result.substring(0, length);
+        }
+        return result;
+    }
+
+    private static boolean startsWith(@NotNull String path, @NotNull String prefix) {
+        return path.regionMatches(IGNORE_CASE, 0, prefix, 0, prefix.length());
+    }
+
+    /**
+     * Returns the suffix the path ends with, or null if none.
+     */
+    private static @Nullable String endingOf(@NotNull String path, @NotNull List<String> suffixes) {
+        for (var suffix : suffixes) {
+            if (path.regionMatches(IGNORE_CASE, path.length() - suffix.length(), suffix, 0, suffix.length())) {
+                return suffix;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A glob part that only matches itself within a single path segment.
+     */
+    private static boolean isPlainName(@NotNull String part) {
+        for (var i = 0; i < part.length(); i++) {
+            if ("\\*?[]{}/,".indexOf(part.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Longest leading part of the glob without wildcards or escapes.
+     */
+    private static @NotNull String literalPrefix(@NotNull String glob) {
+        var i = 0;
+        while (i < glob.length() && GLOB_META_CHARS.indexOf(glob.charAt(i)) < 0) {
+            i++;
+        }
+        return glob.substring(0, i);
+    }
+
+    /**
+     * Literal endings of the glob: its trailing literal run, or for a trailing group of literal
+     * alternatives like {@code concord.{yml,yaml}} each alternative with the run before the group.
+     * Empty if any matching path could end with anything.
+     */
+    private static @NotNull List<String> literalSuffixes(@NotNull String glob) {
+        if (glob.indexOf('\\') >= 0) {
+            return List.of();
+        }
+
+        var end = glob.length();
+        List<String> alternatives = List.of("");
+        if (glob.endsWith("}")) {
+            var open = glob.lastIndexOf('{');
+            if (open < 0) {
+                return List.of();
+            }
+            var group = glob.substring(open + 1, end - 1);
+            for (var i = 0; i < group.length(); i++) {
+                var c = group.charAt(i);
+                if (c == '}' || c != ',' && GLOB_META_CHARS.indexOf(c) >= 0) {
+                    return List.of();
+                }
+            }
+            alternatives = List.of(group.split(",", -1));
+            end = open;
+        }
+
+        var start = end;
+        while (start > 0 && "*?[]{}".indexOf(glob.charAt(start - 1)) < 0) {
+            start--;
+        }
+        var run = glob.substring(start, end);
+
+        Set<String> result = new LinkedHashSet<>();
+        for (var alternative : alternatives) {
+            var suffix = run + alternative;
+            if (suffix.isEmpty()) {
+                return List.of();
+            }
+            result.add(suffix);
+        }
+        return List.copyOf(result);
+    }
+}
@@ -41,7 +41,7 @@ public final class ConcordResourcePatterns {
         return path -> path.toAbsolutePath().equals(targetPath);
     }
 
-    private static @NotNull String resolve(@NotNull String baseDir, @NotNull String relative) {
+    static @NotNull String resolve(@NotNull String baseDir, @NotNull String relative) {
         if (relative.startsWith("/")) {
             return baseDir + relative.substring(1);
         }
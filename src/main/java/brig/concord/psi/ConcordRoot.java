@@ -5,22 +5,19 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Key;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
 import com.intellij.psi.util.CachedValue;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import brig.concord.yaml.psi.YAMLDocument;
-import brig.concord.yaml.psi.YAMLScalar;
-import brig.concord.yaml.psi.YAMLSequence;
+import brig.concord.psi.stub.ConcordFileStubs;
+import brig.concord.psi.stub.ConcordStubKind;
 
 import java.nio.file.Path;
-import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -33,8 +30,8 @@ public final class ConcordRoot {
 
     private static final Logger LOG = Logger.getInstance(ConcordRoot.class);
     private static final String DEFAULT_CONCORD_RESOURCES = "glob:concord/{**/,}{*.,}concord.{yml,yaml}";
-    private static final Key<CachedValue<List<PathMatcher>>> PATTERNS_CACHE_KEY =
-            Key.create("ConcordRoot.patterns");
+    private static final Key<CachedValue<ConcordResourceMatcher>> MATCHER_CACHE_KEY =
+            Key.create("ConcordRoot.matcher");
 
     private final Project project;
     private final VirtualFile rootFile;
@@ -79,20 +76,55 @@ public final class ConcordRoot {
         return rootDir.getFileName().toString();
     }
 
-    public @NotNull List<PathMatcher> getPatterns() {
+    public @NotNull List<ConcordResourceMatcher.CompiledPattern> getPatterns() {
+        return getMatcher().patterns();
+    }
+
+    public @NotNull ConcordResourceMatcher getMatcher() {
         var psiFile = PsiManager.getInstance(project).findFile(rootFile);
         if (psiFile == null) {
-            return Collections.singletonList(parsePattern(DEFAULT_CONCORD_RESOURCES));
+            return ConcordResourceMatcher.of(List.of(parsePattern(DEFAULT_CONCORD_RESOURCES)));
         }
 
         // Cache is stored on PsiFile, survives ConcordRoot recreation
-        return CachedValuesManager.getCachedValue(psiFile, PATTERNS_CACHE_KEY, () -> {
-            var doc = PsiTreeUtil.getChildOfType(psiFile, YAMLDocument.class);
-            var patterns = parsePatterns(doc);
-            return CachedValueProvider.Result.create(patterns, psiFile);
+        return CachedValuesManager.getCachedValue(psiFile, MATCHER_CACHE_KEY, () -> {
+            var matcher = parsePatterns(readResources(psiFile));
+            return CachedValueProvider.Result.create(matcher, psiFile);
         });
     }
 
+    /**
+     * Returns a per-scope value cached on the root file, like the matcher it survives ConcordRoot recreation.
+     * The provider should depend on the root's trackers in {@link ConcordModificationTracker}
+     * so that the value is kept across changes in other scopes.
+     * Computed on every call if the root file has no PSI.
+     */
+    public <T> @NotNull T getCachedValue(@NotNull Key<CachedValue<T>> key, @NotNull CachedValueProvider<T> provider) {
+        var psiFile = PsiManager.getInstance(project).findFile(rootFile);
+        if (psiFile == null) {
+            return Objects.requireNonNull(provider.compute()).getValue();
+        }
+        return CachedValuesManager.getCachedValue(psiFile, key, provider);
+    }
+
+    /**
+     * Reads the {@code resources.concord} items from the root file stubs.
+     *
+     * @return the pattern strings, or null if {@code resources.concord} is not defined
+     */
+    private static @Nullable List<String> readResources(@NotNull PsiFile psiFile) {
+        var stubs = ConcordFileStubs.find(psiFile, ConcordStubKind.RESOURCES);
+        if (stubs.isEmpty()) {
+            return null;
+        }
+
+        List<String> result = new ArrayList<>();
+        for (var value : stubs.getFirst().getValues()) {
+            result.add(value.text());
+        }
+        return result;
+    }
+
     /**
      * Checks if the given file belongs to this scope.
      * A file belongs if it's the root file itself or matches any of the patterns.
@@ -107,45 +139,31 @@ public final class ConcordRoot {
 
         // if file is not under root directory, it can't match any pattern
         // (all patterns are prefixed with rootDir in parsePattern)
-        String filePathStr = file.getPath();
-        if (!filePathStr.startsWith(rootDirPrefix)) {
+        var filePath = file.getPath();
+        if (!filePath.startsWith(rootDirPrefix)) {
             return false;
         }
 
-        var filePath = Paths.get(filePathStr);
-        for (var pattern : getPatterns()) {
-            if (pattern.matches(filePath)) {
-                return true;
-            }
-        }
-        return false;
+        return getMatcher().matches(filePath);
     }
 
-    private @NotNull List<PathMatcher> parsePatterns(@Nullable YAMLDocument rootDoc) {
-        if (rootDoc == null) {
-            return Collections.singletonList(parsePattern(DEFAULT_CONCORD_RESOURCES));
-        }
-
-        var resources = YamlPsiUtils.get(rootDoc, YAMLSequence.class, "resources", "concord");
+    private @NotNull ConcordResourceMatcher parsePatterns(@Nullable List<String> resources) {
         if (resources == null) {
-            return Collections.singletonList(parsePattern(DEFAULT_CONCORD_RESOURCES));
+            return ConcordResourceMatcher.of(List.of(parsePattern(DEFAULT_CONCORD_RESOURCES)));
         }
 
         List<String> patternStrings = new ArrayList<>();
-        for (var item : resources.getItems()) {
-            if (item.getValue() instanceof YAMLScalar scalar) {
-                var pattern = scalar.getTextValue();
-                if (!pattern.isBlank()) {
-                    patternStrings.add(pattern.trim());
-                }
+        for (var pattern : resources) {
+            if (!pattern.isBlank()) {
+                patternStrings.add(pattern.trim());
             }
         }
 
         if (patternStrings.isEmpty()) {
-            return Collections.singletonList(parsePattern(DEFAULT_CONCORD_RESOURCES));
+            return ConcordResourceMatcher.of(List.of(parsePattern(DEFAULT_CONCORD_RESOURCES)));
         }
 
-        List<PathMatcher> result = new ArrayList<>();
+        List<ConcordResourceMatcher.CompiledPattern> result = new ArrayList<>();
         for (var patternString : patternStrings) {
             var pattern = tryParsePattern(patternString);
             if (pattern != null) {
@@ -156,13 +174,13 @@ public final class ConcordRoot {
         if (result.isEmpty()) {
             // Explicit resources were configured but none are valid.
             // Keep scope narrow (root file only) instead of silently falling back.
-            return List.of();
+            return ConcordResourceMatcher.EMPTY;
         }
 
-        return Collections.unmodifiableList(result);
+        return ConcordResourceMatcher.of(result);
     }
 
-    private @Nullable PathMatcher tryParsePattern(@NotNull String pattern) {
+    private @Nullable ConcordResourceMatcher.CompiledPattern tryParsePattern(@NotNull String pattern) {
         try {
             return parsePattern(pattern);
         } catch (Exception e) {
@@ -171,8 +189,8 @@ public final class ConcordRoot {
         }
     }
 
-    private @NotNull PathMatcher parsePattern(@NotNull String pattern) {
-        return ConcordResourcePatterns.parsePattern(pattern, rootDirPrefix);
+    private @NotNull ConcordResourceMatcher.CompiledPattern parsePattern(@NotNull String pattern) {
+        return ConcordResourceMatcher.compile(pattern, rootDirPrefix);
     }
 
     @Override
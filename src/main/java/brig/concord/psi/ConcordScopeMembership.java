@@ -0,0 +1,466 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import brig.concord.ConcordFileType;
+import com.intellij.openapi.fileTypes.FileTypeRegistry;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.PathUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Mutable, versioned map of Concord roots to the files in their scope.
+ * <p>
+ * Follows {@link ConcordModificationTracker#structure()} by applying the recorded
+ * {@link ConcordModificationTracker.ScopeDelta}s: a created, deleted or moved file is checked against each root,
+ * a root whose patterns changed is re-matched against the files under its directory only.
+ * Changes without a delta (.gitignore, directory moves, explicit refresh) and dumb mode transitions
+ * rebuild everything from {@link FileTypeIndex}. Until the indexes are first ready, membership is restored
+ * from the {@link ConcordScopeSnapshot} saved by the previous session; later dumb modes rebuild as usual.
+ * <p>
+ * Roots are also indexed by directory in a {@link RootTrie}, so finding the scopes of a file costs
+ * O(path depth) rather than O(roots). Results are memoized per file until membership changes,
+ * and so are the {@link ConcordSearchScope}s built per root set.
+ * <p>
+ * All access is synchronized, except for {@link #snapshot()}, which reads an immutable copy published
+ * after each change; callers are expected to hold a read action.
+ */
+final class ConcordScopeMembership {
+
+    private final Project project;
+    private final Predicate<VirtualFile> ignored;
+
+    // All tracked Concord files by path, so files under a root directory are a sub-map
+    private final NavigableMap<String, VirtualFile> filesByPath = new TreeMap<>();
+    private final Map<VirtualFile, String> pathByFile = new HashMap<>();
+    private final Set<VirtualFile> rootCandidates = new HashSet<>();
+
+    // Confirmed roots in discovery order (shortest path first); file sets are concurrent as views escape the lock
+    private final Map<VirtualFile, RootEntry> roots = new LinkedHashMap<>();
+    private List<ConcordRoot> rootList = List.of();
+    private RootTrie rootTrie = new RootTrie();
+    private final Map<VirtualFile, List<ConcordRoot>> scopesByFile = new HashMap<>();
+    private final Map<Set<VirtualFile>, GlobalSearchScope> searchScopes = new HashMap<>();
+
+    private long structureStamp = -1;
+    private long dumbStamp = -1;
+    private boolean restored;
+    // Incremented whenever the roots or any root's files change
+    private long version;
+    private long publishedVersion = -1;
+    // Immutable copy for the state-save path, so saving never waits for a rebuild
+    private volatile @Nullable Published published;
+
+    private record RootEntry(@NotNull ConcordRoot root, @NotNull Set<VirtualFile> files) {
+    }
+
+    private record Published(@NotNull List<VirtualFile> files, @NotNull List<RootEntry> roots) {
+    }
+
+    ConcordScopeMembership(@NotNull Project project, @NotNull Predicate<VirtualFile> ignored) {
+        this.project = project;
+        this.ignored = ignored;
+    }
+
+    /**
+     * Returns the search scope over the files of the given roots, cached until membership changes.
+     */
+    synchronized @NotNull GlobalSearchScope searchScope(@NotNull Set<VirtualFile> rootFiles) {
+        sync();
+        return searchScopes.computeIfAbsent(rootFiles, key -> {
+            var files = new ArrayList<Set<VirtualFile>>(key.size());
+            for (var rootFile : key) {
+                var entry = roots.get(rootFile);
+                if (entry != null) {
+                    files.add(entry.files());
+                }
+            }
+            return new ConcordSearchScope(project, key, List.copyOf(files), version);
+        });
+    }
+
+    synchronized @NotNull List<ConcordRoot> roots() {
+        sync();
+        return rootList;
+    }
+
+    /**
+     * Returns a live view of the files matched by the root, the root file included, or null for an unknown root.
+     */
+    synchronized @Nullable Set<VirtualFile> filesOf(@NotNull VirtualFile rootFile) {
+        sync();
+        var entry = roots.get(rootFile);
+        return entry != null ? Collections.unmodifiableSet(entry.files()) : null;
+    }
+
+    synchronized @NotNull List<ConcordRoot> rootsContaining(@NotNull VirtualFile file) {
+        sync();
+        var cached = scopesByFile.get(file);
+        if (cached != null) {
+            return cached;
+        }
+
+        var result = new ArrayList<ConcordRoot>(1);
+        rootTrie.forEachAncestor(file.getPath(), entry -> {
+            if (file.equals(entry.root().getRootFile()) || entry.files().contains(file)) {
+                result.add(entry.root());
+            }
+        });
+
+        var scopes = List.copyOf(result);
+        scopesByFile.put(file, scopes);
+        return scopes;
+    }
+
+    /**
+     * Returns the root files whose scopes a change to the file can affect: the roots that contained it
+     * as of the last applied structure change, and the roots above its current location.
+     * Works for deleted files too.
+     */
+    synchronized @NotNull Set<VirtualFile> rootsAffectedBy(@NotNull VirtualFile file) {
+        sync();
+        var result = new HashSet<VirtualFile>();
+        var trackedPath = pathByFile.get(file);
+        if (trackedPath != null) {
+            rootTrie.forEachAncestor(trackedPath, entry -> {
+                if (entry.files().contains(file)) {
+                    result.add(entry.root().getRootFile());
+                }
+            });
+        }
+        if (file.isValid()) {
+            rootTrie.forEachAncestor(file.getPath(), entry -> result.add(entry.root().getRootFile()));
+        }
+        return result;
+    }
+
+    private void sync() {
+        var structure = ConcordModificationTracker.getInstance(project).structure().getModificationCount();
+        var dumb = DumbService.getInstance(project).getModificationTracker().getModificationCount();
+        if (structure == structureStamp && dumb == dumbStamp) {
+            return;
+        }
+
+        var deltas = dumb == dumbStamp
+                ? ConcordModificationTracker.getInstance(project).scopeDeltas(structureStamp, structure)
+                : null;
+        if (deltas != null) {
+            for (var delta : deltas) {
+                apply(delta);
+            }
+        } else if (DumbService.isDumb(project) && (restored || restore())) {
+            // Indexes are not ready, keep serving the snapshot until they are
+        } else {
+            rebuild();
+        }
+
+        structureStamp = structure;
+        dumbStamp = dumb;
+
+        if (version != publishedVersion) {
+            publish();
+        }
+    }
+
+    private void publish() {
+        var entries = new ArrayList<RootEntry>(roots.size());
+        for (var entry : roots.values()) {
+            entries.add(new RootEntry(entry.root(), Set.copyOf(entry.files())));
+        }
+        published = new Published(List.copyOf(filesByPath.values()), List.copyOf(entries));
+        publishedVersion = version;
+    }
+
+    private void rebuild() {
+        clear();
+
+        for (var file : FileTypeIndex.getFiles(ConcordFileType.INSTANCE, GlobalSearchScope.projectScope(project))) {
+            if (!ignored.test(file)) {
+                track(file);
+            }
+        }
+
+        updateRoots(Set.of());
+        restored = false;
+
+        if (!DumbService.isDumb(project)) {
+            // Only the first indexing after startup is served from the snapshot
+            ConcordScopeSnapshot.getInstance(project).discardLoaded();
+        }
+    }
+
+    private void clear() {
+        filesByPath.clear();
+        pathByFile.clear();
+        rootCandidates.clear();
+        roots.clear();
+    }
+
+    /**
+     * Restores membership from the snapshot of the previous session. Files that no longer exist are dropped;
+     * roots whose file changed since the snapshot (by VFS timestamp and length) are matched again.
+     *
+     * @return false if there is no snapshot
+     */
+    private boolean restore() {
+        var snapshot = ConcordScopeSnapshot.getInstance(project).loaded();
+        if (snapshot == null) {
+            return false;
+        }
+
+        clear();
+
+        var fileManager = VirtualFileManager.getInstance();
+        var files = new ArrayList<VirtualFile>(snapshot.files.size());
+        for (var url : snapshot.files) {
+            var file = fileManager.findFileByUrl(url);
+            files.add(file);
+            if (file != null && file.isValid()) {
+                track(file);
+            }
+        }
+
+        var entries = new ArrayList<RootEntry>(snapshot.roots.size());
+        for (var rootSnapshot : snapshot.roots) {
+            var rootFile = rootSnapshot.url != null ? fileManager.findFileByUrl(rootSnapshot.url) : null;
+            if (rootFile == null || !rootCandidates.contains(rootFile)) {
+                continue;
+            }
+
+            var root = new ConcordRoot(project, rootFile);
+            if (rootFile.getTimeStamp() != rootSnapshot.timeStamp || rootFile.getLength() != rootSnapshot.length) {
+                entries.add(match(root));
+                continue;
+            }
+
+            Set<VirtualFile> rootFiles = ConcurrentHashMap.newKeySet();
+            for (var index : StringUtil.split(rootSnapshot.files, ",")) {
+                var i = StringUtil.parseInt(index, -1);
+                var file = i >= 0 && i < files.size() ? files.get(i) : null;
+                if (file != null && pathByFile.containsKey(file)) {
+                    rootFiles.add(file);
+                }
+            }
+            entries.add(new RootEntry(root, rootFiles));
+        }
+
+        setRoots(entries);
+        restored = true;
+        return true;
+    }
+
+    /**
+     * Returns the membership as of the last change for {@link ConcordScopeSnapshot}, or null if it has not been computed yet.
+     * Does not take the lock.
+     */
+    @Nullable ConcordScopeSnapshot.Snapshot snapshot() {
+        var current = published;
+        if (current == null) {
+            return null;
+        }
+
+        var snapshot = new ConcordScopeSnapshot.Snapshot();
+        var indexes = new HashMap<VirtualFile, Integer>();
+        for (var file : current.files()) {
+            indexes.put(file, snapshot.files.size());
+            snapshot.files.add(file.getUrl());
+        }
+
+        for (var entry : current.roots()) {
+            var rootFile = entry.root().getRootFile();
+            var rootSnapshot = new ConcordScopeSnapshot.RootSnapshot();
+            rootSnapshot.url = rootFile.getUrl();
+            rootSnapshot.timeStamp = rootFile.getTimeStamp();
+            rootSnapshot.length = rootFile.getLength();
+
+            var fileIndexes = new StringJoiner(",");
+            for (var file : entry.files()) {
+                var index = indexes.get(file);
+                if (index != null) {
+                    fileIndexes.add(index.toString());
+                }
+            }
+            rootSnapshot.files = fileIndexes.toString();
+            snapshot.roots.add(rootSnapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * O(roots) per moved file, O(files under the root) per root whose patterns changed.
+     */
+    private void apply(@NotNull ConcordModificationTracker.ScopeDelta delta) {
+        var rootsChanged = !delta.patternRoots().isEmpty();
+
+        for (var file : delta.files()) {
+            var oldPath = untrack(file);
+            if (oldPath != null) {
+                for (var entry : roots.values()) {
+                    entry.files().remove(file);
+                }
+                rootsChanged |= ConcordFile.isRootFileName(PathUtil.getFileName(oldPath));
+            }
+
+            if (!isTrackable(file)) {
+                continue;
+            }
+
+            track(file);
+            rootsChanged |= rootCandidates.contains(file);
+            for (var entry : roots.values()) {
+                if (entry.root().contains(file)) {
+                    entry.files().add(file);
+                }
+            }
+        }
+
+        if (rootsChanged) {
+            var stale = new HashSet<>(delta.patternRoots());
+            stale.addAll(delta.files());
+            updateRoots(stale);
+        } else {
+            changed();
+        }
+    }
+
+    /**
+     * Recomputes which candidates are roots. A root file is confirmed unless an already confirmed
+     * root with a shorter path contains it. Entries of unchanged roots are kept as they are.
+     *
+     * @param stale root files whose entries must be recomputed even if they stay roots
+     */
+    private void updateRoots(@NotNull Set<VirtualFile> stale) {
+        var candidates = new ArrayList<>(rootCandidates);
+        candidates.sort(Comparator.comparingInt(f -> pathByFile.get(f).length()));
+
+        var previous = new HashMap<>(roots);
+
+        var confirmed = new ArrayList<RootEntry>();
+        for (var candidate : candidates) {
+            var contained = false;
+            for (var entry : confirmed) {
+                if (entry.root().contains(candidate)) {
+                    contained = true;
+                    break;
+                }
+            }
+            if (contained) {
+                continue;
+            }
+
+            var entry = previous.get(candidate);
+            if (entry == null || stale.contains(candidate)) {
+                entry = match(new ConcordRoot(project, candidate));
+            }
+            confirmed.add(entry);
+        }
+
+        setRoots(confirmed);
+    }
+
+    private void setRoots(@NotNull List<RootEntry> entries) {
+        roots.clear();
+        var list = new ArrayList<ConcordRoot>(entries.size());
+        var trie = new RootTrie();
+        for (var entry : entries) {
+            var rootFile = entry.root().getRootFile();
+            roots.put(rootFile, entry);
+            list.add(entry.root());
+            trie.add(ConcordResourcePatterns.rootDirPrefix(rootFile), entry);
+        }
+
+        rootList = List.copyOf(list);
+        rootTrie = trie;
+        changed();
+    }
+
+    private void changed() {
+        version++;
+        scopesByFile.clear();
+        searchScopes.clear();
+    }
+
+    private @NotNull RootEntry match(@NotNull ConcordRoot root) {
+        var prefix = ConcordResourcePatterns.rootDirPrefix(root.getRootFile());
+        Set<VirtualFile> files = ConcurrentHashMap.newKeySet();
+        for (var file : filesByPath.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            if (root.contains(file)) {
+                files.add(file);
+            }
+        }
+        return new RootEntry(root, files);
+    }
+
+    private boolean isTrackable(@NotNull VirtualFile file) {
+        return file.isValid()
+                && !file.isDirectory()
+                && FileTypeRegistry.getInstance().isFileOfType(file, ConcordFileType.INSTANCE)
+                && GlobalSearchScope.projectScope(project).contains(file)
+                && !ignored.test(file);
+    }
+
+    private void track(@NotNull VirtualFile file) {
+        var path = file.getPath();
+        filesByPath.put(path, file);
+        pathByFile.put(file, path);
+        if (ConcordFile.isRootFileName(file.getName())) {
+            rootCandidates.add(file);
+        }
+    }
+
+    private @Nullable String untrack(@NotNull VirtualFile file) {
+        var path = pathByFile.remove(file);
+        if (path != null) {
+            filesByPath.remove(path, file);
+            rootCandidates.remove(file);
+        }
+        return path;
+    }
+
+    /**
+     * Trie over the directory segments of root directories. Every root that may contain a file
+     * sits on the path from the trie root to the file's directory, since patterns are resolved against the root directory.
+     */
+    private static final class RootTrie {
+        private final Map<String, RootTrie> children = new HashMap<>();
+        private final List<RootEntry> entries = new ArrayList<>(1);
+
+        void add(@NotNull String dirPrefix, @NotNull RootEntry entry) {
+            var node = this;
+            var start = dirPrefix.startsWith("/") ? 1 : 0;
+            for (int slash = dirPrefix.indexOf('/', start); slash >= 0; slash = dirPrefix.indexOf('/', start)) {
+                node = node.children.computeIfAbsent(dirPrefix.substring(start, slash), k -> new RootTrie());
+                start = slash + 1;
+            }
+            node.entries.add(entry);
+        }
+
+        /**
+         * Visits the entries of all roots whose directory is an ancestor of the path, outermost first.
+         */
+        void forEachAncestor(@NotNull String path, @NotNull Consumer<RootEntry> consumer) {
+            var node = this;
+            node.entries.forEach(consumer);
+            var start = path.startsWith("/") ? 1 : 0;
+            for (int slash = path.indexOf('/', start); slash >= 0; slash = path.indexOf('/', start)) {
+                node = node.children.get(path.substring(start, slash));
+                if (node == null) {
+                    return;
+                }
+                node.entries.forEach(consumer);
+                start = slash + 1;
+            }
+        }
+    }
+}
@@ -1,29 +1,27 @@
 // SPDX-License-Identifier: Apache-2.0
 package brig.concord.psi;
 
-import brig.concord.ConcordFileType;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.fileTypes.FileTypeManager;
-import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ProjectFileIndex;
-import com.intellij.openapi.util.Key;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
-import com.intellij.psi.search.FileTypeIndex;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.util.CachedValue;
-import com.intellij.psi.util.CachedValueProvider;
-import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.openapi.vcs.changes.ChangeListManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.containers.CollectionFactory;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import static brig.concord.psi.ConcordFile.isConcordFileName;
 
@@ -32,22 +30,21 @@ import static brig.concord.psi.ConcordFile.isConcordFileName;
  * A scope is defined by a root concord.yaml file and includes all files that match
  * its resources.concord patterns. Files can belong to multiple scopes if they match
  * patterns from multiple roots.
+ * Membership is kept up to date incrementally by {@link ConcordScopeMembership}.
  */
 @Service(Service.Level.PROJECT)
 public final class ConcordScopeService {
 
-    private static final Key<CachedValue<List<ConcordRoot>>> ROOTS_CACHE_KEY =
-            Key.create("ConcordScopeService.roots");
-    private static final Key<CachedValue<Collection<VirtualFile>>> ALL_CONCORD_FILES_CACHE_KEY =
-            Key.create("ConcordScopeService.allConcordFiles");
-    private static final Key<CachedValue<Map<VirtualFile, Set<VirtualFile>>>> SCOPE_FILES_CACHE_KEY =
-            Key.create("ConcordScopeService.scopeFiles");
-
     private final Project project;
+    private final ConcordScopeMembership membership;
     private Predicate<VirtualFile> ignoredFileChecker;
 
+    // Ignore status per Concord file, filled whenever scope membership is rebuilt
+    private final ConcurrentMap<VirtualFile, Boolean> ignoredCache = new ConcurrentHashMap<>();
+
     public ConcordScopeService(@NotNull Project project) {
         this.project = project;
+        this.membership = new ConcordScopeMembership(project, this::isIgnored);
         this.ignoredFileChecker = file -> {
             // getPath javadoc:
             // t is an absolute file path with file separator characters (File.separatorChar) replaced to the forward slash ('/').
@@ -68,16 +65,91 @@ public final class ConcordScopeService {
         return project.getService(ConcordScopeService.class);
     }
 
+    /**
+     * Current scope membership for {@link ConcordScopeSnapshot}, null if not computed yet.
+     */
+    @Nullable ConcordScopeSnapshot.Snapshot snapshot() {
+        return membership.snapshot();
+    }
+
     @TestOnly
     public void setIgnoredFileChecker(@NotNull Predicate<VirtualFile> ignoredFileChecker) {
         this.ignoredFileChecker = ignoredFileChecker;
+        ignoredCache.clear();
     }
 
     /**
-     * Checks if the file is ignored by the VCS (e.g. .gitignore).
+     * Checks if the file is ignored by the VCS (e.g. .gitignore), excluded from the project or ignored by file type.
+     * The status of Concord files is cached until {@link #invalidateIgnoreStatus} is called for the file
+     * or one of its directories, or the project roots or file types change.
      */
     public boolean isIgnored(@NotNull VirtualFile file) {
-        return ignoredFileChecker.test(file);
+        var cached = ignoredCache.get(file);
+        if (cached != null) {
+            return cached;
+        }
+
+        var ignored = ignoredFileChecker.test(file);
+        if (isConcordFileName(file.getName())) {
+            ignoredCache.put(file, ignored);
+        }
+        return ignored;
+    }
+
+    /**
+     * Drops the cached ignore status of the given files and of all files under the given directories.
+     */
+    public void invalidateIgnoreStatus(@NotNull Collection<VirtualFile> files, @NotNull Collection<String> directories) {
+        for (var file : files) {
+            ignoredCache.remove(file);
+        }
+        if (directories.isEmpty()) {
+            return;
+        }
+
+        var prefixes = directories.stream()
+                .map(dir -> dir.endsWith("/") ? dir : dir + "/")
+                .toList();
+        ignoredCache.keySet().removeIf(file -> {
+            var path = file.getPath();
+            for (var prefix : prefixes) {
+                if (path.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    public void invalidateIgnoreStatus() {
+        ignoredCache.clear();
+    }
+
+    /**
+     * Re-checks the cached ignore statuses in the background, e.g. after the VCS has updated them,
+     * and refreshes the scopes only if any of them has changed.
+     */
+    public void refreshIgnoreStatus() {
+        if (ignoredCache.isEmpty()) {
+            return;
+        }
+
+        ReadAction.nonBlocking(() -> {
+                    for (var entry : ignoredCache.entrySet()) {
+                        var file = entry.getKey();
+                        if (!file.isValid() || ignoredFileChecker.test(file) != entry.getValue()) {
+                            return true;
+                        }
+                    }
+                    return false;
+                })
+                .expireWith(ConcordModificationTracker.getInstance(project))
+                .finishOnUiThread(ModalityState.nonModal(), changed -> {
+                    if (changed) {
+                        ConcordModificationTracker.getInstance(project).forceRefresh();
+                    }
+                })
+                .submit(AppExecutorUtil.getAppExecutorService());
     }
 
     public boolean isIgnored(@NotNull PsiFile file) {
@@ -110,16 +182,15 @@ public final class ConcordScopeService {
      * @return list of scopes containing this file (may be empty)
      */
     public @NotNull List<ConcordRoot> getScopesForFile(@NotNull VirtualFile file) {
-        var roots = findRoots();
-        var result = new ArrayList<ConcordRoot>();
-
-        for (var root : roots) {
-            if (isInsideScope(root, file)) {
-                result.add(root);
-            }
-        }
+        return membership.rootsContaining(file);
+    }
 
-        return result;
+    /**
+     * Returns the root files whose scopes a change to the file can affect,
+     * including roots the file may have just moved into or out of.
+     */
+    @NotNull Set<VirtualFile> rootsAffectedBy(@NotNull VirtualFile file) {
+        return membership.rootsAffectedBy(file);
     }
 
     public boolean isOutOfScope(@NotNull VirtualFile file) {
@@ -137,8 +208,7 @@ public final class ConcordScopeService {
     /**
      * Creates a GlobalSearchScope that includes all files visible from the given context element.
      * This scope includes all files from all scopes that contain the context file.
-     * Computed on-the-fly using cached patterns from ConcordRoot.
-     * Fast: ~10 roots × ~100 files = ~1000 pattern matches.
+     * The scope checks the cached scope membership and is reused until it changes.
      *
      * @param context the PSI element providing context
      * @return a search scope for file-based index queries
@@ -165,7 +235,7 @@ public final class ConcordScopeService {
      * @return set of files in this scope (includes root file)
      */
     public @NotNull Set<VirtualFile> getFilesInScope(@NotNull ConcordRoot root) {
-        var scopeFiles = getScopeFilesMap().get(root.getRootFile());
+        var scopeFiles = membership.filesOf(root.getRootFile());
         if (scopeFiles == null) {
             return Set.of(root.getRootFile());
         }
@@ -174,13 +244,19 @@ public final class ConcordScopeService {
         return result;
     }
 
-    private boolean isInsideScope(@NotNull ConcordRoot scope, @NotNull VirtualFile file) {
-        if (file.equals(scope.getRootFile())) {
-            return true;
-        }
-
-        var scopeFiles = getScopeFilesMap().get(scope.getRootFile());
-        return scopeFiles != null && scopeFiles.contains(file);
+    /**
+     * Returns the files of the given scope in the order their declarations are merged:
+     * sorted by name, then path; the root file is last (overrides everything).
+     */
+    public @NotNull List<VirtualFile> getFilesInMergeOrder(@NotNull ConcordRoot root) {
+        var rootFile = root.getRootFile();
+
+        List<VirtualFile> sortedFiles = new ArrayList<>(getFilesInScope(root));
+        sortedFiles.remove(rootFile);
+        sortedFiles.sort(Comparator.comparing(VirtualFile::getName)
+                .thenComparing(VirtualFile::getPath));
+        sortedFiles.add(rootFile);
+        return sortedFiles;
     }
 
     /**
@@ -206,153 +282,26 @@ public final class ConcordScopeService {
      * @return list of all detected Concord roots
      */
     public @NotNull List<ConcordRoot> findRoots() {
-        return CachedValuesManager.getManager(project).getCachedValue(project, ROOTS_CACHE_KEY, () -> {
-            var roots = computeRoots();
-            return CachedValueProvider.Result.create(
-                    roots,
-                    ConcordModificationTracker.getInstance(project).structure(),
-                    DumbService.getInstance(project).getModificationTracker()
-            );
-        }, false);
+        return membership.roots();
     }
 
     /**
-     * Creates a search scope containing all files from the given roots.
-     * Uses cached scope files for each root.
+     * Returns the cached search scope over the files of the given roots.
      */
     private @NotNull GlobalSearchScope createScopeFromRoots(@NotNull List<ConcordRoot> roots) {
         if (roots.isEmpty()) {
             return GlobalSearchScope.EMPTY_SCOPE;
         }
 
-        var scopeFilesMap = getScopeFilesMap();
-        Set<VirtualFile> files = CollectionFactory.createSmallMemoryFootprintSet();
-
-        for (var root : roots) {
-            files.add(root.getRootFile());
-            var scopeFiles = scopeFilesMap.get(root.getRootFile());
-            if (scopeFiles != null) {
-                files.addAll(scopeFiles);
-            }
-        }
-
-        if (files.isEmpty()) {
-            return GlobalSearchScope.EMPTY_SCOPE;
-        }
-
-        return GlobalSearchScope.filesScope(project, files);
-    }
-
-    /**
-     * Returns a cached map from root file to its scope files.
-     * Invalidated when structure or patterns change.
-     */
-    private @NotNull Map<VirtualFile, Set<VirtualFile>> getScopeFilesMap() {
-        return CachedValuesManager.getManager(project).getCachedValue(project, SCOPE_FILES_CACHE_KEY, () -> {
-            var map = computeScopeFilesMap();
-            return CachedValueProvider.Result.create(
-                    map,
-                    ConcordModificationTracker.getInstance(project).structure(),
-                    DumbService.getInstance(project).getModificationTracker()
-            );
-        }, false);
-    }
-
-    /**
-     * Computes the scope files map: for each root, which files belong to its scope.
-     */
-    private @NotNull Map<VirtualFile, Set<VirtualFile>> computeScopeFilesMap() {
-        var roots = findRoots();
-        var allConcordFiles = findAllConcordFiles();
-
-        if (roots.isEmpty()) {
-            return Map.of();
-        }
-
-        Map<VirtualFile, Set<VirtualFile>> result = new HashMap<>();
-
+        Set<VirtualFile> rootFiles = CollectionFactory.createSmallMemoryFootprintSet(roots.size());
         for (var root : roots) {
-            Set<VirtualFile> scopeFiles = allConcordFiles.stream()
-                    .filter(root::contains)
-                    .collect(Collectors.toSet());
-            result.put(root.getRootFile(), scopeFiles);
+            rootFiles.add(root.getRootFile());
         }
-
-        return result;
-    }
-
-    /**
-     * Returns all Concord files in the project (cached).
-     * This includes all files with names ending in concord.yml, concord.yaml, etc.
-     */
-    private @NotNull Collection<VirtualFile> findAllConcordFiles() {
-        return CachedValuesManager.getManager(project).getCachedValue(project, ALL_CONCORD_FILES_CACHE_KEY, () -> {
-            var files = computeAllConcordFiles();
-            return CachedValueProvider.Result.create(
-                    files,
-                    ConcordModificationTracker.getInstance(project).structure(),
-                    DumbService.getInstance(project).getModificationTracker()
-            );
-        }, false);
-    }
-
-    /**
-     * Computes all Concord files in the project.
-     */
-    private @NotNull Collection<VirtualFile> computeAllConcordFiles() {
-        var projectScope = GlobalSearchScope.projectScope(project);
-        return FileTypeIndex.getFiles(ConcordFileType.INSTANCE, projectScope)
-                .stream()
-                .filter(f -> !isIgnored(f))
-                .toList();
-    }
-
-    /**
-     * Computes all Concord roots in the project.
-     * Note: ignored files filtering is done at usage time, not here,
-     * to ensure fresh VCS status is used.
-     */
-    private @NotNull List<ConcordRoot> computeRoots() {
-        // Step 1: Find all potential root files from all Concord files
-        var allConcordFiles = findAllConcordFiles();
-        var potentialRoots = allConcordFiles.stream()
-                .filter(ConcordScopeService::isRootFile)
-                .map(this::createRoot)
-                .sorted(Comparator.comparingInt(r -> r.getRootFile().getPath().length()))
-                .toList();
-
-        if (potentialRoots.isEmpty()) {
-            return List.of();
-        }
-
-        // Step 2: Filter out non-roots (files that are contained in another root's scope)
-        // We sort by path length to process top-level roots first.
-        // A root can only be contained in a root with a shorter path.
-        var confirmedRoots = new ArrayList<ConcordRoot>();
-        for (var candidate : potentialRoots) {
-            boolean isContained = false;
-            for (var root : confirmedRoots) {
-                if (root.contains(candidate.getRootFile())) {
-                    isContained = true;
-                    break;
-                }
-            }
-            if (!isContained) {
-                confirmedRoots.add(candidate);
-            }
-        }
-
-        return confirmedRoots;
+        return membership.searchScope(rootFiles);
     }
 
     private static boolean isRootFile(@NotNull VirtualFile file) {
         return ConcordFile.isRootFileName(file.getName());
     }
 
-    /**
-     * Creates a ConcordRoot from a virtual file.
-     */
-    private @NotNull ConcordRoot createRoot(@NotNull VirtualFile file) {
-        return new ConcordRoot(project, file);
-    }
 }
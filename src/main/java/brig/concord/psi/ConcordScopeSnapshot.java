@@ -0,0 +1,101 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.xmlb.annotations.Attribute;
+import com.intellij.util.xmlb.annotations.Tag;
+import com.intellij.util.xmlb.annotations.XCollection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scope membership as of the last save, kept in the project's cache storage.
+ * Lets {@link ConcordScopeMembership} answer scope queries while the project is still being indexed
+ * after a reopen; it is replaced by the index-based membership as soon as indexing finishes, and then discarded.
+ */
+@Service(Service.Level.PROJECT)
+@State(name = "ConcordScopeSnapshot", storages = @Storage(StoragePathMacros.CACHE_FILE))
+public final class ConcordScopeSnapshot implements PersistentStateComponent<ConcordScopeSnapshot.Snapshot> {
+
+    private final Project project;
+    private volatile @Nullable Snapshot loaded;
+
+    public ConcordScopeSnapshot(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static @NotNull ConcordScopeSnapshot getInstance(@NotNull Project project) {
+        return project.getService(ConcordScopeSnapshot.class);
+    }
+
+    /**
+     * @param files URLs of all tracked Concord files
+     * @param roots confirmed roots in discovery order
+     */
+    @Tag("snapshot")
+    public static final class Snapshot {
+        @XCollection(propertyElementName = "files", elementName = "file", valueAttributeName = "url")
+        public List<String> files = new ArrayList<>();
+
+        @XCollection(propertyElementName = "roots")
+        public List<RootSnapshot> roots = new ArrayList<>();
+    }
+
+    /**
+     * A root and the files in its scope. The root file's timestamp and length identify the content
+     * the file list was computed from.
+     *
+     * @see Snapshot#files
+     */
+    @Tag("root")
+    public static final class RootSnapshot {
+        @Attribute("url")
+        public String url;
+
+        @Attribute("timeStamp")
+        public long timeStamp;
+
+        @Attribute("length")
+        public long length;
+
+        /**
+         * Comma-separated indexes into {@link Snapshot#files}.
+         */
+        @Attribute("files")
+        public String files = "";
+    }
+
+    @Override
+    public @Nullable Snapshot getState() {
+        var current = ConcordScopeService.getInstance(project).snapshot();
+        return current != null ? current : loaded;
+    }
+
+    @Override
+    public void loadState(@NotNull Snapshot state) {
+        loaded = state;
+    }
+
+    /**
+     * Returns the snapshot loaded at startup, if any.
+     */
+    @Nullable Snapshot loaded() {
+        return loaded;
+    }
+
+    /**
+     * Drops the snapshot loaded at startup once membership has been computed from the indexes:
+     * later dumb modes must not go back to it.
+     */
+    void discardLoaded() {
+        loaded = null;
+    }
+}
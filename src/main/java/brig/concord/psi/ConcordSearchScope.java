@@ -0,0 +1,74 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Search scope over the files of a set of Concord roots.
+ * Checks the live file sets of {@link ConcordScopeMembership} instead of copying them,
+ * instances are cached per root set until membership changes.
+ */
+final class ConcordSearchScope extends GlobalSearchScope {
+
+    private final Set<VirtualFile> rootFiles;
+    private final List<Set<VirtualFile>> files;
+    private final long version;
+
+    ConcordSearchScope(@NotNull Project project, @NotNull Set<VirtualFile> rootFiles,
+                       @NotNull List<Set<VirtualFile>> files, long version) {
+        super(project);
+        this.rootFiles = rootFiles;
+        this.files = files;
+        this.version = version;
+    }
+
+    @Override
+    public boolean contains(@NotNull VirtualFile file) {
+        if (rootFiles.contains(file)) {
+            return true;
+        }
+        for (var scopeFiles : files) {
+            if (scopeFiles.contains(file)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isSearchInModuleContent(@NotNull Module aModule) {
+        return true;
+    }
+
+    @Override
+    public boolean isSearchInLibraries() {
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ConcordSearchScope other
+                && version == other.version
+                && rootFiles.equals(other.rootFiles);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * rootFiles.hashCode() + Long.hashCode(version);
+    }
+
+    @Override
+    public String toString() {
+        return "Concord scope " + rootFiles.stream()
+                .map(VirtualFile::getPath)
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
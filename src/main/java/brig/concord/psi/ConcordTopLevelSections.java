@@ -0,0 +1,122 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Finds the top-level section of a Concord file a document edit happened in, from the document text alone.
+ * Top-level keys are the lines that start at column 0 with something other than a comment.
+ */
+final class ConcordTopLevelSections {
+
+    private ConcordTopLevelSections() {
+    }
+
+    /**
+     * Returns the key of the top-level section the edit is confined to, or null if it is unknown:
+     * the edit adds, removes or renames a top-level key, or the text is not a plain block mapping.
+     *
+     * @param text        the document text after the edit
+     * @param offset      start of the edit
+     * @param oldFragment the replaced text
+     * @param newFragment the inserted text
+     */
+    static @Nullable String editedSection(@NotNull CharSequence text, int offset,
+                                          @NotNull CharSequence oldFragment, @NotNull CharSequence newFragment) {
+        var end = offset + newFragment.length();
+        var lineStart = lineStart(text, offset);
+
+        if (offset == lineStart && (startsLine(oldFragment, text, end) || startsLine(newFragment, text, end))) {
+            return null;
+        }
+        if (hasNewTopLevelLine(oldFragment, text, end) || hasNewTopLevelLine(newFragment, text, end)) {
+            return null;
+        }
+
+        for (var start = lineStart; ; start = lineStart(text, start - 1)) {
+            if (start < text.length() && !isBlankOrComment(text.charAt(start))) {
+                var colon = keyEnd(text, start);
+                if (colon < 0 || start == lineStart && offset <= colon) {
+                    // Not a key, or the edit is in the key itself
+                    return null;
+                }
+                return key(text, start, colon);
+            }
+            if (start == 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Whether the fragment inserted or removed at the start of a line begins that line with a top-level key.
+     */
+    private static boolean startsLine(@NotNull CharSequence fragment, @NotNull CharSequence text, int end) {
+        var first = fragment.isEmpty() ? charAt(text, end) : fragment.charAt(0);
+        return first != 0 && !isBlankOrComment(first);
+    }
+
+    private static boolean hasNewTopLevelLine(@NotNull CharSequence fragment, @NotNull CharSequence text, int end) {
+        for (var i = 0; i < fragment.length(); i++) {
+            if (fragment.charAt(i) == '\n') {
+                var next = i + 1 < fragment.length() ? fragment.charAt(i + 1) : charAt(text, end);
+                if (next != 0 && !isBlankOrComment(next)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int lineStart(@NotNull CharSequence text, int offset) {
+        var i = Math.min(offset, text.length()) - 1;
+        while (i >= 0 && text.charAt(i) != '\n') {
+            i--;
+        }
+        return i + 1;
+    }
+
+    /**
+     * Returns the offset of the colon ending the key that starts the line, or -1 if the line is not a plain key.
+     */
+    private static int keyEnd(@NotNull CharSequence text, int start) {
+        var first = text.charAt(start);
+        var quote = first == '"' || first == '\'' ? first : 0;
+        for (var i = quote != 0 ? start + 1 : start; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else if (c == '\n') {
+                    return -1;
+                }
+                continue;
+            }
+            if (c == ':') {
+                return i;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.' && c != ' ' && c != quote) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static @NotNull String key(@NotNull CharSequence text, int start, int colon) {
+        var key = text.subSequence(start, colon).toString().trim();
+        if (key.length() >= 2 && (key.charAt(0) == '"' || key.charAt(0) == '\'')
+                && key.charAt(key.length() - 1) == key.charAt(0)) {
+            return key.substring(1, key.length() - 1);
+        }
+        return key;
+    }
+
+    private static boolean isBlankOrComment(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '#';
+    }
+
+    private static char charAt(@NotNull CharSequence text, int offset) {
+        return offset < text.length() ? text.charAt(offset) : 0;
+    }
+}
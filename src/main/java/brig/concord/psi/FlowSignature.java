@@ -0,0 +1,45 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parameters declared in a flow's {@code ##} documentation block, detached from the PSI.
+ * Served from {@link FlowSignatureIndex}, so call sites can be checked without loading the callee file.
+ */
+public record FlowSignature(@NotNull List<Param> inputParameters, @NotNull List<Param> outputParameters) {
+
+    public record Param(@NotNull String name,
+                        @NotNull String baseType,
+                        boolean arrayType,
+                        boolean mandatory,
+                        @Nullable String description) {
+
+        /**
+         * Type as written in the documentation, e.g. {@code string[]}.
+         */
+        public @NotNull String type() {
+            return arrayType ? baseType + "[]" : baseType;
+        }
+    }
+
+    public static @NotNull FlowSignature of(@NotNull FlowDocumentation documentation) {
+        return new FlowSignature(toParams(documentation.getInputParameters()), toParams(documentation.getOutputParameters()));
+    }
+
+    private static @NotNull List<Param> toParams(@NotNull List<FlowDocParameter> parameters) {
+        if (parameters.isEmpty()) {
+            return List.of();
+        }
+
+        var result = new ArrayList<Param>(parameters.size());
+        for (var p : parameters) {
+            result.add(new Param(p.getName(), p.getBaseType(), p.isArrayType(), p.isMandatory(), p.getDescription()));
+        }
+        return List.copyOf(result);
+    }
+}
@@ -0,0 +1,135 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import brig.concord.ConcordFileType;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import brig.concord.yaml.psi.YAMLMapping;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Maps flow names to the {@link FlowSignature} of their {@code ##} documentation block.
+ * Only the first definition of a flow name in a file is indexed, and only if it is documented.
+ */
+public final class FlowSignatureIndex extends FileBasedIndexExtension<String, FlowSignature> {
+
+    @NonNls
+    public static final ID<String, FlowSignature> KEY = ID.create("concord.yaml.flow.signatures");
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, FlowSignature, FileContent> getIndexer() {
+        return inputData -> {
+            if (!(inputData.getPsiFile() instanceof ConcordFile file)) {
+                return Collections.emptyMap();
+            }
+
+            var flows = file.flows().map(YAMLKeyValue::getValue).orElse(null);
+            if (!(flows instanceof YAMLMapping flowsMapping)) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, FlowSignature> map = new HashMap<>();
+            Set<String> seen = new HashSet<>();
+            for (var flowKv : flowsMapping.getKeyValues()) {
+                var flowName = flowKv.getKeyText();
+                // Only the first definition of a name resolves, see ProcessDefinition#flows
+                if (flowName.isBlank() || !seen.add(flowName)) {
+                    continue;
+                }
+
+                var documentation = ProcessDefinition.findFlowDocumentationBefore(flowKv);
+                if (documentation != null) {
+                    map.put(flowName, FlowSignature.of(documentation));
+                }
+            }
+            return map;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<FlowSignature> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, FlowSignature value) throws IOException {
+                writeParams(out, value.inputParameters());
+                writeParams(out, value.outputParameters());
+            }
+
+            @Override
+            public FlowSignature read(@NotNull DataInput in) throws IOException {
+                return new FlowSignature(readParams(in), readParams(in));
+            }
+        };
+    }
+
+    private static void writeParams(@NotNull DataOutput out, @NotNull List<FlowSignature.Param> params) throws IOException {
+        DataInputOutputUtil.writeINT(out, params.size());
+        for (var param : params) {
+            IOUtil.writeUTF(out, param.name());
+            IOUtil.writeUTF(out, param.baseType());
+            var description = param.description();
+            out.writeByte((param.arrayType() ? 1 : 0) | (param.mandatory() ? 2 : 0) | (description != null ? 4 : 0));
+            if (description != null) {
+                IOUtil.writeUTF(out, description);
+            }
+        }
+    }
+
+    private static @NotNull List<FlowSignature.Param> readParams(@NotNull DataInput in) throws IOException {
+        var size = DataInputOutputUtil.readINT(in);
+        if (size == 0) {
+            return List.of();
+        }
+
+        var result = new ArrayList<FlowSignature.Param>(size);
+        for (int i = 0; i < size; i++) {
+            var name = IOUtil.readUTF(in);
+            var baseType = IOUtil.readUTF(in);
+            var flags = in.readByte();
+            var description = (flags & 4) != 0 ? IOUtil.readUTF(in) : null;
+            result.add(new FlowSignature.Param(name, baseType, (flags & 1) != 0, (flags & 2) != 0, description));
+        }
+        return List.copyOf(result);
+    }
+
+    @NotNull
+    @Override
+    public ID<String, FlowSignature> getName() {
+        return KEY;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(ConcordFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
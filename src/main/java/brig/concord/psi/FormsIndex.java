@@ -0,0 +1,159 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import brig.concord.ConcordFileType;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import brig.concord.yaml.psi.YAMLMapping;
+import brig.concord.yaml.psi.YAMLScalar;
+import brig.concord.yaml.psi.YAMLSequence;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Maps {@code forms} entry names to the key offset and the declared fields of the form.
+ */
+public final class FormsIndex extends FileBasedIndexExtension<String, FormsIndex.Form> {
+
+    @NonNls
+    public static final ID<String, Form> KEY = ID.create("concord.yaml.forms");
+
+    /**
+     * @param name field name
+     * @param type field type as written, including the cardinality suffix, e.g. {@code string?};
+     *             null if not declared
+     */
+    public record FormField(@NotNull String name, @Nullable String type) {
+    }
+
+    /**
+     * @param offset text offset of the form key
+     * @param fields form fields, in document order
+     */
+    public record Form(int offset, @NotNull List<FormField> fields) {
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, Form, FileContent> getIndexer() {
+        return inputData -> {
+            if (!(inputData.getPsiFile() instanceof ConcordFile file)) {
+                return Collections.emptyMap();
+            }
+
+            var forms = file.forms().map(YAMLKeyValue::getValue).orElse(null);
+            if (!(forms instanceof YAMLMapping mapping)) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, Form> map = new HashMap<>();
+            for (var kv : mapping.getKeyValues()) {
+                var name = kv.getKeyText().trim();
+                if (!name.isEmpty()) {
+                    map.putIfAbsent(name, new Form(kv.getTextOffset(), readFields(kv)));
+                }
+            }
+            return map;
+        };
+    }
+
+    private static @NotNull List<FormField> readFields(@NotNull YAMLKeyValue formKv) {
+        if (!(formKv.getValue() instanceof YAMLSequence sequence)) {
+            return List.of();
+        }
+
+        var result = new ArrayList<FormField>();
+        for (var item : sequence.getItems()) {
+            if (!(item.getValue() instanceof YAMLMapping fieldMapping)) {
+                continue;
+            }
+
+            for (var fieldKv : fieldMapping.getKeyValues()) {
+                var fieldName = fieldKv.getKeyText().trim();
+                if (fieldName.isEmpty()) {
+                    continue;
+                }
+
+                String type = null;
+                if (fieldKv.getValue() instanceof YAMLMapping options
+                        && options.getKeyValueByKey("type") instanceof YAMLKeyValue typeKv
+                        && typeKv.getValue() instanceof YAMLScalar typeScalar) {
+                    type = typeScalar.getTextValue().trim();
+                }
+                result.add(new FormField(fieldName, type));
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<Form> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, Form value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.offset());
+                DataInputOutputUtil.writeINT(out, value.fields().size());
+                for (var field : value.fields()) {
+                    IOUtil.writeUTF(out, field.name());
+                    out.writeBoolean(field.type() != null);
+                    if (field.type() != null) {
+                        IOUtil.writeUTF(out, field.type());
+                    }
+                }
+            }
+
+            @Override
+            public Form read(@NotNull DataInput in) throws IOException {
+                var offset = DataInputOutputUtil.readINT(in);
+                var size = DataInputOutputUtil.readINT(in);
+                var fields = new ArrayList<FormField>(size);
+                for (int i = 0; i < size; i++) {
+                    var name = IOUtil.readUTF(in);
+                    var type = in.readBoolean() ? IOUtil.readUTF(in) : null;
+                    fields.add(new FormField(name, type));
+                }
+                return new Form(offset, List.copyOf(fields));
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public ID<String, Form> getName() {
+        return KEY;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(ConcordFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
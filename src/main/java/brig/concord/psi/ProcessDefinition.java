@@ -2,31 +2,38 @@
 package brig.concord.psi;
 
 import brig.concord.navigation.FlowNamesIndex;
+import brig.concord.psi.stub.ConcordFlowIndex;
 import com.intellij.openapi.actionSystem.ex.ActionUtil;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Computable;
 import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiManager;
+import com.intellij.psi.stubs.StubIndex;
 import com.intellij.psi.util.CachedValue;
 import com.intellij.psi.util.CachedValueProvider;
-import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.psi.util.PsiTreeUtil;
-import com.intellij.util.CommonProcessors;
 import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.ID;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import brig.concord.yaml.psi.*;
 
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import static brig.concord.meta.ConcordFileMetaType.FLOWS_KEY;
 
 public class ProcessDefinition {
 
-    private static final Key<CachedValue<Map<String, YAMLKeyValue>>> FLOW_MAP_KEY =
-            Key.create("concord.flow.definitions.map");
+    private static final Key<CachedValue<Set<String>>> FLOW_NAMES_KEY = Key.create("concord.flow.names.root");
+
+    private static final Key<CachedValue<Set<String>>> PROFILE_NAMES_KEY = Key.create("concord.profile.names.root");
+
+    private static final Key<CachedValue<Map<String, FormsIndex.Form>>> FORMS_KEY = Key.create("concord.forms.root");
 
     private final PsiElement element;
 
@@ -80,6 +87,23 @@ public class ProcessDefinition {
         return FLOWS_KEY.equals(flowsKeyValue.getKeyText());
     }
 
+    /**
+     * Returns the {@code ##} documentation block directly preceding the flow definition, if any.
+     */
+    public static @Nullable FlowDocumentation findFlowDocumentationBefore(PsiElement flowDefinition) {
+        var sibling = flowDefinition.getPrevSibling();
+        while (sibling != null) {
+            if (sibling instanceof FlowDocumentation doc) {
+                return doc;
+            }
+            if (sibling.getTextLength() > 0 && !sibling.getText().isBlank()) {
+                break;
+            }
+            sibling = sibling.getPrevSibling();
+        }
+        return null;
+    }
+
     @Nullable
     public PsiElement flow(String name) {
         var flows = flows(name);
@@ -101,72 +125,121 @@ public class ProcessDefinition {
 
         var scope = ConcordScopeService.getInstance(project).createSearchScope(element);
 
-        var files = new CommonProcessors.CollectProcessor<VirtualFile>();
-        FileBasedIndex.getInstance().getFilesWithKey(FlowNamesIndex.KEY,
-                Collections.singleton(name),
-                files,
-                scope);
-
-        List<PsiElement> result = new ArrayList<>();
-        for (var file : files.getResults()) {
-            var psiFile = PsiManager.getInstance(project).findFile(file);
-            if (!(psiFile instanceof ConcordFile cf)) {
-                continue;
+        // Flow definitions come straight from stubs, no AST is loaded for the files in scope.
+        // Only the first definition per file counts; files are ordered by path, as the index order is unspecified.
+        Map<VirtualFile, YAMLKeyValue> firstByFile = new TreeMap<>(Comparator.comparing(VirtualFile::getPath));
+        StubIndex.getInstance().processElements(ConcordFlowIndex.KEY, name, project, scope, YAMLKeyValue.class, flowKv -> {
+            var file = flowKv.getContainingFile().getVirtualFile();
+            if (file != null) {
+                // Duplicate keys in one file are rare, only then are offsets compared (and the AST loaded)
+                firstByFile.merge(file, flowKv, (a, b) -> a.getTextOffset() <= b.getTextOffset() ? a : b);
             }
+            return true;
+        });
 
-            var flowKv = getFlowDefinitions(cf).get(name);
-            if (flowKv != null) {
-                result.add(flowKv);
-            }
+        return new ArrayList<>(firstByFile.values());
+    }
+
+    /**
+     * Returns the names of all flows visible from the current scope.
+     * Served from a per-root name table, so the cost depends on the scope size
+     * rather than on the number of flow names in the whole project.
+     */
+    public Set<String> flowNames() {
+        return mergeNames(perRoot(FLOW_NAMES_KEY, (project, root) -> computeNames(project, root, FlowNamesIndex.KEY),
+                project -> ConcordPsiModificationTracker.getInstance(project).flowDefinitions()));
+    }
+
+    /**
+     * Returns the names of all profiles declared in the current scope.
+     */
+    public Set<String> profileNames() {
+        return mergeNames(perRoot(PROFILE_NAMES_KEY, (project, root) -> computeNames(project, root, ProfileNamesIndex.KEY),
+                project -> ConcordPsiModificationTracker.getInstance(project).sections("profiles")));
+    }
+
+    /**
+     * Returns the forms declared in the current scope, by name.
+     * Files are merged in {@link ConcordScopeService#getFilesInMergeOrder} order, so a form declared in the root file
+     * takes precedence over the other files. With several roots, the root whose file path sorts first wins.
+     */
+    public Map<String, FormsIndex.Form> forms() {
+        var perRoot = perRoot(FORMS_KEY, ProcessDefinition::computeForms,
+                project -> ConcordPsiModificationTracker.getInstance(project).sections("forms"));
+        if (perRoot.size() == 1) {
+            return perRoot.getFirst();
         }
 
+        var result = new HashMap<String, FormsIndex.Form>();
+        for (var forms : perRoot) {
+            forms.forEach(result::putIfAbsent);
+        }
         return result;
     }
 
-    public Set<String> flowNames() {
-        var project = element.getProject();
-        if (ActionUtil.isDumbMode(project)) {
+    private static @NotNull Set<String> mergeNames(@NotNull List<Set<String>> perRoot) {
+        if (perRoot.isEmpty()) {
             return Collections.emptySet();
         }
+        if (perRoot.size() == 1) {
+            return perRoot.getFirst();
+        }
 
-        var scope = ConcordScopeService.getInstance(project).createSearchScope(element);
-
-        return ApplicationManager.getApplication().runReadAction((Computable<Set<String>>) () -> {
-            var result = new HashSet<String>();
-            FileBasedIndex.getInstance().processAllKeys(FlowNamesIndex.KEY, key -> {
-                // Ensure the key is actually in the scope.
-                // processValues returns false if the processor returns false (which we do on the first hit).
-                var isInScope = !FileBasedIndex.getInstance().processValues(FlowNamesIndex.KEY, key, null, (file, value) -> false, scope);
-                if (isInScope) {
-                    result.add(key);
-                }
-                return true;
-            }, scope, null);
-            return result;
-        });
+        var result = new HashSet<String>();
+        perRoot.forEach(result::addAll);
+        return result;
     }
 
     /**
-     * Returns a cached map of flow name → flow definition KV for the given file.
-     * Built once per file modification, then all flow lookups are O(1).
+     * Returns the values of the given per-root table for each root of the current scope, ordered by root file path.
+     * Each value is cached on its root file until the root's scope or the content it is computed from changes,
+     * so edits under one root keep the tables of the other roots.
+     *
+     * @param content the tracker of the content the table is computed from
      */
-    static @NotNull Map<String, YAMLKeyValue> getFlowDefinitions(@NotNull ConcordFile file) {
-        return CachedValuesManager.getCachedValue((PsiElement) file, FLOW_MAP_KEY, () -> {
-            var flowsKv = file.flows().orElse(null);
-            if (flowsKv == null) {
-                return CachedValueProvider.Result.create(Map.of(), (PsiElement) file);
-            }
-            var flowsValue = flowsKv.getValue();
-            if (!(flowsValue instanceof YAMLMapping mapping)) {
-                return CachedValueProvider.Result.create(Map.of(), (PsiElement) file);
+    private <T> @NotNull List<T> perRoot(@NotNull Key<CachedValue<T>> key,
+                                         @NotNull BiFunction<Project, ConcordRoot, T> compute,
+                                         @NotNull Function<Project, ModificationTracker> content) {
+        var project = element.getProject();
+        if (ActionUtil.isDumbMode(project)) {
+            return List.of();
+        }
+
+        return ApplicationManager.getApplication().runReadAction((Computable<List<T>>) () -> {
+            var roots = new ArrayList<>(ConcordScopeService.getInstance(project).getScopes(element));
+            if (roots.isEmpty()) {
+                return List.of();
             }
-            var map = new HashMap<String, YAMLKeyValue>();
-            for (var child = mapping.getFirstChild(); child != null; child = child.getNextSibling()) {
-                if (child instanceof YAMLKeyValue kv) {
-                    map.putIfAbsent(kv.getKeyText(), kv);
-                }
+            roots.sort(Comparator.comparing(root -> root.getRootFile().getPath()));
+
+            var result = new ArrayList<T>(roots.size());
+            for (var root : roots) {
+                result.add(root.getCachedValue(key, () -> CachedValueProvider.Result.create(
+                        compute.apply(project, root),
+                        ConcordModificationTracker.getInstance(project).structure(root),
+                        content.apply(project),
+                        DumbService.getInstance(project).getModificationTracker())));
             }
-            return CachedValueProvider.Result.create(Collections.unmodifiableMap(map), (PsiElement) file);
+            return result;
         });
     }
+
+    private static @NotNull Set<String> computeNames(@NotNull Project project, @NotNull ConcordRoot root,
+                                                     @NotNull ID<String, ?> indexId) {
+        var index = FileBasedIndex.getInstance();
+        var result = new HashSet<String>();
+        for (var file : ConcordScopeService.getInstance(project).getFilesInScope(root)) {
+            result.addAll(index.getFileData(indexId, file, project).keySet());
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    private static @NotNull Map<String, FormsIndex.Form> computeForms(@NotNull Project project, @NotNull ConcordRoot root) {
+        var index = FileBasedIndex.getInstance();
+        var result = new HashMap<String, FormsIndex.Form>();
+        for (var file : ConcordScopeService.getInstance(project).getFilesInMergeOrder(root)) {
+            result.putAll(index.getFileData(FormsIndex.KEY, file, project));
+        }
+        return Collections.unmodifiableMap(result);
+    }
 }
@@ -0,0 +1,84 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import brig.concord.ConcordFileType;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import brig.concord.yaml.psi.YAMLMapping;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorIntegerDescriptor;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps {@code profiles} entry names to the text offset of their key.
+ */
+public final class ProfileNamesIndex extends FileBasedIndexExtension<String, Integer> {
+
+    @NonNls
+    public static final ID<String, Integer> KEY = ID.create("concord.yaml.profile.names");
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, Integer, FileContent> getIndexer() {
+        return inputData -> {
+            if (!(inputData.getPsiFile() instanceof ConcordFile file)) {
+                return Collections.emptyMap();
+            }
+
+            var profiles = file.profiles().map(YAMLKeyValue::getValue).orElse(null);
+            if (!(profiles instanceof YAMLMapping mapping)) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, Integer> map = new HashMap<>();
+            for (var kv : mapping.getKeyValues()) {
+                var name = kv.getKeyText().trim();
+                if (!name.isEmpty()) {
+                    map.putIfAbsent(name, kv.getTextOffset());
+                }
+            }
+            return map;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<Integer> getValueExternalizer() {
+        return EnumeratorIntegerDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public ID<String, Integer> getName() {
+        return KEY;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(ConcordFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
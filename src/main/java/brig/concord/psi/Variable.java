@@ -6,5 +6,76 @@ import com.intellij.psi.PsiElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-public record Variable(@NotNull String name, @NotNull VariableSource source,
-                       @Nullable PsiElement declaration, @NotNull SchemaProperty schema) {}
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A variable visible at some point of a flow.
+ * The declaration is either known upfront or resolved on demand, e.g. for index-backed arguments.
+ * <p>
+ * Unlike the record this class replaces, equality ignores the declaration, so comparing variables never
+ * resolves it: variables with the same name, source and schema are equal.
+ */
+public final class Variable {
+
+    private final String name;
+    private final VariableSource source;
+    private final Supplier<? extends PsiElement> declaration;
+    private final SchemaProperty schema;
+
+    public Variable(@NotNull String name, @NotNull VariableSource source,
+                    @Nullable PsiElement declaration, @NotNull SchemaProperty schema) {
+        this(name, source, () -> declaration, schema);
+    }
+
+    private Variable(@NotNull String name, @NotNull VariableSource source,
+                     @NotNull Supplier<? extends PsiElement> declaration, @NotNull SchemaProperty schema) {
+        this.name = name;
+        this.source = source;
+        this.declaration = declaration;
+        this.schema = schema;
+    }
+
+    /**
+     * Creates a variable whose declaration is resolved on each {@link #declaration()} call.
+     */
+    public static @NotNull Variable lazy(@NotNull String name, @NotNull VariableSource source,
+                                         @NotNull Supplier<? extends PsiElement> declaration,
+                                         @NotNull SchemaProperty schema) {
+        return new Variable(name, source, declaration, schema);
+    }
+
+    public @NotNull String name() {
+        return name;
+    }
+
+    public @NotNull VariableSource source() {
+        return source;
+    }
+
+    public @Nullable PsiElement declaration() {
+        return declaration.get();
+    }
+
+    public @NotNull SchemaProperty schema() {
+        return schema;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Variable other
+                && name.equals(other.name)
+                && source == other.source
+                && schema.equals(other.schema);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, source, schema);
+    }
+
+    @Override
+    public String toString() {
+        return "Variable[name=" + name + ", source=" + source + ", schema=" + schema + ']';
+    }
+}
@@ -6,9 +6,11 @@ import brig.concord.meta.ConcordMetaTypeProvider;
 import brig.concord.meta.model.StepElementMetaType;
 import brig.concord.schema.*;
 import brig.concord.yaml.psi.*;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.util.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -63,13 +65,25 @@ public final class VariablesProvider {
                 collectVariablesFromScope(stepItem, collector);
             }
 
-            return CachedValueProvider.Result.create(
-                    collector.toList(),
-                    PsiModificationTracker.getInstance(stepItem.getProject())
-            );
+            return CachedValueProvider.Result.create(collector.toList(), baseDependencies(stepItem));
         });
     }
 
+    /**
+     * The step's own flow, so typing in other flows keeps the cached variables,
+     * plus what the variables are read from outside of it: called flows and arguments of the file's scopes.
+     */
+    private static @NotNull Object[] baseDependencies(@NotNull YAMLSequenceItem stepItem) {
+        var project = stepItem.getProject();
+        var psiTracker = ConcordPsiModificationTracker.getInstance(project);
+        var result = new ArrayList<>();
+        result.add(psiTracker.forElement(stepItem));
+        result.add(psiTracker.flowDefinitions());
+        result.add(DumbService.getInstance(project).getModificationTracker());
+        Collections.addAll(result, argumentDependencies(stepItem.getContainingFile()));
+        return result.toArray();
+    }
+
     private static @NotNull List<Variable> computeWithoutScope(@NotNull PsiElement element) {
         var collector = new VariableCollector(element.getProject());
         var flowKv = ProcessDefinition.findEnclosingFlowDefinition(element);
@@ -161,19 +175,31 @@ public final class VariablesProvider {
 
         return CachedValuesManager.getCachedValue(psiFile, ARG_VARS_KEY, () -> {
             var project = psiFile.getProject();
-            var args = ArgumentsCollector.getInstance(project).getArguments(psiFile);
-            if (args.isEmpty()) {
-                var tracker = ConcordModificationTracker.getInstance(project);
-                return CachedValueProvider.Result.create(List.of(), tracker.structure(), tracker.arguments());
-            }
+            var args = ArgumentsCollector.getInstance(project).getIndexedArguments(psiFile);
             var vars = new ArrayList<Variable>(args.size());
-            args.forEach((name, kv) ->
-                    vars.add(new Variable(name, VariableSource.ARGUMENT, kv, SchemaInference.inferSchema(name, kv.getValue()))));
-            var tracker = ConcordModificationTracker.getInstance(project);
-            return CachedValueProvider.Result.create(List.copyOf(vars), tracker.structure(), tracker.arguments());
+            args.forEach((name, arg) ->
+                    vars.add(Variable.lazy(name, VariableSource.ARGUMENT, () -> arg.resolve(project),
+                            new SchemaProperty(name, arg.data().type(), null, false))));
+            return CachedValueProvider.Result.create(List.copyOf(vars), argumentDependencies(psiFile));
         });
     }
 
+    /**
+     * Trackers of the file's scopes, so that edits in other scopes keep the cached variables.
+     * The project-wide structure tracker covers the file joining or leaving scopes.
+     */
+    private static @NotNull Object[] argumentDependencies(@NotNull PsiFile psiFile) {
+        var project = psiFile.getProject();
+        var tracker = ConcordModificationTracker.getInstance(project);
+        var scopes = ConcordScopeService.getInstance(project).getScopes(psiFile);
+        var result = new ArrayList<>(1 + scopes.size());
+        result.add(tracker.structure());
+        for (var scope : scopes) {
+            result.add(tracker.arguments(scope));
+        }
+        return result.toArray();
+    }
+
     private static void collectLocalStepVars(YAMLSequenceItem stepItem, VariableCollector collector) {
         if (stepItem.getValue() instanceof YAMLMapping m) {
             var loopKv = m.getKeyValueByKey("loop");
@@ -280,7 +306,7 @@ public final class VariablesProvider {
     }
 
     private static void collectFlowInputParams(@NotNull YAMLKeyValue flowKv, VariableCollector collector) {
-        var doc = FlowCallParamsProvider.findFlowDocumentationBefore(flowKv);
+        var doc = ProcessDefinition.findFlowDocumentationBefore(flowKv);
         if (doc != null) {
             doc.getInputParameters().forEach(p ->
                     collector.add(new Variable(p.getName(), VariableSource.FLOW_PARAMETER, p, SchemaInference.fromFlowDocParameter(p))));
@@ -301,10 +327,10 @@ public final class VariablesProvider {
 
     private static @NotNull Function<String, SchemaProperty> createOutResolver(@Nullable YAMLKeyValue callKv, @Nullable YAMLKeyValue taskKv) {
         if (callKv != null) {
-            var doc = FlowCallParamsProvider.findFlowDocumentation(callKv);
-            if (doc != null && !doc.getOutputParameters().isEmpty()) {
+            var signature = FlowCallParamsProvider.findFlowSignature(callKv);
+            if (signature != null && !signature.outputParameters().isEmpty()) {
                 Map<String, SchemaProperty> types = new HashMap<>();
-                doc.getOutputParameters().forEach(p -> types.put(p.getName(), SchemaInference.fromFlowDocParameter(p)));
+                signature.outputParameters().forEach(p -> types.put(p.name(), SchemaInference.fromSignatureParameter(p)));
                 return name -> types.getOrDefault(name, SchemaProperty.any(name));
             }
         } else if (taskKv != null) {
@@ -393,14 +419,14 @@ public final class VariablesProvider {
             return List.of();
         }
 
-        var doc = FlowCallParamsProvider.findFlowDocumentation(callKv);
-        if (doc == null || doc.getOutputParameters().isEmpty()) {
+        var signature = FlowCallParamsProvider.findFlowSignature(callKv);
+        if (signature == null || signature.outputParameters().isEmpty()) {
             return List.of();
         }
 
-        var result = new ArrayList<Variable>(doc.getOutputParameters().size());
-        for (var p : doc.getOutputParameters()) {
-            result.add(new Variable(p.getName(), VariableSource.STEP_OUT, outKv, SchemaInference.fromFlowDocParameter(p)));
+        var result = new ArrayList<Variable>(signature.outputParameters().size());
+        for (var p : signature.outputParameters()) {
+            result.add(new Variable(p.name(), VariableSource.STEP_OUT, outKv, SchemaInference.fromSignatureParameter(p)));
         }
         return result;
     }
@@ -4,6 +4,7 @@ package brig.concord.psi.impl.delegate;
 import com.intellij.extapi.psi.ASTWrapperPsiElement;
 import com.intellij.lang.ASTNode;
 import com.intellij.openapi.util.NlsSafe;
+import com.intellij.psi.ElementManipulators;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiNamedElement;
 import com.intellij.util.IncorrectOperationException;
@@ -13,7 +14,7 @@ import org.jetbrains.annotations.NotNull;
 /**
  * Delegate that provides {@link PsiNamedElement} support for scalar out-variable
  * declarations (e.g., {@code out: result}). Returns the scalar text value as
- * the element name, enabling {@code ReferencesSearch} (Find Usages) to work.
+ * the element name, enabling {@code ReferencesSearch} (Find Usages) and rename to work.
  */
 class YamlOutVarDelegate extends ASTWrapperPsiElement implements PsiNamedElement {
 
@@ -31,6 +32,6 @@ class YamlOutVarDelegate extends ASTWrapperPsiElement implements PsiNamedElement
 
     @Override
     public PsiElement setName(@NlsSafe @NotNull String name) throws IncorrectOperationException {
-        throw new IncorrectOperationException("Rename not supported for out variable scalars");
+        return ElementManipulators.handleContentChange(scalar, name);
     }
 }
\ No newline at end of file
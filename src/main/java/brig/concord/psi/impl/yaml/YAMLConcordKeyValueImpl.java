@@ -2,11 +2,13 @@
 package brig.concord.psi.impl.yaml;
 
 import brig.concord.psi.impl.delegate.ConcordYamlDelegateFactory;
+import brig.concord.psi.stub.ConcordKeyValueStub;
 import com.intellij.lang.ASTNode;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiNamedElement;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.search.SearchScope;
+import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.util.IncorrectOperationException;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
@@ -19,6 +21,10 @@ public class YAMLConcordKeyValueImpl extends YAMLKeyValueImpl {
         super(node);
     }
 
+    public YAMLConcordKeyValueImpl(@NotNull ConcordKeyValueStub stub, @NotNull IStubElementType<?, ?> nodeType) {
+        super(stub, nodeType);
+    }
+
     private PsiNamedElement getDelegate() {
         return ConcordYamlDelegateFactory.createDelegate(this);
     }
@@ -2,13 +2,15 @@
 package brig.concord.psi.ref;
 
 import brig.concord.completion.provider.FlowCallParamsProvider;
+import brig.concord.psi.ConcordModificationTracker;
+import brig.concord.psi.ConcordPsiModificationTracker;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.*;
 import com.intellij.psi.util.CachedValue;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.psi.util.PsiModificationTracker;
 import org.jetbrains.annotations.NotNull;
 import brig.concord.yaml.psi.YAMLKeyValue;
 
@@ -29,22 +31,18 @@ public class CallInParamDefinitionReference extends PsiReferenceBase.Poly<YAMLKe
 
         var inParamDef = CachedValuesManager.getCachedValue(el, IN_PARAM_DEF_CACHE, () -> {
             var callKv = FlowCallParamsProvider.findCallKv(el);
-
-            if (callKv != null) {
-                var resolved = FlowCallParamsProvider.getInstance().inParamDefinition(el);
-                return CachedValueProvider.Result.create(
-                        resolved,
-                        PsiModificationTracker.MODIFICATION_COUNT,
-                        el,
-                        callKv
-                );
-            } else {
-                return CachedValueProvider.Result.create(
-                        null,
-                        PsiModificationTracker.MODIFICATION_COUNT,
-                        el
-                );
-            }
+            var resolved = callKv != null ? FlowCallParamsProvider.getInstance().inParamDefinition(el) : null;
+
+            // The call step lives in the same flow as the parameter
+            var project = el.getProject();
+            var psiTracker = ConcordPsiModificationTracker.getInstance(project);
+            return CachedValueProvider.Result.create(
+                    resolved,
+                    psiTracker.forElement(el),
+                    psiTracker.flowDefinitions(),
+                    ConcordModificationTracker.getInstance(project).structure(),
+                    DumbService.getInstance(project).getModificationTracker()
+            );
         });
 
         return inParamDef == null ? ResolveResult.EMPTY_ARRAY : PsiElementResolveResult.createResults(inParamDef);
@@ -1,14 +1,16 @@
 // SPDX-License-Identifier: Apache-2.0
 package brig.concord.psi.ref;
 
+import brig.concord.psi.ConcordModificationTracker;
+import brig.concord.psi.ConcordPsiModificationTracker;
 import brig.concord.psi.ProcessDefinitionProvider;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.*;
 import com.intellij.psi.util.CachedValue;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.psi.util.PsiModificationTracker;
 import org.jetbrains.annotations.NotNull;
 import brig.concord.yaml.psi.YAMLScalar;
 
@@ -37,10 +39,14 @@ public class FlowDefinitionReference extends PsiReferenceBase.Poly<YAMLScalar> i
         var flowDefs = CachedValuesManager.getCachedValue(el, FLOW_DEFS_CACHE, () -> {
             var resolved = resolveAll(el);
 
+            var project = el.getProject();
+            var psiTracker = ConcordPsiModificationTracker.getInstance(project);
             return CachedValueProvider.Result.create(
                     resolved,
-                    PsiModificationTracker.MODIFICATION_COUNT,
-                    el
+                    psiTracker.forElement(el),
+                    psiTracker.flowDefinitions(),
+                    ConcordModificationTracker.getInstance(project).structure(),
+                    DumbService.getInstance(project).getModificationTracker()
             );
         });
 
@@ -0,0 +1,36 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi.stub;
+
+import brig.concord.ConcordLanguage;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.StubBuilder;
+import com.intellij.psi.stubs.IStubFileElementType;
+import com.intellij.psi.stubs.PsiFileStub;
+import org.jetbrains.annotations.NotNull;
+
+public final class ConcordFileElementType extends IStubFileElementType<PsiFileStub<PsiFile>> {
+
+    /**
+     * Bump when the stubbed skeleton ({@link ConcordStubKind}) or the stub serialization format changes.
+     */
+    private static final int STUB_VERSION = 2;
+
+    public ConcordFileElementType() {
+        super("CONCORD_FILE", ConcordLanguage.INSTANCE);
+    }
+
+    @Override
+    public @NotNull String getExternalId() {
+        return "concord.FILE";
+    }
+
+    @Override
+    public int getStubVersion() {
+        return STUB_VERSION;
+    }
+
+    @Override
+    public @NotNull StubBuilder getBuilder() {
+        return new ConcordStubBuilder();
+    }
+}
@@ -0,0 +1,49 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi.stub;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.impl.source.PsiFileImpl;
+import com.intellij.psi.stubs.StubTree;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the Concord skeleton of a file from its stub tree.
+ * When the file's AST is not loaded, the stubs come from the stub index and no parsing happens.
+ */
+public final class ConcordFileStubs {
+
+    private ConcordFileStubs() {
+    }
+
+    /**
+     * Returns all stubbed keys of the given kind in document order.
+     */
+    public static @NotNull List<ConcordKeyValueStub> find(@NotNull PsiFile file, @NotNull ConcordStubKind kind) {
+        var tree = stubTree(file);
+        if (tree == null) {
+            return List.of();
+        }
+
+        List<ConcordKeyValueStub> result = new ArrayList<>();
+        for (var stub : tree.getPlainList()) {
+            if (stub instanceof ConcordKeyValueStub kv && kv.getKind() == kind) {
+                result.add(kv);
+            }
+        }
+        return result;
+    }
+
+    private static @Nullable StubTree stubTree(@NotNull PsiFile file) {
+        if (!(file instanceof PsiFileImpl fileImpl)) {
+            return null;
+        }
+
+        // Stub tree from the index when the AST is not loaded, otherwise the one derived from the AST
+        var tree = fileImpl.getStubTree();
+        return tree != null ? tree : fileImpl.calcStubTree();
+    }
+}
@@ -0,0 +1,25 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi.stub;
+
+import brig.concord.yaml.psi.YAMLKeyValue;
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndexKey;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flow definitions ({@code flows.<name>}) by flow name.
+ */
+public final class ConcordFlowIndex extends StringStubIndexExtension<YAMLKeyValue> {
+
+    public static final StubIndexKey<String, YAMLKeyValue> KEY = StubIndexKey.createIndexKey("concord.stub.flows");
+
+    @Override
+    public @NotNull StubIndexKey<String, YAMLKeyValue> getKey() {
+        return KEY;
+    }
+
+    @Override
+    public int getVersion() {
+        return super.getVersion() + 1;
+    }
+}
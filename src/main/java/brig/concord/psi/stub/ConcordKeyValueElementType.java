@@ -0,0 +1,100 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi.stub;
+
+import brig.concord.ConcordLanguage;
+import brig.concord.psi.impl.yaml.YAMLConcordKeyValueImpl;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import brig.concord.yaml.psi.YAMLScalar;
+import brig.concord.yaml.psi.YAMLSequence;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.stubs.*;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Element type of YAML key-value pairs. Only the keys classified by {@link ConcordStubKind}
+ * get a stub, all other key-values are AST-only.
+ */
+public final class ConcordKeyValueElementType extends IStubElementType<ConcordKeyValueStub, YAMLKeyValue> {
+
+    public ConcordKeyValueElementType(@NonNls @NotNull String debugName) {
+        super(debugName, ConcordLanguage.INSTANCE);
+    }
+
+    @Override
+    public @NotNull String getExternalId() {
+        return "concord.KEY_VALUE_PAIR";
+    }
+
+    @Override
+    public boolean shouldCreateStub(ASTNode node) {
+        return ConcordStubKind.of(node) != null;
+    }
+
+    @Override
+    public YAMLKeyValue createPsi(@NotNull ConcordKeyValueStub stub) {
+        return new YAMLConcordKeyValueImpl(stub, this);
+    }
+
+    @Override
+    public @NotNull ConcordKeyValueStub createStub(@NotNull YAMLKeyValue psi, StubElement<? extends PsiElement> parentStub) {
+        var kind = ConcordStubKind.of(psi);
+        if (kind == null) {
+            throw new IllegalStateException("Stub requested for a non-stubbed key: " + psi.getKeyText());
+        }
+
+        List<ConcordKeyValueStub.ScalarValue> values = List.of();
+        if (kind.storesValues() && psi.getValue() instanceof YAMLSequence sequence) {
+            values = new ArrayList<>();
+            for (var item : sequence.getItems()) {
+                if (item.getValue() instanceof YAMLScalar scalar) {
+                    values.add(new ConcordKeyValueStub.ScalarValue(scalar.getTextValue(), scalar.getTextOffset()));
+                }
+            }
+        }
+
+        return new ConcordKeyValueStub(parentStub, this, psi.getKeyText(), kind, List.copyOf(values));
+    }
+
+    @Override
+    public void serialize(@NotNull ConcordKeyValueStub stub, @NotNull StubOutputStream dataStream) throws IOException {
+        dataStream.writeName(stub.getKeyText());
+        dataStream.writeVarInt(stub.getKind().ordinal());
+
+        var values = stub.getValues();
+        dataStream.writeVarInt(values.size());
+        for (var value : values) {
+            dataStream.writeUTFFast(value.text());
+            dataStream.writeVarInt(value.offset());
+        }
+    }
+
+    @Override
+    public @NotNull ConcordKeyValueStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
+        var keyText = dataStream.readNameString();
+        var kind = ConcordStubKind.byOrdinal(dataStream.readVarInt());
+
+        var size = dataStream.readVarInt();
+        List<ConcordKeyValueStub.ScalarValue> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            var text = dataStream.readUTFFast();
+            var offset = dataStream.readVarInt();
+            values.add(new ConcordKeyValueStub.ScalarValue(text, offset));
+        }
+
+        return new ConcordKeyValueStub(parentStub, this, keyText != null ? keyText : "", kind, List.copyOf(values));
+    }
+
+    @Override
+    public void indexStub(@NotNull ConcordKeyValueStub stub, @NotNull IndexSink sink) {
+        var keyText = stub.getKeyText();
+        if (stub.getKind() == ConcordStubKind.FLOW && !keyText.isBlank()) {
+            sink.occurrence(ConcordFlowIndex.KEY, keyText);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi.stub;
+
+import brig.concord.yaml.psi.YAMLKeyValue;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.StubBase;
+import com.intellij.psi.stubs.StubElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Stub of a {@link YAMLKeyValue} that belongs to the Concord file skeleton (see {@link ConcordStubKind}).
+ */
+public final class ConcordKeyValueStub extends StubBase<YAMLKeyValue> {
+
+    /**
+     * A scalar item of the key's sequence value, e.g. a dependency or a resources pattern.
+     */
+    public record ScalarValue(@NotNull String text, int offset) {
+    }
+
+    private final String keyText;
+    private final ConcordStubKind kind;
+    private final List<ScalarValue> values;
+
+    ConcordKeyValueStub(@Nullable StubElement<?> parent,
+                        @NotNull IStubElementType<?, ?> elementType,
+                        @NotNull String keyText,
+                        @NotNull ConcordStubKind kind,
+                        @NotNull List<ScalarValue> values) {
+        super(parent, elementType);
+        this.keyText = keyText;
+        this.kind = kind;
+        this.values = values;
+    }
+
+    public @NotNull String getKeyText() {
+        return keyText;
+    }
+
+    public @NotNull ConcordStubKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Scalar items of the sequence value. Empty unless {@link ConcordStubKind#storesValues()}.
+     */
+    public @NotNull List<ScalarValue> getValues() {
+        return values;
+    }
+
+    /**
+     * Returns the enclosing stubbed key, e.g. the profile of a profile's dependencies.
+     */
+    public @Nullable ConcordKeyValueStub getParentKeyStub() {
+        return getParentStub() instanceof ConcordKeyValueStub parent ? parent : null;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcordKeyValueStub{" + kind + ":" + keyText + '}';
+    }
+}
@@ -0,0 +1,37 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi.stub;
+
+import brig.concord.yaml.YAMLElementTypes;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.stubs.DefaultStubBuilder;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Walks only the top-level mapping skeleton of a Concord file.
+ * Flow bodies, scalars and sequences are never visited, so building stubs
+ * costs roughly the number of top-level keys rather than the file size.
+ */
+final class ConcordStubBuilder extends DefaultStubBuilder {
+
+    private static final TokenSet SKELETON = TokenSet.create(
+            YAMLElementTypes.DOCUMENT,
+            YAMLElementTypes.MAPPING,
+            YAMLElementTypes.HASH,
+            YAMLElementTypes.KEY_VALUE_PAIR
+    );
+
+    @Override
+    public boolean skipChildProcessingWhenBuildingStubs(@NotNull ASTNode parent, @NotNull ASTNode node) {
+        if (!SKELETON.contains(node.getElementType())) {
+            return true;
+        }
+
+        if (parent.getElementType() == YAMLElementTypes.KEY_VALUE_PAIR) {
+            var kind = ConcordStubKind.of(parent);
+            return kind == null || !kind.hasChildStubs();
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,155 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi.stub;
+
+import brig.concord.yaml.psi.YAMLDocument;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import brig.concord.yaml.psi.YAMLMapping;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Classifies key-value pairs that are stored in the Concord stub tree.
+ * <p>
+ * Only the skeleton needed by cross-file features is stubbed:
+ * <pre>
+ * configuration:                 SECTION
+ *   arguments:                   ARGUMENTS
+ *     name: ...                  ARGUMENT
+ *   dependencies: [...]          DEPENDENCIES
+ *   extraDependencies: [...]     DEPENDENCIES
+ * profiles:                      SECTION
+ *   name:                        PROFILE
+ *     configuration:             PROFILE_CONFIGURATION
+ *       dependencies: [...]      DEPENDENCIES
+ * resources:                     SECTION
+ *   concord: [...]               RESOURCES
+ * flows:                         SECTION
+ *   name: ...                    FLOW
+ * </pre>
+ * Every stubbed key has a stubbed parent key (or is top-level), so the stub builder
+ * never needs to descend below a key that is not stubbed itself.
+ */
+public enum ConcordStubKind {
+
+    SECTION(true, false),
+    FLOW(false, false),
+    ARGUMENTS(true, false),
+    ARGUMENT(false, false),
+    DEPENDENCIES(false, true),
+    PROFILE(true, false),
+    PROFILE_CONFIGURATION(true, false),
+    RESOURCES(false, true);
+
+    private static final int MAX_DEPTH = 4;
+
+    private static final Set<String> SECTIONS = Set.of("configuration", "flows", "profiles", "resources");
+
+    private static final ConcordStubKind[] VALUES = values();
+
+    private final boolean hasChildStubs;
+    private final boolean storesValues;
+
+    ConcordStubKind(boolean hasChildStubs, boolean storesValues) {
+        this.hasChildStubs = hasChildStubs;
+        this.storesValues = storesValues;
+    }
+
+    /**
+     * Whether keys nested under this key can be stubbed.
+     */
+    public boolean hasChildStubs() {
+        return hasChildStubs;
+    }
+
+    /**
+     * Whether the stub keeps the scalar items of the key's sequence value.
+     */
+    public boolean storesValues() {
+        return storesValues;
+    }
+
+    static @NotNull ConcordStubKind byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    static @Nullable ConcordStubKind of(@NotNull ASTNode node) {
+        var psi = node.getPsi();
+        return psi instanceof YAMLKeyValue kv ? of(kv) : null;
+    }
+
+    public static @Nullable ConcordStubKind of(@NotNull YAMLKeyValue kv) {
+        var path = keyPath(kv);
+        return path != null ? classify(path) : null;
+    }
+
+    /**
+     * Returns the keys from the top-level mapping down to the given key,
+     * or null if the key is nested deeper than any stubbed key.
+     */
+    private static @Nullable List<String> keyPath(@NotNull YAMLKeyValue kv) {
+        var path = new ArrayList<String>(MAX_DEPTH);
+        PsiElement current = kv;
+        while (current instanceof YAMLKeyValue keyValue) {
+            if (path.size() == MAX_DEPTH) {
+                return null;
+            }
+            path.add(keyValue.getKeyText());
+
+            var mapping = keyValue.getParent();
+            if (!(mapping instanceof YAMLMapping)) {
+                return null;
+            }
+
+            var parent = mapping.getParent();
+            if (parent instanceof YAMLDocument) {
+                Collections.reverse(path);
+                return path;
+            }
+            current = parent;
+        }
+        return null;
+    }
+
+    private static @Nullable ConcordStubKind classify(@NotNull List<String> path) {
+        var section = path.getFirst();
+        return switch (path.size()) {
+            case 1 -> SECTIONS.contains(section) ? SECTION : null;
+            case 2 -> switch (section) {
+                case "flows" -> FLOW;
+                case "profiles" -> PROFILE;
+                case "configuration" -> configurationKind(path.get(1), ARGUMENTS);
+                case "resources" -> "concord".equals(path.get(1)) ? RESOURCES : null;
+                default -> null;
+            };
+            case 3 -> {
+                if ("configuration".equals(section) && "arguments".equals(path.get(1))) {
+                    yield ARGUMENT;
+                }
+                if ("profiles".equals(section) && "configuration".equals(path.get(2))) {
+                    yield PROFILE_CONFIGURATION;
+                }
+                yield null;
+            }
+            case 4 -> "profiles".equals(section) && "configuration".equals(path.get(2))
+                    ? configurationKind(path.get(3), null)
+                    : null;
+            default -> null;
+        };
+    }
+
+    private static @Nullable ConcordStubKind configurationKind(@NotNull String key,
+                                                               @Nullable ConcordStubKind argumentsKind) {
+        return switch (key) {
+            case "dependencies", "extraDependencies" -> DEPENDENCIES;
+            case "arguments" -> argumentsKind;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,41 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.refactoring;
+
+import brig.concord.usages.VariableUsageFinder;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.search.SearchScope;
+import com.intellij.refactoring.rename.RenamePsiElementProcessor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Renames {@code set:}, {@code out:} and flow {@code in} variables together with their EL usages.
+ * Usages come from {@link brig.concord.usages.VariableUsagesIndex}; other {@code set:}/{@code out:}
+ * declarations of the same variable in the flow are renamed as well.
+ */
+public class VariableRenameProcessor extends RenamePsiElementProcessor {
+
+    @Override
+    public boolean canProcessElement(@NotNull PsiElement element) {
+        return VariableUsageFinder.getVariableName(element) != null;
+    }
+
+    @Override
+    public @NotNull Collection<PsiReference> findReferences(@NotNull PsiElement element,
+                                                            @NotNull SearchScope searchScope,
+                                                            boolean searchInCommentsAndStrings) {
+        return VariableUsageFinder.findReferences(element, searchScope);
+    }
+
+    @Override
+    public void prepareRenaming(@NotNull PsiElement element,
+                                @NotNull String newName,
+                                @NotNull Map<PsiElement, String> allRenames) {
+        for (var definition : VariableUsageFinder.findSiblingDefinitions(element)) {
+            allRenames.put(definition, newName);
+        }
+    }
+}
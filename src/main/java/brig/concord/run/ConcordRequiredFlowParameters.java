@@ -1,8 +1,8 @@
 // SPDX-License-Identifier: Apache-2.0
 package brig.concord.run;
 
-import brig.concord.completion.provider.FlowCallParamsProvider;
 import brig.concord.psi.ConcordFile;
+import brig.concord.psi.ProcessDefinition;
 import brig.concord.psi.ProcessDefinitionProvider;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.ReadAction;
@@ -95,7 +95,7 @@ public final class ConcordRequiredFlowParameters {
             return List.of();
         }
 
-        var flowDoc = FlowCallParamsProvider.findFlowDocumentationBefore(flowDefinition);
+        var flowDoc = ProcessDefinition.findFlowDocumentationBefore(flowDefinition);
         if (flowDoc == null) {
             return List.of();
         }
@@ -4,6 +4,7 @@ package brig.concord.schema;
 import brig.concord.ConcordType;
 import brig.concord.ConcordTypes;
 import brig.concord.psi.FlowDocParameter;
+import brig.concord.psi.FlowSignature;
 import brig.concord.psi.YamlPsiUtils;
 import brig.concord.yaml.YAMLUtil;
 import brig.concord.yaml.psi.*;
@@ -22,9 +23,18 @@ public final class SchemaInference {
         return new SchemaProperty(param.getName(), schemaType, param.getDescription(), param.isMandatory());
     }
 
+    public static @NotNull SchemaProperty fromSignatureParameter(@NotNull FlowSignature.Param param) {
+        var schemaType = fromDocumentedType(param.baseType(), param.arrayType());
+        return new SchemaProperty(param.name(), schemaType, param.description(), param.mandatory());
+    }
+
     public static @NotNull SchemaType fromFlowDocParameterType(@NotNull FlowDocParameter param) {
-        var concordType = ConcordTypes.resolve(param.getBaseType(), ConcordType.YamlBaseType.ANY);
-        if (param.isArrayType()) {
+        return fromDocumentedType(param.getBaseType(), param.isArrayType());
+    }
+
+    private static @NotNull SchemaType fromDocumentedType(@NotNull String baseType, boolean arrayType) {
+        var concordType = ConcordTypes.resolve(baseType, ConcordType.YamlBaseType.ANY);
+        if (arrayType) {
             return new SchemaType.Array(concordType);
         }
         if (concordType == ConcordType.WellKnown.ANY) {
@@ -10,10 +10,13 @@ import brig.concord.yaml.meta.model.YamlMetaType;
 import brig.concord.yaml.psi.YAMLMapping;
 import brig.concord.yaml.psi.YAMLScalar;
 import com.intellij.psi.PsiElement;
+import com.intellij.util.containers.CollectionFactory;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static brig.concord.yaml.meta.model.TypeProps.descKey;
 
@@ -21,6 +24,10 @@ public class TaskInParamsMetaType extends YamlAnyOfType implements DynamicMetaTy
 
     private static final TaskInParamsMetaType INSTANCE = new TaskInParamsMetaType();
 
+    // one resolved type per schema and matched conditionals, so that resolved fields are shared between steps
+    private static final ConcurrentMap<TaskSchema, ConcurrentMap<BitSet, TaskInParamsMetaType>> RESOLVED =
+            CollectionFactory.createConcurrentWeakIdentityMap();
+
     public static TaskInParamsMetaType getInstance() {
         return INSTANCE;
     }
@@ -41,12 +48,10 @@ public class TaskInParamsMetaType extends YamlAnyOfType implements DynamicMetaTy
             return INSTANCE;
         }
 
-        var currentValues = readCurrentValues(element);
-        var section = schema.resolveInSection(currentValues);
-        var discriminatorKeys = schema.getDiscriminatorKeys();
-        var metaType = new TaskSchemaMetaType(section, discriminatorKeys);
-
-        return new TaskInParamsMetaType(metaType);
+        var conditionals = schema.matchingInConditionals(readCurrentValues(element));
+        return RESOLVED.computeIfAbsent(schema, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(conditionals, c -> new TaskInParamsMetaType(
+                        new TaskSchemaMetaType(schema.resolveInSection(c), schema.getDiscriminatorKeys())));
     }
 
     static @Nullable TaskSchema findTaskSchema(@Nullable PsiElement element) {
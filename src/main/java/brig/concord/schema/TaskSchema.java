@@ -50,10 +50,28 @@ public record TaskSchema(@NotNull String taskName, @Nullable String description,
     }
 
     public @NotNull ObjectSchema resolveInSection(@NotNull Map<String, String> currentValues) {
+        return resolveInSection(matchingInConditionals(currentValues));
+    }
+
+    /**
+     * Merges the base {@code in} section with the conditionals at the given indexes.
+     */
+    public @NotNull ObjectSchema resolveInSection(@NotNull BitSet conditionals) {
         var result = baseInSection;
-        for (var conditional : inConditionals) {
+        for (var i = conditionals.nextSetBit(0); i >= 0; i = conditionals.nextSetBit(i + 1)) {
+            result = result.merge(inConditionals.get(i).thenSection());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the indexes of the {@code in} conditionals whose discriminators all match the current values.
+     */
+    public @NotNull BitSet matchingInConditionals(@NotNull Map<String, String> currentValues) {
+        var result = new BitSet(inConditionals.size());
+        for (var i = 0; i < inConditionals.size(); i++) {
             var allMatch = true;
-            for (var entry : conditional.discriminators().entrySet()) {
+            for (var entry : inConditionals.get(i).discriminators().entrySet()) {
                 var currentValue = currentValues.get(entry.getKey());
                 if (currentValue == null || !entry.getValue().contains(currentValue)) {
                     allMatch = false;
@@ -61,7 +79,7 @@ public record TaskSchema(@NotNull String taskName, @Nullable String description,
                 }
             }
             if (allMatch) {
-                result = result.merge(conditional.thenSection());
+                result.set(i);
             }
         }
         return result;
@@ -0,0 +1,72 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.usages;
+
+import brig.concord.el.psi.ElIdentifierExpr;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import com.intellij.openapi.actionSystem.ex.ActionUtil;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds usages of a task via {@link TaskUsagesIndex}.
+ */
+public final class TaskUsageFinder {
+
+    private TaskUsageFinder() {
+    }
+
+    /**
+     * @param element    the {@code task} key-value of a step, or the EL identifier of a method call
+     * @param expression whether the usage is an EL method call
+     * @param hasOut     whether the task step declares {@code out:}
+     */
+    public record TaskUsage(@NotNull PsiElement element, boolean expression, boolean hasOut) {
+    }
+
+    /**
+     * Find all usages of the given task in the scope.
+     */
+    public static @NotNull List<TaskUsage> findUsages(@NotNull Project project,
+                                                      @NotNull String taskName,
+                                                      @NotNull GlobalSearchScope scope) {
+        if (ActionUtil.isDumbMode(project)) {
+            return List.of();
+        }
+
+        var psiManager = PsiManager.getInstance(project);
+        List<TaskUsage> result = new ArrayList<>();
+
+        FileBasedIndex.getInstance().processValues(TaskUsagesIndex.KEY, taskName, null, (file, usages) -> {
+            var psiFile = psiManager.findFile(file);
+            if (psiFile == null) {
+                return true;
+            }
+
+            for (var usage : usages) {
+                var element = findElementAt(psiFile, usage.offset());
+                if (element != null) {
+                    result.add(new TaskUsage(element, usage.expression(), usage.hasOut()));
+                }
+            }
+            return true;
+        }, scope);
+
+        return result;
+    }
+
+    private static @Nullable PsiElement findElementAt(@NotNull PsiFile file, int offset) {
+        var leaf = file.findElementAt(offset);
+        var element = PsiTreeUtil.getNonStrictParentOfType(leaf, YAMLKeyValue.class, ElIdentifierExpr.class);
+        return element != null && element.getTextOffset() == offset ? element : null;
+    }
+}
@@ -0,0 +1,67 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.usages;
+
+import brig.concord.meta.model.TaskStepMetaType;
+import brig.concord.psi.ConcordFile;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import brig.concord.yaml.psi.YAMLScalar;
+import com.intellij.find.findUsages.CustomUsageSearcher;
+import com.intellij.find.findUsages.FindUsagesOptions;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.usageView.UsageInfo;
+import com.intellij.usages.Usage;
+import com.intellij.usages.UsageInfo2UsageAdapter;
+import com.intellij.util.Processor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Find usages of a task from the task name of a {@code task:} step.
+ * Usages come from {@link TaskUsagesIndex}.
+ */
+public class TaskUsageSearcher extends CustomUsageSearcher {
+
+    private static final String TASK_KEY = TaskStepMetaType.getInstance().getIdentity();
+
+    @Override
+    public void processElementUsages(@NotNull PsiElement element,
+                                     @NotNull Processor<? super Usage> processor,
+                                     @NotNull FindUsagesOptions options) {
+        var usages = ReadAction.compute(() -> {
+            var taskName = getTaskName(element);
+            if (taskName == null || !(options.searchScope instanceof GlobalSearchScope scope)) {
+                return null;
+            }
+            return TaskUsageFinder.findUsages(element.getProject(), taskName, scope);
+        });
+        if (usages == null) {
+            return;
+        }
+
+        for (var usage : usages) {
+            var usageInfo = ReadAction.compute(() -> {
+                var target = usage.element() instanceof YAMLKeyValue kv && kv.getValue() != null
+                        ? kv.getValue()
+                        : usage.element();
+                return target.isEquivalentTo(element) ? null : new UsageInfo(target);
+            });
+            if (usageInfo != null && !processor.process(new UsageInfo2UsageAdapter(usageInfo))) {
+                return;
+            }
+        }
+    }
+
+    private static @Nullable String getTaskName(@NotNull PsiElement element) {
+        if (!(element.getContainingFile() instanceof ConcordFile)
+                || !(element instanceof YAMLScalar scalar)
+                || !(scalar.getParent() instanceof YAMLKeyValue kv)
+                || !TASK_KEY.equals(kv.getKeyText())) {
+            return null;
+        }
+
+        var taskName = scalar.getTextValue().trim();
+        return taskName.isEmpty() ? null : taskName;
+    }
+}
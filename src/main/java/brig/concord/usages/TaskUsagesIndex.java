@@ -0,0 +1,172 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.usages;
+
+import brig.concord.ConcordFileType;
+import brig.concord.el.psi.ElAccessExpr;
+import brig.concord.el.psi.ElDotSuffix;
+import brig.concord.el.psi.ElIdentifierExpr;
+import brig.concord.meta.model.TaskStepMetaType;
+import brig.concord.psi.ConcordFile;
+import brig.concord.psi.YamlPsiUtils;
+import brig.concord.yaml.psi.*;
+import com.intellij.psi.PsiElement;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+import static brig.concord.psi.ProcessDefinition.findEnclosingFlowDefinition;
+
+/**
+ * Maps a task name to its usages in a file:
+ * <ul>
+ *     <li>{@code task: name} steps, with the offset of the {@code task} key and whether the step has {@code out:};</li>
+ *     <li>EL method calls {@code ${name.method(...)}}, with the offset of the identifier.</li>
+ * </ul>
+ * EL calls are indexed by the base identifier, so the keys also contain variable names.
+ * Callers are expected to query by known task names.
+ */
+public final class TaskUsagesIndex extends FileBasedIndexExtension<String, List<TaskUsagesIndex.TaskUsageOffset>> {
+
+    @NonNls
+    public static final ID<String, List<TaskUsageOffset>> KEY = ID.create("concord.yaml.task.usages");
+
+    private static final String TASK_KEY = TaskStepMetaType.getInstance().getIdentity();
+    private static final String OUT_KEY = "out";
+
+    /**
+     * @param offset     text offset of the {@code task} key or of the EL identifier
+     * @param expression whether the usage is an EL method call
+     * @param hasOut     whether the task step declares {@code out:}, always false for EL calls
+     */
+    public record TaskUsageOffset(int offset, boolean expression, boolean hasOut) {
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<TaskUsageOffset>, FileContent> getIndexer() {
+        return inputData -> {
+            if (!(inputData.getPsiFile() instanceof ConcordFile)) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, List<TaskUsageOffset>> map = new HashMap<>();
+            inputData.getPsiFile().accept(new YamlRecursivePsiElementVisitor() {
+                @Override
+                public void visitKeyValue(@NotNull YAMLKeyValue keyValue) {
+                    if (isTaskStep(keyValue) && keyValue.getValue() instanceof YAMLScalar scalar
+                            && !YamlPsiUtils.isDynamicExpression(scalar)) {
+                        var taskName = scalar.getTextValue().trim();
+                        if (!taskName.isEmpty()) {
+                            var hasOut = keyValue.getParentMapping().getKeyValueByKey(OUT_KEY) != null;
+                            add(map, taskName, new TaskUsageOffset(keyValue.getTextOffset(), false, hasOut));
+                        }
+                    }
+                    super.visitKeyValue(keyValue);
+                }
+
+                @Override
+                public void visitElement(@NotNull PsiElement element) {
+                    if (element instanceof ElAccessExpr access) {
+                        visitAccess(access);
+                    }
+                    super.visitElement(element);
+                }
+
+                private void visitAccess(@NotNull ElAccessExpr access) {
+                    if (!(access.getExpression() instanceof ElIdentifierExpr identExpr)) {
+                        return;
+                    }
+
+                    var suffixes = access.getSuffixList();
+                    if (suffixes.isEmpty()
+                            || !(suffixes.getFirst() instanceof ElDotSuffix ds)
+                            || ds.getMemberName() == null
+                            || ds.getArgList() == null) {
+                        return;
+                    }
+
+                    var name = identExpr.getIdentifier().getText();
+                    add(map, name, new TaskUsageOffset(identExpr.getTextOffset(), true, false));
+                }
+            });
+            return map;
+        };
+    }
+
+    private static void add(@NotNull Map<String, List<TaskUsageOffset>> map,
+                            @NotNull String taskName,
+                            @NotNull TaskUsageOffset usage) {
+        map.computeIfAbsent(taskName, k -> new ArrayList<>(1)).add(usage);
+    }
+
+    private static boolean isTaskStep(@NotNull YAMLKeyValue keyValue) {
+        return TASK_KEY.equals(keyValue.getKeyText())
+                && keyValue.getParentMapping() != null
+                && keyValue.getParentMapping().getParent() instanceof YAMLSequenceItem
+                && findEnclosingFlowDefinition(keyValue) != null;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<TaskUsageOffset>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<TaskUsageOffset> value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.size());
+                for (var usage : value) {
+                    // offset and both flags packed into a single varint
+                    var flags = (usage.expression() ? 2 : 0) | (usage.hasOut() ? 1 : 0);
+                    DataInputOutputUtil.writeINT(out, (usage.offset() << 2) | flags);
+                }
+            }
+
+            @Override
+            public List<TaskUsageOffset> read(@NotNull DataInput in) throws IOException {
+                var size = DataInputOutputUtil.readINT(in);
+                var result = new ArrayList<TaskUsageOffset>(size);
+                for (int i = 0; i < size; i++) {
+                    var packed = DataInputOutputUtil.readINT(in);
+                    result.add(new TaskUsageOffset(packed >>> 2, (packed & 2) != 0, (packed & 1) != 0));
+                }
+                return result;
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public ID<String, List<TaskUsageOffset>> getName() {
+        return KEY;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(ConcordFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
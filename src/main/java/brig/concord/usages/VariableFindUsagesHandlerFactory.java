@@ -0,0 +1,43 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.usages;
+
+import com.intellij.find.findUsages.FindUsagesHandler;
+import com.intellij.find.findUsages.FindUsagesHandlerFactory;
+import com.intellij.find.findUsages.FindUsagesOptions;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.PsiElement;
+import com.intellij.usageView.UsageInfo;
+import com.intellij.util.Processor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Find usages of {@code set:}, {@code out:} and flow {@code in} variables.
+ * Usages come from {@link VariableUsagesIndex} instead of a text search over the scope.
+ */
+public class VariableFindUsagesHandlerFactory extends FindUsagesHandlerFactory {
+
+    @Override
+    public boolean canFindUsages(@NotNull PsiElement element) {
+        return VariableUsageFinder.getVariableName(element) != null;
+    }
+
+    @Override
+    public @Nullable FindUsagesHandler createFindUsagesHandler(@NotNull PsiElement element, boolean forHighlightUsages) {
+        return new FindUsagesHandler(element) {
+            @Override
+            public boolean processElementUsages(@NotNull PsiElement element,
+                                                @NotNull Processor<? super UsageInfo> processor,
+                                                @NotNull FindUsagesOptions options) {
+                var references = ReadAction.compute(() -> VariableUsageFinder.findReferences(element, options.searchScope));
+                for (var reference : references) {
+                    var usageInfo = ReadAction.compute(() -> new UsageInfo(reference));
+                    if (!processor.process(usageInfo)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,198 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.usages;
+
+import brig.concord.el.psi.ElIdentifierExpr;
+import brig.concord.psi.ConcordFile;
+import brig.concord.psi.ConcordScopeService;
+import brig.concord.psi.FlowDocParameter;
+import brig.concord.psi.ProcessDefinition;
+import brig.concord.yaml.psi.*;
+import com.intellij.openapi.actionSystem.ex.ActionUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.LocalSearchScope;
+import com.intellij.psi.search.PsiSearchScopeUtil;
+import com.intellij.psi.search.SearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+import static brig.concord.usages.VariableUsagesIndex.Kind;
+
+/**
+ * Finds usages and definitions of {@code set:}, {@code out:} and flow {@code in} variables via {@link VariableUsagesIndex}.
+ * Only the files that mention the variable name are loaded, and only the indexed occurrences are resolved.
+ */
+public final class VariableUsageFinder {
+
+    private VariableUsageFinder() {
+    }
+
+    /**
+     * Returns the name of the variable declared by the element, or null if the element is not a variable declaration:
+     * a {@code set:} key, an {@code out:} variable or a flow documentation {@code in} parameter.
+     * Dotted {@code set:} keys are not considered declarations, renaming them would drop the nested path.
+     */
+    public static @Nullable String getVariableName(@NotNull PsiElement element) {
+        if (!(element.getContainingFile() instanceof ConcordFile)) {
+            return null;
+        }
+
+        return switch (element) {
+            case FlowDocParameter param -> param.isInputParameter() ? nonEmpty(param.getName()) : null;
+            case YAMLKeyValue kv -> {
+                var stepKv = stepKeyOf(kv.getParentMapping());
+                if (stepKv == null) {
+                    yield null;
+                }
+                var name = kv.getKeyText().trim();
+                yield switch (stepKv.getKeyText()) {
+                    case "set" -> name.equals(VariableUsagesIndex.setVariableName(name)) ? nonEmpty(name) : null;
+                    case "out" -> nonEmpty(name);
+                    default -> null;
+                };
+            }
+            case YAMLScalar scalar -> {
+                var parent = scalar.getParent() instanceof YAMLSequenceItem item && item.getParent() instanceof YAMLSequence seq
+                        ? seq.getParent()
+                        : scalar.getParent();
+                yield parent instanceof YAMLKeyValue outKv && isOutStepKey(outKv) ? nonEmpty(scalar.getTextValue()) : null;
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Finds EL references to the declaration within the given scope, limited to the Concord scope of the declaration.
+     */
+    public static @NotNull List<PsiReference> findReferences(@NotNull PsiElement declaration, @NotNull SearchScope searchScope) {
+        var name = getVariableName(declaration);
+        if (name == null) {
+            return List.of();
+        }
+
+        List<PsiReference> result = new ArrayList<>();
+        processOccurrences(declaration, name, searchScope, EnumSet.of(Kind.EXPRESSION), (file, element) -> {
+            if (element instanceof ElIdentifierExpr identExpr) {
+                var reference = identExpr.getReference();
+                if (reference != null && reference.isReferenceTo(declaration)) {
+                    result.add(reference);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Finds the other {@code set:}/{@code out:} declarations of the same variable in the flow of the given declaration.
+     */
+    public static @NotNull List<PsiElement> findSiblingDefinitions(@NotNull PsiElement declaration) {
+        var name = getVariableName(declaration);
+        var flow = ProcessDefinition.findEnclosingFlowDefinition(declaration);
+        if (name == null || flow == null) {
+            return List.of();
+        }
+
+        List<PsiElement> result = new ArrayList<>();
+        var scope = new LocalSearchScope(declaration.getContainingFile());
+        processOccurrences(declaration, name, scope, EnumSet.of(Kind.SET, Kind.OUT), (file, element) -> {
+            if (!element.equals(declaration) && PsiTreeUtil.isAncestor(flow, element, true)) {
+                result.add(element);
+            }
+        });
+        return result;
+    }
+
+    private interface OccurrenceConsumer {
+        void accept(@NotNull PsiFile file, @NotNull PsiElement element);
+    }
+
+    private static void processOccurrences(@NotNull PsiElement context,
+                                           @NotNull String name,
+                                           @NotNull SearchScope searchScope,
+                                           @NotNull Set<Kind> kinds,
+                                           @NotNull OccurrenceConsumer consumer) {
+        var project = context.getProject();
+        if (ActionUtil.isDumbMode(project)) {
+            return;
+        }
+
+        var scope = ConcordScopeService.getInstance(project).createSearchScope(context).intersectWith(toGlobal(context, searchScope));
+
+        Map<VirtualFile, List<VariableUsagesIndex.Occurrence>> byFile = new LinkedHashMap<>();
+        FileBasedIndex.getInstance().processValues(VariableUsagesIndex.KEY, name, null, (file, occurrences) -> {
+            for (var occurrence : occurrences) {
+                if (kinds.contains(occurrence.kind())) {
+                    byFile.computeIfAbsent(file, f -> new ArrayList<>()).add(occurrence);
+                }
+            }
+            return true;
+        }, scope);
+
+        var psiManager = PsiManager.getInstance(project);
+        for (var entry : byFile.entrySet()) {
+            var psiFile = psiManager.findFile(entry.getKey());
+            if (psiFile == null) {
+                continue;
+            }
+
+            for (var occurrence : entry.getValue()) {
+                var element = findElementAt(psiFile, occurrence);
+                if (element != null && (searchScope instanceof GlobalSearchScope || PsiSearchScopeUtil.isInScope(searchScope, element))) {
+                    consumer.accept(psiFile, element);
+                }
+            }
+        }
+    }
+
+    private static @NotNull GlobalSearchScope toGlobal(@NotNull PsiElement context, @NotNull SearchScope searchScope) {
+        if (searchScope instanceof GlobalSearchScope global) {
+            return global;
+        }
+
+        var files = new ArrayList<VirtualFile>();
+        if (searchScope instanceof LocalSearchScope local) {
+            for (var element : local.getScope()) {
+                var file = element.getContainingFile();
+                if (file != null && file.getVirtualFile() != null) {
+                    files.add(file.getVirtualFile());
+                }
+            }
+        }
+        return GlobalSearchScope.filesScope(context.getProject(), files);
+    }
+
+    private static @Nullable PsiElement findElementAt(@NotNull PsiFile file, @NotNull VariableUsagesIndex.Occurrence occurrence) {
+        var leaf = file.findElementAt(occurrence.offset());
+        PsiElement element = switch (occurrence.kind()) {
+            case EXPRESSION -> PsiTreeUtil.getNonStrictParentOfType(leaf, ElIdentifierExpr.class);
+            case SET -> PsiTreeUtil.getNonStrictParentOfType(leaf, YAMLKeyValue.class);
+            case OUT -> PsiTreeUtil.getNonStrictParentOfType(leaf, YAMLScalar.class, YAMLKeyValue.class);
+            case FLOW_IN -> PsiTreeUtil.getNonStrictParentOfType(leaf, FlowDocParameter.class);
+        };
+        return element != null && element.getTextOffset() == occurrence.offset() ? element : null;
+    }
+
+    private static @Nullable YAMLKeyValue stepKeyOf(@Nullable YAMLMapping mapping) {
+        return mapping != null && mapping.getParent() instanceof YAMLKeyValue kv && VariableUsagesIndex.isStepKey(kv) ? kv : null;
+    }
+
+    private static boolean isOutStepKey(@NotNull YAMLKeyValue kv) {
+        return "out".equals(kv.getKeyText()) && VariableUsagesIndex.isStepKey(kv);
+    }
+
+    private static @Nullable String nonEmpty(@Nullable String name) {
+        if (name == null) {
+            return null;
+        }
+        var trimmed = name.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
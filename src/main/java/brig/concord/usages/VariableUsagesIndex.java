@@ -0,0 +1,209 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.usages;
+
+import brig.concord.ConcordFileType;
+import brig.concord.el.psi.ElIdentifierExpr;
+import brig.concord.psi.ConcordFile;
+import brig.concord.psi.ProcessDefinition;
+import brig.concord.yaml.psi.*;
+import com.intellij.psi.PsiElement;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Maps a variable name to its occurrences in a file:
+ * <ul>
+ *     <li>identifiers in {@code ${...}} expressions;</li>
+ *     <li>{@code set:} step keys (the first segment of a dotted key);</li>
+ *     <li>{@code out:} step variables;</li>
+ *     <li>flow {@code in} parameters of the {@code ##} documentation block.</li>
+ * </ul>
+ * Expression identifiers are indexed by name only, whether they resolve to a declaration is up to the caller.
+ */
+public final class VariableUsagesIndex extends FileBasedIndexExtension<String, List<VariableUsagesIndex.Occurrence>> {
+
+    @NonNls
+    public static final ID<String, List<Occurrence>> KEY = ID.create("concord.yaml.variable.usages");
+
+    public enum Kind {
+        EXPRESSION, SET, OUT, FLOW_IN;
+
+        private static final Kind[] VALUES = values();
+    }
+
+    /**
+     * @param offset text offset of the EL identifier, the declaring key-value, scalar or flow doc parameter
+     * @param kind   kind of the occurrence
+     */
+    public record Occurrence(int offset, @NotNull Kind kind) {
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<Occurrence>, FileContent> getIndexer() {
+        return inputData -> {
+            if (!(inputData.getPsiFile() instanceof ConcordFile)) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, List<Occurrence>> map = new HashMap<>();
+            inputData.getPsiFile().accept(new YamlRecursivePsiElementVisitor() {
+                @Override
+                public void visitKeyValue(@NotNull YAMLKeyValue keyValue) {
+                    if (ProcessDefinition.isFlowDefinition(keyValue)) {
+                        visitFlowDefinition(keyValue);
+                    } else if (isStepKey(keyValue)) {
+                        switch (keyValue.getKeyText()) {
+                            case "set" -> visitSet(keyValue.getValue());
+                            case "out" -> visitOut(keyValue.getValue());
+                            default -> {
+                            }
+                        }
+                    }
+                    super.visitKeyValue(keyValue);
+                }
+
+                @Override
+                public void visitElement(@NotNull PsiElement element) {
+                    if (element instanceof ElIdentifierExpr identExpr) {
+                        add(map, identExpr.getIdentifier().getText(), identExpr, Kind.EXPRESSION);
+                    }
+                    super.visitElement(element);
+                }
+
+                private void visitFlowDefinition(@NotNull YAMLKeyValue flowKv) {
+                    var doc = ProcessDefinition.findFlowDocumentationBefore(flowKv);
+                    if (doc != null) {
+                        doc.getInputParameters().forEach(p -> add(map, p.getName(), p, Kind.FLOW_IN));
+                    }
+                }
+
+                private void visitSet(@Nullable YAMLValue value) {
+                    if (value instanceof YAMLMapping mapping) {
+                        for (var kv : mapping.getKeyValues()) {
+                            add(map, setVariableName(kv.getKeyText()), kv, Kind.SET);
+                        }
+                    }
+                }
+
+                private void visitOut(@Nullable YAMLValue value) {
+                    switch (value) {
+                        case YAMLScalar scalar -> add(map, scalar.getTextValue(), scalar, Kind.OUT);
+                        case YAMLSequence sequence -> {
+                            for (var item : sequence.getItems()) {
+                                if (item.getValue() instanceof YAMLScalar scalar) {
+                                    add(map, scalar.getTextValue(), scalar, Kind.OUT);
+                                }
+                            }
+                        }
+                        case YAMLMapping mapping -> {
+                            for (var kv : mapping.getKeyValues()) {
+                                add(map, kv.getKeyText(), kv, Kind.OUT);
+                            }
+                        }
+                        case null, default -> {
+                        }
+                    }
+                }
+            });
+            return map;
+        };
+    }
+
+    /**
+     * Returns the variable a {@code set:} key declares: {@code a.b.c} declares {@code a}.
+     */
+    static @NotNull String setVariableName(@NotNull String key) {
+        var name = key.trim();
+        var dot = name.indexOf('.');
+        if (dot <= 0 || name.endsWith(".") || name.contains("..")) {
+            return name;
+        }
+        return name.substring(0, dot);
+    }
+
+    /**
+     * Whether the key-value is a key of a step, i.e. of a mapping in a sequence within a flow.
+     */
+    static boolean isStepKey(@NotNull YAMLKeyValue keyValue) {
+        var mapping = keyValue.getParentMapping();
+        return mapping != null
+                && mapping.getParent() instanceof YAMLSequenceItem
+                && ProcessDefinition.findEnclosingFlowDefinition(mapping) != null;
+    }
+
+    private static void add(@NotNull Map<String, List<Occurrence>> map,
+                            @NotNull String name,
+                            @NotNull PsiElement element,
+                            @NotNull Kind kind) {
+        var trimmed = name.trim();
+        if (!trimmed.isEmpty()) {
+            map.computeIfAbsent(trimmed, k -> new ArrayList<>(1)).add(new Occurrence(element.getTextOffset(), kind));
+        }
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<Occurrence>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<Occurrence> value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.size());
+                for (var occurrence : value) {
+                    // offset and kind packed into a single varint
+                    DataInputOutputUtil.writeINT(out, (occurrence.offset() << 2) | occurrence.kind().ordinal());
+                }
+            }
+
+            @Override
+            public List<Occurrence> read(@NotNull DataInput in) throws IOException {
+                var size = DataInputOutputUtil.readINT(in);
+                var result = new ArrayList<Occurrence>(size);
+                for (int i = 0; i < size; i++) {
+                    var packed = DataInputOutputUtil.readINT(in);
+                    result.add(new Occurrence(packed >>> 2, Kind.VALUES[packed & 3]));
+                }
+                return result;
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public ID<String, List<Occurrence>> getName() {
+        return KEY;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(ConcordFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
@@ -3,13 +3,14 @@ package brig.concord.yaml;
 import brig.concord.lexer.FlowDocElementTypes;
 import brig.concord.lexer.FlowDocTokenTypes;
 import brig.concord.parser.ConcordYAMLParserDefinition;
+import brig.concord.psi.stub.ConcordKeyValueElementType;
 import com.intellij.psi.TokenType;
 import com.intellij.psi.tree.TokenSet;
 
 public interface YAMLElementTypes {
     YAMLElementType DOCUMENT = new YAMLElementType("Document ---");
 
-    YAMLElementType KEY_VALUE_PAIR = new YAMLElementType("Key value pair");
+    ConcordKeyValueElementType KEY_VALUE_PAIR = new ConcordKeyValueElementType("Key value pair");
     //YAMLElementType VALUE = new YAMLElementType("Value");
     YAMLElementType HASH = new YAMLElementType("Hash");
     YAMLElementType ARRAY = new YAMLElementType("Array");
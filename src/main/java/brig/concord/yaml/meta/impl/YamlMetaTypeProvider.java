@@ -7,6 +7,7 @@ import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.ModificationTracker;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
 import com.intellij.psi.util.CachedValue;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
@@ -22,6 +23,9 @@ import brig.concord.yaml.meta.model.YamlArrayType;
 import brig.concord.yaml.meta.model.YamlMetaType;
 import brig.concord.yaml.psi.*;
 
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public class YamlMetaTypeProvider {
@@ -29,6 +33,7 @@ public class YamlMetaTypeProvider {
     private static final Logger LOG = Logger.getInstance(YamlMetaTypeProvider.class);
 
     private final Key<CachedValue<MetaTypeProxy>> myKey;
+    private final Key<CachedValue<MetaTypeTable>> myTableKey;
 
     private final @NotNull ModelAccess myMetaModel;
     private final @NotNull ModificationTracker myModificationTracker;
@@ -36,10 +41,19 @@ public class YamlMetaTypeProvider {
     public YamlMetaTypeProvider(final @NotNull ModelAccess metaModel, final @NotNull ModificationTracker modificationTracker) {
         myMetaModel = metaModel;
         myKey = Key.create(metaModel.getClass().getName() + ":KEY");
+        myTableKey = Key.create(metaModel.getClass().getName() + ":TABLE");
         myModificationTracker = modificationTracker;
     }
 
     public @Nullable MetaTypeProxy getMetaTypeProxy(@NotNull PsiElement psi) {
+        MetaTypeProxy base = getBaseMetaTypeProxy(psi);
+        return base == null ? null : resolveMetaTypeProxy(base, psi);
+    }
+
+    /**
+     * The type of the element as declared by the model, without {@link #resolveMetaTypeProxy} applied to it.
+     */
+    public @Nullable MetaTypeProxy getBaseMetaTypeProxy(@NotNull PsiElement psi) {
         if (psi instanceof YAMLValue) {
             return getValueMetaType((YAMLValue)psi);
         }
@@ -47,6 +61,14 @@ public class YamlMetaTypeProvider {
         return metaOwner == null ? null : getValueMetaType(metaOwner);
     }
 
+    /**
+     * Refines the declared type of the element, e.g. for types that depend on the element's content.
+     * The refined type of a mapping or sequence is also used to type its children.
+     */
+    protected @NotNull MetaTypeProxy resolveMetaTypeProxy(@NotNull MetaTypeProxy proxy, @NotNull PsiElement psi) {
+        return proxy;
+    }
+
     public @Nullable YAMLValue getMetaOwner(@NotNull PsiElement psi) {
         PsiFile file = psi.getContainingFile();
         if (!(file instanceof YAMLFile)) {
@@ -59,21 +81,70 @@ public class YamlMetaTypeProvider {
         if (keyValue.getValue() != null) {
             return getMetaTypeProxy(keyValue.getValue());
         }
-        Field type = computeMetaType(keyValue);
+        Field type = computeMetaType(keyValue, this::getMetaTypeProxy);
         return FieldAndRelation.forNullable(type, Field.Relation.OBJECT_CONTENTS);
     }
 
     public @Nullable MetaTypeProxy getValueMetaType(@NotNull YAMLValue typedValue) {
+        PsiFile file = typedValue.getContainingFile();
+        if (file != null) {
+            MetaTypeTable table = CachedValuesManager.getCachedValue(file, myTableKey, () ->
+                    new CachedValueProvider.Result<>(computeTable(file), file, myModificationTracker));
+            if (table.contains(typedValue)) {
+                return table.get(typedValue);
+            }
+        }
+
+        // Not reached by the whole-file pass
         return CachedValuesManager.getCachedValue(typedValue, myKey, () -> {
             debug(() -> " >> computing type for : " + YamlDebugUtil.getDebugInfo(typedValue));
-            MetaTypeProxy computed = computeMetaType(typedValue);
+            MetaTypeProxy computed = computeMetaType(typedValue, this::getMetaTypeProxy);
             debug(() -> " << finished for : " + YamlDebugUtil.getDebugInfo(typedValue) +
                     ", result: " + (computed == null ? "<null>" : computed));
             return new CachedValueProvider.Result<>(computed, typedValue.getContainingFile(), myModificationTracker);
         });
     }
 
-    private @Nullable MetaTypeProxy computeMetaType(@NotNull YAMLValue value) {
+    /**
+     * Types every value of the file in one top-down pass: a value is typed from its parent,
+     * which the pass has typed and resolved before.
+     */
+    private @NotNull MetaTypeTable computeTable(@NotNull PsiFile file) {
+        MetaTypeTable table = new MetaTypeTable();
+        Reference2ObjectOpenHashMap<YAMLValue, MetaTypeProxy> resolved = new Reference2ObjectOpenHashMap<>();
+        Function<YAMLValue, MetaTypeProxy> resolvedParent = parent -> {
+            if (resolved.containsKey(parent)) {
+                return resolved.get(parent);
+            }
+            MetaTypeProxy base = table.get(parent);
+            MetaTypeProxy result = base == null ? null : resolveMetaTypeProxy(base, parent);
+            resolved.put(parent, result);
+            return result;
+        };
+
+        file.accept(new PsiRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitElement(@NotNull PsiElement element) {
+                if (element instanceof YAMLValue value) {
+                    table.put(value, computeMetaType(value, resolvedParent));
+                    if (value instanceof YAMLScalar || value instanceof YAMLAlias) {
+                        // Values only nest through mappings and sequences; not descending also keeps
+                        // the lazily parsed EL expressions inside scalars unparsed
+                        return;
+                    }
+                }
+                super.visitElement(element);
+            }
+        });
+        debug(() -> "computed types for " + table.size() + " values of " + file.getName());
+        return table;
+    }
+
+    /**
+     * @param resolvedParent the resolved type of the parent mapping or sequence
+     */
+    private @Nullable MetaTypeProxy computeMetaType(@NotNull YAMLValue value,
+                                                    @NotNull Function<YAMLValue, MetaTypeProxy> resolvedParent) {
         PsiElement typed = PsiTreeUtil.getParentOfType(value, YAMLKeyValue.class, YAMLSequenceItem.class, YAMLDocument.class);
         if (typed instanceof YAMLDocument) {
             Field root = myMetaModel.getRoot((YAMLDocument)typed);
@@ -85,12 +156,12 @@ public class YamlMetaTypeProvider {
                 debug(() -> "Unexpected: sequenceItem parent is not a sequence: " + sequenceItem.getParent());
                 return null;
             }
-            MetaTypeProxy sequenceMeta = getMetaTypeProxy(sequence);
+            MetaTypeProxy sequenceMeta = resolvedParent.apply(sequence);
 
             if (sequenceMeta != null) {
                 YamlMetaType sequenceMetaType = sequenceMeta.getMetaType();
                 Field resultField = value instanceof YAMLSequence && sequenceMetaType instanceof YamlArrayType ?
-                        new Field("<array>", sequenceMetaType) :  // unwind nested array
+                        sequenceMetaType.canonicalField("<array>") :  // unwind nested array
                         sequenceMeta.getField();
 
                 return FieldAndRelation.forNullable(specializeField(resultField, sequenceItem.getValue()), Field.Relation.SEQUENCE_ITEM);
@@ -99,7 +170,7 @@ public class YamlMetaTypeProvider {
             return null;
         }
         if (typed instanceof YAMLKeyValue keyValue) {
-            Field keyValueType = computeMetaType(keyValue);
+            Field keyValueType = computeMetaType(keyValue, resolvedParent);
             if (keyValueType == null) {
                 return null;
             }
@@ -137,13 +208,14 @@ public class YamlMetaTypeProvider {
         return Field.Relation.SCALAR_VALUE;
     }
 
-    private @Nullable Field computeMetaType(@NotNull YAMLKeyValue keyValue) {
+    private @Nullable Field computeMetaType(@NotNull YAMLKeyValue keyValue,
+                                           @NotNull Function<YAMLValue, MetaTypeProxy> resolvedParent) {
         YAMLMapping parentMapping = keyValue.getParentMapping();
         if (parentMapping == null) {
             debug(() -> "Unexpected: keyValue parent is not a mapping: " + keyValue.getParent());
             return null;
         }
-        MetaTypeProxy parentMeta = getMetaTypeProxy(parentMapping);
+        MetaTypeProxy parentMeta = resolvedParent.apply(parentMapping);
         Field childMeta = findChildMeta(parentMeta, keyValue);
 
         return childMeta != null ? specializeField(childMeta, keyValue.getValue()) : null;
@@ -187,9 +259,39 @@ public class YamlMetaTypeProvider {
         return false;
     }
 
+    /**
+     * Types of all values of a file, keyed by the value; values typed as {@code null} are stored too.
+     */
+    private static final class MetaTypeTable {
+        private final Reference2ObjectOpenHashMap<YAMLValue, MetaTypeProxy> myTypes = new Reference2ObjectOpenHashMap<>();
+
+        void put(@NotNull YAMLValue value, @Nullable MetaTypeProxy proxy) {
+            myTypes.put(value, proxy);
+        }
+
+        boolean contains(@NotNull YAMLValue value) {
+            return myTypes.containsKey(value);
+        }
+
+        @Nullable MetaTypeProxy get(@NotNull YAMLValue value) {
+            return myTypes.get(value);
+        }
+
+        int size() {
+            return myTypes.size();
+        }
+    }
+
     public static class FieldAndRelation implements MetaTypeProxy {
         public static @Nullable FieldAndRelation forNullable(@Nullable Field field, @NotNull Field.Relation relation) {
-            return field == null ? null : new FieldAndRelation(field, relation);
+            return field == null ? null : of(field, relation);
+        }
+
+        /**
+         * The shared instance for the field and relation.
+         */
+        public static @NotNull FieldAndRelation of(@NotNull Field field, @NotNull Field.Relation relation) {
+            return field.getRelationProxy(relation, FieldAndRelation::new);
         }
 
         private final Field myField;
@@ -10,6 +10,7 @@ import brig.concord.yaml.psi.YAMLValue;
 
 import javax.swing.*;
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -37,6 +38,15 @@ public class Field {
     private Relation myOverriddenDefaultRelation;
     private final Map<Relation, YamlMetaType> myPerRelationTypes = new HashMap<>();
 
+    // Shared immutable views of this field per relation, see getRelationProxy
+    private volatile Object[] myRelationProxies;
+
+    // The last result of resolveToSpecializedField that is not this field
+    private volatile Specialized myLastSpecialized;
+
+    private record Specialized(@NotNull YamlMetaType type, @NotNull Field field) {
+    }
+
     /**
      * Used in {@link Field#Field(String, MetaTypeSupplier)}.
      * Invoked only once
@@ -247,7 +257,33 @@ public class Field {
         if(specializedType == null)
             return this;
 
-        return cloneWithNewType(specializedType);
+        Specialized last = myLastSpecialized;
+        if (last != null && last.type() == specializedType) {
+            return last.field();
+        }
+        Field result = cloneWithNewType(specializedType);
+        myLastSpecialized = new Specialized(specializedType, result);
+        return result;
+    }
+
+    /**
+     * Returns the object created by {@code factory} for this field and the relation, normally created once per relation
+     * (a race may create a duplicate, which is harmless).
+     * The created object must be immutable, it is shared by all callers.
+     */
+    @SuppressWarnings("unchecked")
+    public @NotNull <T> T getRelationProxy(@NotNull Relation relation, @NotNull BiFunction<Field, Relation, T> factory) {
+        Object[] proxies = myRelationProxies;
+        if (proxies == null) {
+            proxies = new Object[Relation.values().length];
+            myRelationProxies = proxies;
+        }
+        Object proxy = proxies[relation.ordinal()];
+        if (proxy == null) {
+            proxy = factory.apply(this, relation);
+            proxies[relation.ordinal()] = proxy;
+        }
+        return (T)proxy;
     }
 
     private Field cloneWithNewType(@NotNull YamlMetaType newType) {
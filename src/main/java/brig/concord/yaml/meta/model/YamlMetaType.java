@@ -18,6 +18,8 @@ import javax.swing.*;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static brig.concord.ConcordBundle.BUNDLE;
 
@@ -26,6 +28,10 @@ public abstract class YamlMetaType implements Documented {
     private final @Nullable String description;
     private final boolean required;
 
+    // Shared plain fields of this type, see canonicalField: null, the only Field or a map of them by name.
+    // Types created per element usually get a single field, which is stored as is.
+    private volatile Object myCanonicalFields;
+
     protected YamlMetaType(@NonNls @NotNull String typeName) {
         this(typeName, null, null, false);
     }
@@ -73,6 +79,40 @@ public abstract class YamlMetaType implements Documented {
 
     public abstract @Nullable Field findFeatureByName(@NotNull String name);
 
+    /**
+     * Returns the shared {@code new Field(name, this)}: a field with this type and no further settings.
+     * The result must not be modified.
+     */
+    @SuppressWarnings("unchecked")
+    public final @NotNull Field canonicalField(@NotNull String name) {
+        Object fields = myCanonicalFields;
+        if (fields instanceof Field field && field.getName().equals(name)) {
+            return field;
+        }
+        if (fields instanceof ConcurrentMap<?, ?> map) {
+            return ((ConcurrentMap<String, Field>)map).computeIfAbsent(name, n -> new Field(n, this));
+        }
+
+        synchronized (this) {
+            fields = myCanonicalFields;
+            if (fields == null) {
+                Field field = new Field(name, this);
+                myCanonicalFields = field;
+                return field;
+            }
+            if (fields instanceof Field field) {
+                if (field.getName().equals(name)) {
+                    return field;
+                }
+                ConcurrentMap<String, Field> map = new ConcurrentHashMap<>();
+                map.put(field.getName(), field);
+                myCanonicalFields = map;
+                fields = map;
+            }
+        }
+        return ((ConcurrentMap<String, Field>)fields).computeIfAbsent(name, n -> new Field(n, this));
+    }
+
     /**
      * Computes the set of {@link Field#getName()}s which are missing in the given set of the existing keys.
      *
@@ -2,6 +2,7 @@ package brig.concord.yaml.psi.impl;
 
 // Copyright 2000-2024 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
 
+import com.intellij.extapi.psi.StubBasedPsiElementBase;
 import com.intellij.lang.ASTNode;
 import com.intellij.navigation.ItemPresentation;
 import com.intellij.navigation.ItemPresentationProviders;
@@ -12,10 +13,12 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.impl.source.resolve.reference.ReferenceProvidersRegistry;
+import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.util.PsiUtilCore;
 import com.intellij.util.IncorrectOperationException;
 import com.intellij.util.ObjectUtils;
 import com.intellij.util.PlatformIcons;
+import com.intellij.util.containers.Interner;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -24,16 +27,27 @@ import brig.concord.yaml.YAMLElementTypes;
 import brig.concord.yaml.YAMLTokenTypes;
 import brig.concord.yaml.YAMLUtil;
 import brig.concord.yaml.psi.*;
+import brig.concord.psi.stub.ConcordKeyValueStub;
 
 import javax.swing.*;
 
-public class YAMLKeyValueImpl extends YAMLPsiElementImpl implements YAMLKeyValue, PsiDeclaredTarget {
+public class YAMLKeyValueImpl extends StubBasedPsiElementBase<ConcordKeyValueStub> implements YAMLKeyValue, PsiDeclaredTarget {
     public static final Icon YAML_KEY_ICON = PlatformIcons.PROPERTY_ICON;
 
+    // Keys repeat a lot (task, in, out, ...), equal key texts share one instance
+    private static final Interner<String> KEY_TEXTS = Interner.createWeakInterner();
+
+    // Key text read from the AST, dropped on any change in the subtree
+    private volatile String myKeyText;
+
     public YAMLKeyValueImpl(final @NotNull ASTNode node) {
         super(node);
     }
 
+    public YAMLKeyValueImpl(final @NotNull ConcordKeyValueStub stub, final @NotNull IStubElementType<?, ?> nodeType) {
+        super(stub, nodeType);
+    }
+
     @Override
     public String toString() {
         return "YAML key value";
@@ -70,6 +84,26 @@ public class YAMLKeyValueImpl extends YAMLPsiElementImpl implements YAMLKeyValue
 
     @Override
     public @NotNull String getKeyText() {
+        final ConcordKeyValueStub stub = getGreenStub();
+        if (stub != null) {
+            return stub.getKeyText();
+        }
+
+        String keyText = myKeyText;
+        if (keyText == null) {
+            keyText = KEY_TEXTS.intern(computeKeyText());
+            myKeyText = keyText;
+        }
+        return keyText;
+    }
+
+    @Override
+    public void subtreeChanged() {
+        myKeyText = null;
+        super.subtreeChanged();
+    }
+
+    private @NotNull String computeKeyText() {
         final PsiElement keyElement = getKey();
         switch (keyElement) {
             case null -> {
@@ -13,20 +13,41 @@ import brig.concord.yaml.psi.YAMLKeyValue;
 import brig.concord.yaml.psi.YAMLMapping;
 import brig.concord.yaml.psi.YamlPsiElementVisitor;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public abstract class YAMLMappingImpl extends YAMLCompoundValueImpl implements YAMLMapping {
+
+    /**
+     * Mappings with at least this many key-values keep a key index; smaller ones are scanned.
+     */
+    static final int KEY_INDEX_THRESHOLD = 32;
+
+    // Built lazily, dropped on any change in the subtree
+    private volatile KeyIndex myKeyIndex;
+
     public YAMLMappingImpl(@NotNull ASTNode node) {
         super(node);
     }
 
     @Override
     public @Unmodifiable @NotNull Collection<YAMLKeyValue> getKeyValues() {
+        var index = getKeyIndex();
+        if (index != KeyIndex.SMALL) {
+            return index.keyValues();
+        }
         return PsiTreeUtil.getChildrenOfTypeAsList(this, YAMLKeyValue.class);
     }
 
     @Override
     public @Nullable YAMLKeyValue getKeyValueByKey(@NotNull String keyText) {
+        var index = getKeyIndex();
+        if (index != KeyIndex.SMALL) {
+            return index.byKey().get(keyText);
+        }
         for (var child = getFirstChild(); child != null; child = child.getNextSibling()) {
             if (child instanceof YAMLKeyValue kv && keyText.equals(kv.getKeyText())) {
                 return kv;
@@ -35,6 +56,47 @@ public abstract class YAMLMappingImpl extends YAMLCompoundValueImpl implements Y
         return null;
     }
 
+    @Override
+    public void subtreeChanged() {
+        myKeyIndex = null;
+        super.subtreeChanged();
+    }
+
+    private @NotNull KeyIndex getKeyIndex() {
+        var index = myKeyIndex;
+        if (index == null) {
+            index = KeyIndex.build(this);
+            myKeyIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Key-values of a large mapping in order, and the first key-value for each key text.
+     */
+    private record KeyIndex(@NotNull List<YAMLKeyValue> keyValues, @NotNull Map<String, YAMLKeyValue> byKey) {
+
+        private static final KeyIndex SMALL = new KeyIndex(List.of(), Map.of());
+
+        static @NotNull KeyIndex build(@NotNull YAMLMapping mapping) {
+            var keyValues = new ArrayList<YAMLKeyValue>();
+            for (var child = mapping.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child instanceof YAMLKeyValue kv) {
+                    keyValues.add(kv);
+                }
+            }
+            if (keyValues.size() < KEY_INDEX_THRESHOLD) {
+                return SMALL;
+            }
+
+            var byKey = new HashMap<String, YAMLKeyValue>(keyValues.size() * 2);
+            for (var kv : keyValues) {
+                byKey.putIfAbsent(kv.getKeyText(), kv);
+            }
+            return new KeyIndex(List.copyOf(keyValues), byKey);
+        }
+    }
+
     @Override
     public void putKeyValue(@NotNull YAMLKeyValue keyValueToAdd) {
         final YAMLKeyValue existingKey = getKeyValueByKey(keyValueToAdd.getKeyText());
@@ -106,6 +106,78 @@ class CompletionTest extends ConcordYamlTestBaseJunit5 {
         assertThat(lookupElementStrings).containsExactlyInAnyOrder( "myFlow");
     }
 
+    @Test
+    void testCompletionActiveProfilesFromScope() {
+        var fa = createFile("project-a/concord.yaml",
+                """
+                        profiles:
+                          local:
+                            arguments:
+                              x: 1
+                        triggers:
+                          - manual:
+                              entryPoint: main
+                              activeProfiles:
+                                - <caret>
+                        flows:
+                          main:
+                            - log: "A"
+                        """);
+
+        createFile("project-a/concord/profiles.concord.yaml",
+                """
+                        profiles:
+                          staging:
+                            arguments:
+                              x: 2
+                        """);
+
+        createFile("project-b/concord.yaml",
+                """
+                        profiles:
+                          other:
+                            arguments:
+                              x: 3
+                        """);
+
+        myFixture.configureFromExistingVirtualFile(fa.getVirtualFile());
+
+        myFixture.complete(CompletionType.BASIC);
+
+        var lookupElementStrings = myFixture.getLookupElementStrings();
+        Assertions.assertNotNull(lookupElementStrings);
+        assertThat(lookupElementStrings).containsExactlyInAnyOrder("local", "staging");
+    }
+
+    @Test
+    void testCompletionFormNameFromScope() {
+        var fa = createFile("project-a/concord.yaml",
+                """
+                        flows:
+                          main:
+                            - form: <caret>
+                        forms:
+                          approval:
+                            - approved: { type: "boolean" }
+                        """);
+
+        createFile("project-a/concord/forms.concord.yaml",
+                """
+                        forms:
+                          survey:
+                            - name: { type: "string?" }
+                            - age: { type: "int" }
+                        """);
+
+        myFixture.configureFromExistingVirtualFile(fa.getVirtualFile());
+
+        myFixture.complete(CompletionType.BASIC);
+
+        var lookupElementStrings = myFixture.getLookupElementStrings();
+        Assertions.assertNotNull(lookupElementStrings);
+        assertThat(lookupElementStrings).containsExactlyInAnyOrder("approval", "survey");
+    }
+
     @Test
     void testCompletionMultiScopeAfterEdit() {
         var fa = createFile("project-a/concord.yaml",
@@ -191,4 +191,77 @@ class DependencyCollectorTest extends ConcordYamlTestBaseJunit5 {
         assertTrue(deps.stream().anyMatch(d -> d.getArtifactId().equals("root-dep")));
         assertTrue(deps.stream().anyMatch(d -> d.getArtifactId().equals("extra-dep")));
     }
+
+    @Test
+    void occurrencesKeepProfileOriginAndOffset() {
+        var file = createFile("concord.yaml", """
+                configuration:
+                  dependencies:
+                    - "mvn://com.example:base:1.0.0"
+                profiles:
+                  dev:
+                    configuration:
+                      extraDependencies:
+                        - "mvn://com.example:dev-extra:1.0.0"
+                flows:
+                  main:
+                    - log: "hello"
+                """);
+
+        var collector = DependencyCollector.getInstance(getProject());
+        var occurrences = ReadAction.compute(() -> collector.collectByScope().getFirst().occurrences());
+
+        assertEquals(2, occurrences.size());
+        var base = occurrences.get(0);
+        assertNull(base.profile());
+        assertEquals(file.getText().indexOf("\"mvn://com.example:base"), base.textOffset());
+
+        var devExtra = occurrences.get(1);
+        assertEquals("dev", devExtra.profile());
+        assertEquals("dev-extra", devExtra.coordinate().getArtifactId());
+    }
+
+    @Test
+    void indexMarksMalformedDependencySections() {
+        var file = createFile("concord.yaml", """
+                configuration:
+                  dependencies:
+                    - mvn: "com.example:dep:1.0.0"
+                """);
+
+        var indexed = ReadAction.compute(() -> DependencyIndex.get(getProject(), file.getVirtualFile()));
+        assertNotNull(indexed);
+        assertFalse(indexed.valid());
+    }
+
+    @Test
+    void malformedItemsDoNotHideValidDependencies() {
+        var file = createFile("concord.yaml", """
+                configuration:
+                  dependencies:
+                    - "mvn://com.example:first:1.0.0"
+                    - mvn: "com.example:bad:1.0.0"
+                    - "mvn://com.example:second:1.0.0"
+                  extraDependencies: "mvn://com.example:scalar:1.0.0"
+                profiles:
+                  dev:
+                  prod:
+                    configuration:
+                      dependencies:
+                        - "mvn://com.example:prod:1.0.0"
+                """);
+
+        var indexed = ReadAction.compute(() -> DependencyIndex.get(getProject(), file.getVirtualFile()));
+        assertNotNull(indexed);
+        assertFalse(indexed.valid());
+
+        var collector = DependencyCollector.getInstance(getProject());
+        var deps = ReadAction.compute(collector::collectAll);
+
+        assertEquals(3, deps.size());
+        assertTrue(deps.stream().anyMatch(d -> d.getArtifactId().equals("first")));
+        assertTrue(deps.stream().anyMatch(d -> d.getArtifactId().equals("second")));
+        assertTrue(deps.stream().anyMatch(d -> d.getArtifactId().equals("prod")));
+        assertFalse(deps.stream().anyMatch(d -> d.getArtifactId().equals("scalar")));
+    }
 }
@@ -3,9 +3,11 @@ package brig.concord.hierarchy;
 
 import brig.concord.ConcordYamlTestBaseJunit5;
 import brig.concord.psi.ProcessDefinition;
+import brig.concord.psi.ProcessDefinitionProvider;
 import brig.concord.yaml.psi.YAMLKeyValue;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -81,6 +83,46 @@ class FlowCallHierarchyTest extends ConcordYamlTestBaseJunit5 {
         });
     }
 
+    @Test
+    void testFindCallersAcrossFilesFromIndex() {
+        var root = createFile("concord.yaml", """
+                flows:
+                  main:
+                    - call: targetFlow
+                    - call: ${dynamicName}
+                """);
+        createFile("concord/other.concord.yaml", """
+                flows:
+                  other:
+                    - if: ${true}
+                      then:
+                        - call: targetFlow
+                  targetFlow:
+                    - log: "hello"
+                """);
+
+        ReadAction.run(() -> {
+            var targetFlow = ProcessDefinitionProvider.getInstance()
+                    .get(root).flow("targetFlow");
+            Assertions.assertInstanceOf(YAMLKeyValue.class, targetFlow);
+
+            var scope = GlobalSearchScope.projectScope(getProject());
+            var callers = FlowCallFinder.findCallers((YAMLKeyValue) targetFlow, scope);
+
+            var callerNames = callers.stream()
+                    .map(c -> findEnclosingFlowDefinition(c.callKeyValue()))
+                    .filter(java.util.Objects::nonNull)
+                    .map(YAMLKeyValue::getKeyText)
+                    .sorted()
+                    .toList();
+            Assertions.assertEquals(List.of("main", "other"), callerNames);
+
+            var dynamic = FileBasedIndex.getInstance()
+                    .getValues(FlowCallSitesIndex.KEY, "${dynamicName}", scope);
+            Assertions.assertTrue(dynamic.isEmpty(), "Dynamic call targets should not be indexed");
+        });
+    }
+
     @Test
     void testFindCalleesSimple() {
         configureFromText("""
@@ -2,14 +2,22 @@
 package brig.concord.meta;
 
 import brig.concord.ConcordYamlTestBaseJunit5;
+import brig.concord.lexer.ConcordElTokenTypes;
 import brig.concord.meta.model.*;
 import brig.concord.meta.model.call.CallMetaType;
 import brig.concord.meta.model.call.CallStepMetaType;
 import brig.concord.meta.model.value.BooleanMetaType;
 import brig.concord.meta.model.value.StringMetaType;
 import brig.concord.psi.ConcordFile;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.impl.source.tree.LazyParseableElement;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ConcordMetaTypeProviderTest extends ConcordYamlTestBaseJunit5 {
@@ -261,4 +269,126 @@ class ConcordMetaTypeProviderTest extends ConcordYamlTestBaseJunit5 {
         var type = provider().getKeyValueMetaType(key("/unknownKey").asKeyValue());
         assertNull(type);
     }
+
+    // --- Whole-file pass ---
+
+    @Test
+    void nestedStepsAfterEdit() {
+        configureFromText("""
+                flows:
+                  myFlow:
+                    - if: "${condition}"
+                      then:
+                        - task: myTask
+                        - log: "yes"
+                """);
+        assertSame(TaskStepMetaType.getInstance(), provider().getResolvedMetaType(element("/flows/myFlow/[0]/then/[0]")));
+
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            var document = myFixture.getEditor().getDocument();
+            var offset = document.getText().indexOf("task: myTask");
+            document.replaceString(offset, offset + "task: myTask".length(), "call: otherFlow");
+            PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+        });
+
+        assertSame(CallStepMetaType.getInstance(), provider().getResolvedMetaType(element("/flows/myFlow/[0]/then/[0]")));
+        assertSame(LogStepMetaType.getInstance(), provider().getResolvedMetaType(element("/flows/myFlow/[0]/then/[1]")));
+    }
+
+    @Test
+    void repeatedResolutionSharesProxies() {
+        configureFromText("""
+                flows:
+                  first:
+                    - task: myTask
+                    - log: "one"
+                  second:
+                    - task: myTask
+                """);
+        var first = provider().getMetaTypeProxy(element("/flows/first/[0]"));
+        assertNotNull(first);
+        assertSame(first, provider().getMetaTypeProxy(element("/flows/second/[0]")));
+        assertSame(first.getField(), provider().getMetaTypeProxy(element("/flows/first/[0]")).getField());
+
+        var log = provider().getMetaTypeProxy(element("/flows/first/[1]"));
+        assertNotNull(log);
+        assertNotSame(first, log);
+        assertSame(provider().getBaseMetaTypeProxy(element("/flows/first/[0]")),
+                provider().getBaseMetaTypeProxy(element("/flows/first/[1]")));
+
+        configureFromText("""
+                flows:
+                  first:
+                    - call: documented
+                      in:
+                        bucket: "a"
+                    - task: concord
+                      in:
+                        action: start
+                  second:
+                    - call: documented
+                      in:
+                        bucket: "b"
+                    - task: concord
+                      in:
+                        action: start
+                    - task: concord
+                      in:
+                        action: kill
+
+                  ##
+                  # in:
+                  #   bucket: string, mandatory, The bucket
+                  ##
+                  documented:
+                    - log: "hi"
+                """);
+        var callIn = provider().getMetaTypeProxy(element("/flows/first/[0]/in"));
+        assertNotNull(callIn);
+        var otherCallIn = provider().getMetaTypeProxy(element("/flows/second/[0]/in"));
+        assertSame(callIn.getMetaType(), otherCallIn.getMetaType());
+        assertSame(callIn.getField(), otherCallIn.getField());
+        assertSame(provider().getMetaTypeProxy(element("/flows/first/[0]/in/bucket")).getField(),
+                provider().getMetaTypeProxy(element("/flows/second/[0]/in/bucket")).getField());
+
+        var taskIn = provider().getMetaTypeProxy(element("/flows/first/[1]/in"));
+        assertNotNull(taskIn);
+        var otherTaskIn = provider().getMetaTypeProxy(element("/flows/second/[1]/in"));
+        assertSame(taskIn.getMetaType(), otherTaskIn.getMetaType());
+        assertSame(taskIn.getField(), otherTaskIn.getField());
+
+        var killIn = provider().getMetaTypeProxy(element("/flows/second/[2]/in"));
+        assertNotNull(killIn);
+        assertNotSame(taskIn.getMetaType(), killIn.getMetaType());
+    }
+
+    @Test
+    void typingFileKeepsElExpressionsUnparsed() {
+        configureFromText("""
+                flows:
+                  main:
+                    - log: "${a.b}"
+                    - if: ${x > 1}
+                      then:
+                        - log: "${c}"
+                """);
+        assertSame(LogStepMetaType.getInstance(), provider().getResolvedMetaType(element("/flows/main/[0]")));
+
+        var chameleons = new ArrayList<LazyParseableElement>();
+        collectChameleons(myFixture.getFile().getNode(), chameleons);
+        assertFalse(chameleons.isEmpty());
+        for (var chameleon : chameleons) {
+            assertFalse(chameleon.isParsed(), "EL expression should not be parsed: " + chameleon.getText());
+        }
+    }
+
+    private static void collectChameleons(ASTNode node, List<LazyParseableElement> result) {
+        if (node.getElementType() == ConcordElTokenTypes.EL_EXPR && node instanceof LazyParseableElement lazy) {
+            result.add(lazy);
+            return;
+        }
+        for (var child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            collectChameleons(child, result);
+        }
+    }
 }
@@ -87,6 +87,14 @@ class IdentityElementMetaTypeTest {
         assertEquals(taskEntry, container.identifyEntry(Set.of("task", "expr")));
     }
 
+    @Test
+    void identifyEntry_firstDeclaredEntryWinsForSharedIdentity() {
+        var other = new TestEntry("task", "loop");
+        var shared = new TestContainer(exprEntry, taskEntry, other);
+        assertEquals(taskEntry, shared.identifyEntry(Set.of("task", "loop")));
+        assertEquals(exprEntry, shared.identifyEntry(Set.of("task", "expr")));
+    }
+
     // -- guessEntry tests --
 
     @Test
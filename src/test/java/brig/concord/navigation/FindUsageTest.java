@@ -2,10 +2,19 @@
 package brig.concord.navigation;
 
 import brig.concord.ConcordYamlTestBaseJunit5;
+import com.intellij.find.findUsages.CustomUsageSearcher;
+import com.intellij.find.findUsages.FindUsagesOptions;
 import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.usages.Usage;
+import com.intellij.usages.UsageInfo2UsageAdapter;
+import com.intellij.util.CommonProcessors;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 class FindUsageTest extends ConcordYamlTestBaseJunit5 {
 
     @Test
@@ -27,4 +36,42 @@ class FindUsageTest extends ConcordYamlTestBaseJunit5 {
 
         Assertions.assertEquals(1, usageInfos.size());
     }
+
+    @Test
+    void findTaskUsagesInSeveralFiles() {
+        var root = createFile("concord.yaml", """
+                flows:
+                  main:
+                    - task: http
+                    - task: slack
+                    - task: http
+                """);
+        createFile("concord/a.concord.yaml", """
+                flows:
+                  a:
+                    - task: http
+                """);
+        createFile("concord/b.concord.yaml", """
+                flows:
+                  b:
+                    - try:
+                        - task: http
+                """);
+        configureFromExistingFile(root);
+
+        var target = ReadAction.compute(() -> value("/flows/main/[0]/task").element());
+        var options = new FindUsagesOptions(getProject());
+        options.searchScope = GlobalSearchScope.projectScope(getProject());
+
+        var usages = new ArrayList<Usage>();
+        for (var searcher : CustomUsageSearcher.EP_NAME.getExtensionList()) {
+            searcher.processElementUsages(target, new CommonProcessors.CollectProcessor<>(usages), options);
+        }
+
+        var files = ReadAction.compute(() -> usages.stream()
+                .map(usage -> ((UsageInfo2UsageAdapter) usage).getUsageInfo().getVirtualFile().getName())
+                .sorted()
+                .toList());
+        Assertions.assertEquals(List.of("a.concord.yaml", "b.concord.yaml", "concord.yaml"), files);
+    }
 }
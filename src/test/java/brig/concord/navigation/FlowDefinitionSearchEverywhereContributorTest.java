@@ -0,0 +1,29 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.navigation;
+
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class FlowDefinitionSearchEverywhereContributorTest {
+
+    @Test
+    void testBestMatchesFirst() {
+        var keys = List.of("redeployAll", "build", "deployApp", "deploy");
+
+        var result = FlowDefinitionSearchEverywhereContributor.applyPattern(keys, "deploy", new EmptyProgressIndicator());
+
+        Assertions.assertEquals(List.of("deploy", "deployApp", "redeployAll"), result);
+    }
+
+    @Test
+    void testCamelHumps() {
+        var keys = List.of("deployApp", "downloadArtifact", "build");
+
+        var result = FlowDefinitionSearchEverywhereContributor.applyPattern(keys, "dApp", new EmptyProgressIndicator());
+
+        Assertions.assertEquals(List.of("deployApp"), result);
+    }
+}
@@ -2,9 +2,13 @@
 package brig.concord.psi;
 
 import brig.concord.ConcordYamlTestBaseJunit5;
+import brig.concord.schema.SchemaType;
 import com.intellij.openapi.application.ReadAction;
+import com.intellij.testFramework.DumbModeTestUtils;
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ArgumentsCollectorTest extends ConcordYamlTestBaseJunit5 {
@@ -277,4 +281,66 @@ class ArgumentsCollectorTest extends ConcordYamlTestBaseJunit5 {
         assertEquals(1, args.size());
         assertTrue(args.containsKey("rootVar"));
     }
+
+    @Test
+    void indexedArgumentsResolveOnDemand() {
+        var root = createFile("concord.yaml", """
+                configuration:
+                  arguments:
+                    rootVar: "fromRoot"
+                    objVar:
+                      nested: 1
+                resources:
+                  concord:
+                    - "glob:concord/*.concord.yaml"
+                flows:
+                  main:
+                    - log: "hi"
+                """);
+
+        createFile("concord/extra.concord.yaml", """
+                configuration:
+                  arguments:
+                    rootVar: "fromExtra"
+                    extraVar: ${expr}
+                """);
+
+        ReadAction.run(() -> {
+            var args = ArgumentsCollector.getInstance(getProject()).getIndexedArguments(root);
+            assertEquals(Set.of("rootVar", "extraVar", "objVar"), args.keySet());
+
+            var rootVar = args.get("rootVar");
+            assertEquals(root.getVirtualFile(), rootVar.file());
+            assertInstanceOf(SchemaType.Object.class, args.get("objVar").data().type());
+
+            var declaration = rootVar.resolve(getProject());
+            assertNotNull(declaration);
+            assertEquals("rootVar", declaration.getKeyText());
+            assertEquals("\"fromRoot\"", declaration.getValue().getText());
+        });
+    }
+
+    @Test
+    void indexedArgumentsInDumbMode() {
+        var root = createFile("concord.yaml", """
+                configuration:
+                  arguments:
+                    rootVar: "fromRoot"
+                    objVar:
+                      nested: 1
+                flows:
+                  main:
+                    - log: "hi"
+                """);
+
+        DumbModeTestUtils.runInDumbModeSynchronously(getProject(), () -> ReadAction.run(() -> {
+            var args = ArgumentsCollector.getInstance(getProject()).getIndexedArguments(root);
+            assertEquals(Set.of("rootVar", "objVar"), args.keySet());
+            assertInstanceOf(SchemaType.Object.class, args.get("objVar").data().type());
+
+            var declaration = args.get("rootVar").resolve(getProject());
+            assertNotNull(declaration);
+            assertEquals("rootVar", declaration.getKeyText());
+        }));
+    }
 }
@@ -0,0 +1,37 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import brig.concord.ConcordYamlTestBaseJunit5;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ConcordInvalidationStatsTest extends ConcordYamlTestBaseJunit5 {
+
+    @Test
+    void testReportCountsBatchesAndRestarts() {
+        var stats = ConcordInvalidationStats.getInstance(getProject());
+        stats.reset();
+
+        var fingerprints = new ConcordInvalidationStats.FingerprintCounts();
+        fingerprints.computed = 3;
+        fingerprints.skipped = 2;
+        stats.readStarted();
+        stats.readStarted();
+        stats.batchRead(5, 1_500_000, fingerprints, true, false, true);
+        stats.trackersTicked(true, false, false, true);
+        stats.restarted("first reason", 0);
+        stats.restarted("first reason", 0);
+        stats.restarted("second reason", 1);
+
+        var report = stats.report();
+        Assertions.assertTrue(report.contains("Batches: 1 (read attempts: 2)"), report);
+        Assertions.assertTrue(report.contains("dirty files: mean 5, p50 < 8"), report);
+        Assertions.assertTrue(report.contains("fingerprints: computed 3, updated 0, skipped 2"), report);
+        Assertions.assertTrue(report.contains("structure: 1 (full scope rebuilds: 0)"), report);
+        Assertions.assertTrue(report.contains("first reason: 2"), report);
+        Assertions.assertTrue(report.contains("second reason: 1") && report.contains("1 files"), report);
+
+        stats.reset();
+        Assertions.assertTrue(stats.report().contains("Batches: 0"));
+    }
+}
@@ -734,6 +734,167 @@ class ConcordModificationTrackerTest extends ConcordYamlTestBaseJunit5 {
                 "Structure count should NOT increment on resources change in non-root file");
     }
 
+    @Test
+    void testScopeMembershipAppliesFileCreationIncrementally() {
+        myFixture.addFileToProject("concord.yaml", "flows: {}");
+        var tracker = ConcordModificationTracker.getInstance(getProject());
+        var service = ConcordScopeService.getInstance(getProject());
+        awaitProcessing();
+
+        var initialRoots = ReadAction.compute(service::findRoots);
+        Assertions.assertEquals(1, initialRoots.size());
+        long initialStructure = tracker.structure().getModificationCount();
+
+        var added = myFixture.addFileToProject("concord/added.concord.yaml", "flows: {}");
+
+        waitForIncrement(tracker.structure()::getModificationCount, initialStructure,
+                "Structure count should increment on .concord.yaml creation");
+
+        Assertions.assertNotNull(tracker.scopeDeltas(initialStructure, tracker.structure().getModificationCount()),
+                "File creation should be recorded as a scope delta");
+        var scopes = ReadAction.compute(() -> service.getScopesForFile(added.getVirtualFile()));
+        Assertions.assertEquals(1, scopes.size());
+        Assertions.assertSame(initialRoots, ReadAction.compute(service::findRoots),
+                "Roots should not be recomputed when a non-root file is added");
+    }
+
+    @Test
+    void testScopeMembershipAppliesPatternChangeIncrementally() {
+        var root = myFixture.addFileToProject("concord.yaml", """
+                resources:
+                  concord:
+                    - "glob:flows/*.concord.yaml"
+                """);
+        var other = myFixture.addFileToProject("other/helper.concord.yaml", "flows: {}");
+        var tracker = ConcordModificationTracker.getInstance(getProject());
+        var service = ConcordScopeService.getInstance(getProject());
+        awaitProcessing();
+
+        Assertions.assertTrue(ReadAction.compute(() -> service.getScopesForFile(other.getVirtualFile())).isEmpty());
+        long initialStructure = tracker.structure().getModificationCount();
+
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            try {
+                root.getVirtualFile().setBinaryContent("""
+                        resources:
+                          concord:
+                            - "glob:other/*.concord.yaml"
+                        """.getBytes());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        waitForIncrement(tracker.structure()::getModificationCount, initialStructure,
+                "Structure count should increment on resources change in root file");
+
+        Assertions.assertNotNull(tracker.scopeDeltas(initialStructure, tracker.structure().getModificationCount()),
+                "Pattern change should be recorded as a scope delta");
+        var scopes = ReadAction.compute(() -> service.getScopesForFile(other.getVirtualFile()));
+        Assertions.assertEquals(1, scopes.size());
+    }
+
+    @Test
+    void testScopeDeltasUnknownAfterInvalidate() {
+        var tracker = ConcordModificationTracker.getInstance(getProject());
+        awaitProcessing();
+        long initialStructure = tracker.structure().getModificationCount();
+
+        tracker.invalidate();
+
+        Assertions.assertNull(tracker.scopeDeltas(initialStructure, tracker.structure().getModificationCount()),
+                "A change without a delta requires a full rescan");
+    }
+
+    @Test
+    void testArgumentsChangeBumpsOnlyAffectedRoot() {
+        var first = myFixture.addFileToProject("first/concord.yaml", """
+                configuration:
+                  arguments:
+                    myVar: "hello"
+                """);
+        myFixture.addFileToProject("second/concord.yaml", """
+                configuration:
+                  arguments:
+                    otherVar: "hello"
+                """);
+        var tracker = ConcordModificationTracker.getInstance(getProject());
+        var service = ConcordScopeService.getInstance(getProject());
+        awaitProcessing();
+
+        var roots = ReadAction.compute(service::findRoots);
+        Assertions.assertEquals(2, roots.size());
+        var firstRoot = roots.stream()
+                .filter(r -> r.getRootFile().equals(first.getVirtualFile()))
+                .findFirst().orElseThrow();
+        var secondRoot = roots.stream().filter(r -> r != firstRoot).findFirst().orElseThrow();
+
+        long initialArgs = tracker.arguments().getModificationCount();
+        long initialFirst = tracker.arguments(firstRoot).getModificationCount();
+        long initialSecond = tracker.arguments(secondRoot).getModificationCount();
+
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            try {
+                first.getVirtualFile().setBinaryContent("""
+                        configuration:
+                          arguments:
+                            myVar: "world"
+                        """.getBytes());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        waitForIncrement(tracker.arguments()::getModificationCount, initialArgs,
+                "Project-wide arguments count should increment on any root change");
+
+        Assertions.assertTrue(tracker.arguments(firstRoot).getModificationCount() > initialFirst,
+                "Arguments count of the edited root should increment");
+        Assertions.assertEquals(initialSecond, tracker.arguments(secondRoot).getModificationCount(),
+                "Arguments count of an unrelated root should not change");
+    }
+
+    @Test
+    void testArgumentsIncrementOnEditorChangesInFlowsAndConfiguration() {
+        var file = myFixture.addFileToProject("concord.yaml", """
+                configuration:
+                  arguments:
+                    myVar: "hello"
+                flows:
+                  main:
+                    - log: "hi"
+                """);
+
+        openFileInEditor(file);
+
+        var tracker = ConcordModificationTracker.getInstance(getProject());
+        awaitProcessing();
+        long initialArgs = tracker.arguments().getModificationCount();
+
+        // A flows-only edit leaves the fingerprint alone
+        replaceInEditor("\"hi\"", "\"bye\"");
+        awaitProcessing();
+        Assertions.assertEquals(initialArgs, tracker.arguments().getModificationCount(),
+                "Arguments count should NOT increment on an editor change in flows");
+
+        // Both sections edited before the batch runs
+        replaceInEditor("\"bye\"", "\"hi\"");
+        replaceInEditor("\"hello\"", "\"world\"");
+
+        waitForIncrement(tracker.arguments()::getModificationCount, initialArgs,
+                "Arguments count should increment on an editor change in configuration");
+    }
+
+    private void replaceInEditor(String text, String replacement) {
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            var document = myFixture.getEditor().getDocument();
+            int offset = document.getText().indexOf(text);
+            Assertions.assertTrue(offset >= 0, text);
+            document.replaceString(offset, offset + text.length(), replacement);
+            com.intellij.psi.PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+        });
+    }
+
     private static void awaitProcessing() {
         EdtTestUtil.runInEdtAndWait(() -> {
             // 1) дать отработать queued updates / invokeLater / MergingUpdateQueue
@@ -0,0 +1,124 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import brig.concord.ConcordYamlTestBaseJunit5;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+class ConcordPsiModificationTrackerTest extends ConcordYamlTestBaseJunit5 {
+
+    private static final String TEXT = """
+            configuration:
+              arguments:
+                x: 1
+            flows:
+              first:
+                - log: "one"
+              second:
+                - log: "two"
+            """;
+
+    @Test
+    void testEditInFlowOnlyChangesThatFlow() {
+        configureFromText(TEXT);
+        var tracker = ConcordPsiModificationTracker.getInstance(getProject());
+        var first = flowTracker("first");
+        var second = flowTracker("second");
+        var configuration = ReadAction.compute(() -> tracker.section(myFixture.getFile(), "configuration"));
+
+        var firstCount = first.getModificationCount();
+        var secondCount = second.getModificationCount();
+        var configurationCount = configuration.getModificationCount();
+
+        replace("\"one\"", "\"uno\"");
+
+        Assertions.assertNotEquals(firstCount, first.getModificationCount());
+        Assertions.assertEquals(secondCount, second.getModificationCount());
+        Assertions.assertEquals(configurationCount, configuration.getModificationCount());
+    }
+
+    @Test
+    void testEditInSectionDoesNotChangeFlows() {
+        configureFromText(TEXT);
+        var tracker = ConcordPsiModificationTracker.getInstance(getProject());
+        var first = flowTracker("first");
+        var configuration = ReadAction.compute(() -> tracker.section(myFixture.getFile(), "configuration"));
+
+        var firstCount = first.getModificationCount();
+        var configurationCount = configuration.getModificationCount();
+
+        replace("x: 1", "x: 2");
+
+        Assertions.assertNotEquals(configurationCount, configuration.getModificationCount());
+        Assertions.assertEquals(firstCount, first.getModificationCount());
+    }
+
+    @Test
+    void testNewFlowChangesAllFlows() {
+        configureFromText(TEXT);
+        var tracker = ConcordPsiModificationTracker.getInstance(getProject());
+        var first = flowTracker("first");
+        var second = flowTracker("second");
+        var definitions = tracker.flowDefinitions();
+
+        var firstCount = first.getModificationCount();
+        var secondCount = second.getModificationCount();
+        var definitionsCount = definitions.getModificationCount();
+
+        replace("  second:", "  third:\n    - log: \"three\"\n  second:");
+
+        Assertions.assertNotEquals(firstCount, first.getModificationCount());
+        Assertions.assertNotEquals(secondCount, second.getModificationCount());
+        Assertions.assertNotEquals(definitionsCount, definitions.getModificationCount());
+    }
+
+    @Test
+    void testFileChangedOnDiskChangesFlowDefinitions() {
+        var concord = createFile("concord/utils.concord.yaml", "flows:\n  utils:\n    - log: \"hi\"\n");
+        var other = createFile("notes.txt", "text");
+        var definitions = ConcordPsiModificationTracker.getInstance(getProject()).flowDefinitions();
+
+        var definitionsCount = definitions.getModificationCount();
+        setContent(other.getVirtualFile(), "other text");
+        Assertions.assertEquals(definitionsCount, definitions.getModificationCount());
+
+        setContent(concord.getVirtualFile(), "flows:\n  renamed:\n    - log: \"hi\"\n");
+        Assertions.assertNotEquals(definitionsCount, definitions.getModificationCount());
+    }
+
+    private void setContent(VirtualFile file, String text) {
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            try {
+                file.setBinaryContent(text.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private ModificationTracker flowTracker(String name) {
+        return ReadAction.compute(() -> {
+            var flowKv = (YAMLKeyValue) value("/flows/" + name).element().getParent();
+            return ConcordPsiModificationTracker.getInstance(getProject()).flow(flowKv);
+        });
+    }
+
+    private void replace(String text, String replacement) {
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            var document = myFixture.getEditor().getDocument();
+            var offset = document.getText().indexOf(text);
+            Assertions.assertTrue(offset >= 0, text);
+            document.replaceString(offset, offset + text.length(), replacement);
+            PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+        });
+    }
+}
@@ -0,0 +1,212 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import com.intellij.openapi.util.SystemInfoRt;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class ConcordResourceMatcherTest {
+
+    private static final String ROOT = "/work/repo/";
+    private static final String DEFAULT = "glob:concord/{**/,}{*.,}concord.{yml,yaml}";
+
+    private static final List<String> PATTERNS = List.of(
+            DEFAULT,
+            "glob:flows/*.concord.yaml",
+            "glob:src/**/*.concord.yml",
+            "glob:lib/[a-c]?/*.concord.yaml",
+            "glob:lib/[!x]*/x.concord.yaml",
+            "glob:exact/path.concord.yaml",
+            "glob:/abs/**",
+            "glob:weird.{a,b}/file\\{1\\}.concord.yaml",
+            "glob:{a,b}/**/*.concord.yaml",
+            "glob:esc/\\[x\\]/\\*.concord.yaml",
+            "regex:concord/.*\\.concord\\.ya?ml",
+            "single/file.concord.yaml"
+    );
+
+    private static final List<String> PATHS = List.of(
+            ROOT + "concord.yaml",
+            ROOT + "concord/concord.yml",
+            ROOT + "concord/utils.concord.yaml",
+            ROOT + "concord/a/b/deep.concord.yml",
+            ROOT + "concord/a/b/deep.concord.json",
+            ROOT + "concord/.concord.yaml",
+            ROOT + "concord/xconcord.yaml",
+            ROOT + "concord/a/concord.yaml.bak",
+            ROOT + "concordx/utils.concord.yaml",
+            ROOT + "flows/main.concord.yaml",
+            ROOT + "flows/sub/main.concord.yaml",
+            ROOT + "flows/.concord.yaml",
+            ROOT + "src/main.concord.yml",
+            ROOT + "src/a/b/c.concord.yml",
+            ROOT + "lib/b1/y.concord.yaml",
+            ROOT + "lib/d1/y.concord.yaml",
+            ROOT + "lib/bx/x.concord.yaml",
+            ROOT + "lib/xx/x.concord.yaml",
+            ROOT + "exact/path.concord.yaml",
+            ROOT + "exact/path.concord.yaml.bak",
+            ROOT + "abs/any/thing.concord.yaml",
+            ROOT + "weird.a/file{1}.concord.yaml",
+            ROOT + "weird.c/file{1}.concord.yaml",
+            ROOT + "single/file.concord.yaml",
+            ROOT + "a/x/y.concord.yaml",
+            ROOT + "b/y.concord.yaml",
+            ROOT + "c/x/y.concord.yaml",
+            ROOT + "esc/[x]/*.concord.yaml",
+            ROOT + "esc/x/any.concord.yaml",
+            "/work/other/concord/utils.concord.yaml"
+    );
+
+    @BeforeEach
+    void assumeUnixPaths() {
+        // Reference PathMatchers use the platform file system
+        Assumptions.assumeFalse(SystemInfoRt.isWindows);
+    }
+
+    @Test
+    void testMatchesSameAsPathMatchers() {
+        for (var pattern : PATTERNS) {
+            var reference = ConcordResourcePatterns.parsePattern(pattern, ROOT);
+            var compiled = ConcordResourceMatcher.compile(pattern, ROOT);
+            for (var path : PATHS) {
+                Assertions.assertEquals(reference.matches(Paths.get(path)), compiled.matches(path),
+                        pattern + " vs " + path);
+            }
+        }
+    }
+
+    @Test
+    void testCombinedMatcher() {
+        var matcher = ConcordResourceMatcher.of(PATTERNS.stream()
+                .map(p -> ConcordResourceMatcher.compile(p, ROOT))
+                .toList());
+
+        for (var path : PATHS) {
+            var expected = PATTERNS.stream()
+                    .anyMatch(p -> ConcordResourcePatterns.parsePattern(p, ROOT).matches(Paths.get(path)));
+            Assertions.assertEquals(expected, matcher.matches(path), path);
+        }
+    }
+
+    @Test
+    void testDefaultPatternPrefilters() {
+        var compiled = ConcordResourceMatcher.compile(DEFAULT, ROOT);
+
+        Assertions.assertEquals(ROOT + "concord/", compiled.prefix());
+        Assertions.assertEquals(List.of("concord.yml", "concord.yaml"), compiled.suffixes());
+        Assertions.assertEquals(ConcordResourceMatcher.Shape.CONCORD_FILES, compiled.shape());
+        Assertions.assertNull(compiled.matcher());
+    }
+
+    @Test
+    void testShapes() {
+        Assertions.assertEquals(ConcordResourceMatcher.Shape.FILE_NAME,
+                ConcordResourceMatcher.compile("glob:flows/*.concord.yaml", ROOT).shape());
+        Assertions.assertEquals(ConcordResourceMatcher.Shape.MATCHER,
+                ConcordResourceMatcher.compile("glob:src/**/*.concord.yml", ROOT).shape());
+        Assertions.assertEquals(ConcordResourceMatcher.Shape.MATCHER,
+                ConcordResourceMatcher.compile("regex:concord/.*\\.concord\\.ya?ml", ROOT).shape());
+    }
+
+    @Test
+    void testLiteralGlobIsExact() {
+        var compiled = ConcordResourceMatcher.compile("glob:exact/path.concord.yaml", ROOT);
+
+        Assertions.assertTrue(compiled.exact());
+        Assertions.assertNull(compiled.matcher());
+    }
+
+    @Test
+    void testInvalidPatternRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ConcordResourceMatcher.compile("glob:{a,{b}}", ROOT));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ConcordResourceMatcher.compile("regex:[unclosed", ROOT));
+    }
+
+    @Test
+    void testEmptyMatcherMatchesNothing() {
+        Assertions.assertFalse(ConcordResourceMatcher.EMPTY.matches(ROOT + "concord/utils.concord.yaml"));
+    }
+
+    /**
+     * Microbenchmark of the default pattern against the plain JDK glob matcher, on Concord files under
+     * {@code concord/} only: every path passes the prefix and suffix prefilters.
+     * Opt-in, see the {@code benchmark} tag in the build; timings are published to the test report.
+     */
+    @Test
+    @Tag("benchmark")
+    void testBenchmarkDefaultPattern(TestReporter reporter) {
+        var paths = new ArrayList<String>();
+        for (int i = 0; i < 5_000; i++) {
+            var dir = switch (i % 3) {
+                case 0 -> "concord/";
+                case 1 -> "concord/flows" + (i % 17) + "/";
+                default -> "concord/team" + (i % 5) + "/processes/dir" + (i % 13) + "/";
+            };
+            var name = switch (i % 4) {
+                case 0 -> "file" + i + ".concord.yaml";
+                case 1 -> "file" + i + ".concord.yml";
+                case 2 -> "concord.yaml";
+                default -> "file" + i + "concord.yml";
+            };
+            paths.add(ROOT + dir + name);
+        }
+
+        PathMatcher reference = ConcordResourcePatterns.parsePattern(DEFAULT, ROOT);
+        var compiled = ConcordResourceMatcher.of(List.of(ConcordResourceMatcher.compile(DEFAULT, ROOT)));
+
+        for (var path : paths) {
+            Assertions.assertEquals(reference.matches(Paths.get(path)), compiled.matches(path), path);
+        }
+
+        // Warm up both paths before timing
+        for (int r = 0; r < 5; r++) {
+            for (var path : paths) {
+                reference.matches(Paths.get(path));
+                compiled.matches(path);
+            }
+        }
+
+        var rounds = 20;
+        var referenceHits = 0;
+        var compiledHits = 0;
+
+        var start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            for (var path : paths) {
+                if (reference.matches(Paths.get(path))) {
+                    referenceHits++;
+                }
+            }
+        }
+        var referenceNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            for (var path : paths) {
+                if (compiled.matches(path)) {
+                    compiledHits++;
+                }
+            }
+        }
+        var compiledNanos = System.nanoTime() - start;
+
+        Assertions.assertEquals(referenceHits, compiledHits);
+        reporter.publishEntry(Map.of(
+                "matches", String.valueOf(rounds * paths.size()),
+                "pathMatcherMs", String.valueOf(referenceNanos / 1_000_000),
+                "compiledMs", String.valueOf(compiledNanos / 1_000_000)));
+    }
+}
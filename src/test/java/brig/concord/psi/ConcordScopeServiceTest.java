@@ -9,12 +9,16 @@ import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
 import com.intellij.psi.PsiPolyVariantReference;
+import com.intellij.testFramework.DumbModeTestUtils;
 import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.PsiTestUtil;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 class ConcordScopeServiceTest extends ConcordYamlTestBaseJunit5 {
@@ -156,6 +160,123 @@ class ConcordScopeServiceTest extends ConcordYamlTestBaseJunit5 {
         Assertions.assertTrue(roots.size() >= 2, () -> "Expected at least 2 roots, found: " + roots.size());
     }
 
+    @Test
+    void testScopesForFileAmongSiblingRoots() {
+        for (var name : List.of("alpha", "alphabet", "beta", "beta/nested")) {
+            myFixture.addFileToProject(name + "/concord.yaml", "flows: {}");
+        }
+        var file = myFixture.addFileToProject("alpha/concord/utils.concord.yaml", "flows: {}");
+
+        var service = ConcordScopeService.getInstance(getProject());
+        var roots = ReadAction.compute(service::findRoots);
+        Assertions.assertEquals(4, roots.size());
+
+        var scopes = ReadAction.compute(() -> service.getScopesForFile(file.getVirtualFile()));
+        Assertions.assertEquals(1, scopes.size());
+        Assertions.assertEquals("alpha", scopes.getFirst().getScopeName());
+
+        Assertions.assertSame(scopes, ReadAction.compute(() -> service.getScopesForFile(file.getVirtualFile())),
+                "Scopes should be memoized until the next structure change");
+    }
+
+    @Test
+    void testSearchScopeReusedPerRootSet() {
+        var root = myFixture.addFileToProject("concord.yaml", "flows: {}");
+        var utils = myFixture.addFileToProject("concord/utils.concord.yaml", "flows: {}");
+        var outside = myFixture.addFileToProject("other/helper.concord.yaml", "flows: {}");
+
+        var service = ConcordScopeService.getInstance(getProject());
+        var fromRoot = ReadAction.compute(() -> service.createSearchScope(root));
+        var fromUtils = ReadAction.compute(() -> service.createSearchScope(utils));
+
+        Assertions.assertSame(fromRoot, fromUtils, "Files of the same root should share one search scope");
+        Assertions.assertTrue(fromRoot.contains(root.getVirtualFile()));
+        Assertions.assertTrue(fromRoot.contains(utils.getVirtualFile()));
+        Assertions.assertFalse(fromRoot.contains(outside.getVirtualFile()));
+
+        ConcordModificationTracker.getInstance(getProject()).invalidate();
+
+        var afterChange = ReadAction.compute(() -> service.createSearchScope(root));
+        Assertions.assertNotSame(fromRoot, afterChange, "Search scope should be recreated after a structure change");
+        Assertions.assertTrue(afterChange.contains(utils.getVirtualFile()));
+    }
+
+    @Test
+    void testScopesRestoredFromSnapshotInDumbMode() {
+        var root = myFixture.addFileToProject("project-a/concord.yaml", "flows: {}");
+        var utils = myFixture.addFileToProject("project-a/concord/utils.concord.yaml", "flows: {}");
+        myFixture.addFileToProject("project-b/concord.yaml", "flows: {}");
+
+        var service = ConcordScopeService.getInstance(getProject());
+        var roots = ReadAction.compute(service::findRoots);
+        Assertions.assertEquals(2, roots.size());
+
+        var snapshot = ConcordScopeSnapshot.getInstance(getProject());
+        var state = snapshot.getState();
+        Assertions.assertNotNull(state);
+        Assertions.assertEquals(2, state.roots.size());
+        snapshot.loadState(state);
+
+        DumbModeTestUtils.runInDumbModeSynchronously(getProject(), () -> {
+            var restoredRoots = ReadAction.compute(service::findRoots);
+            Assertions.assertEquals(roots, restoredRoots);
+
+            var scopes = ReadAction.compute(() -> service.getScopesForFile(utils.getVirtualFile()));
+            Assertions.assertEquals(1, scopes.size());
+            Assertions.assertEquals(root.getVirtualFile(), scopes.getFirst().getRootFile());
+        });
+    }
+
+    @Test
+    void testSnapshotFollowsMembershipChanges() {
+        myFixture.addFileToProject("project-a/concord.yaml", "flows: {}");
+
+        var service = ConcordScopeService.getInstance(getProject());
+        Assertions.assertEquals(1, ReadAction.compute(service::findRoots).size());
+
+        var snapshot = ConcordScopeSnapshot.getInstance(getProject());
+        var before = snapshot.getState();
+        Assertions.assertNotNull(before);
+        Assertions.assertEquals(1, before.files.size());
+
+        var utils = myFixture.addFileToProject("project-a/concord/utils.concord.yaml", "flows: {}");
+        Assertions.assertEquals(1, ReadAction.compute(() -> service.getScopesForFile(utils.getVirtualFile())).size());
+
+        var after = snapshot.getState();
+        Assertions.assertNotNull(after);
+        Assertions.assertTrue(after.files.contains(utils.getVirtualFile().getUrl()));
+        Assertions.assertEquals(1, after.roots.size());
+        Assertions.assertEquals(Set.of("0", "1"), Set.of(after.roots.getFirst().files.split(",")));
+    }
+
+    @Test
+    void testSnapshotNotRestoredAfterFirstSmartMode() {
+        myFixture.addFileToProject("project-a/concord.yaml", "flows: {}");
+
+        var service = ConcordScopeService.getInstance(getProject());
+        Assertions.assertEquals(1, ReadAction.compute(service::findRoots).size());
+
+        var snapshot = ConcordScopeSnapshot.getInstance(getProject());
+        var state = snapshot.getState();
+        Assertions.assertNotNull(state);
+        snapshot.loadState(state);
+
+        DumbModeTestUtils.runInDumbModeSynchronously(getProject(), () ->
+                Assertions.assertEquals(1, ReadAction.compute(service::findRoots).size()));
+
+        // Smart mode: membership is rebuilt from the indexes and the startup snapshot is dropped
+        Assertions.assertEquals(1, ReadAction.compute(service::findRoots).size());
+        Assertions.assertNull(snapshot.loaded());
+
+        var added = myFixture.addFileToProject("project-b/concord.yaml", "flows: {}");
+
+        DumbModeTestUtils.runInDumbModeSynchronously(getProject(), () -> {
+            var roots = ReadAction.compute(service::findRoots);
+            Assertions.assertEquals(2, roots.size(), "A later dumb mode should not go back to the startup snapshot");
+            Assertions.assertTrue(roots.stream().anyMatch(r -> r.getRootFile().equals(added.getVirtualFile())));
+        });
+    }
+
     @Test
     void testNestedFileInScope() {
         // Create root with default resources pattern (which includes concord/**/*.concord.yaml)
@@ -710,6 +831,75 @@ class ConcordScopeServiceTest extends ConcordYamlTestBaseJunit5 {
                 "Remaining root should be the top-level concord.yaml");
     }
 
+    @Test
+    void testIgnoreStatusCachedAndInvalidatedPerDirectory() {
+        var inside = myFixture.addFileToProject("sub/inside.concord.yaml", "flows: {}");
+        var outside = myFixture.addFileToProject("other/outside.concord.yaml", "flows: {}");
+
+        var service = ConcordScopeService.getInstance(getProject());
+        var checked = new ArrayList<VirtualFile>();
+        service.setIgnoredFileChecker(file -> {
+            checked.add(file);
+            return false;
+        });
+
+        service.isIgnored(inside.getVirtualFile());
+        service.isIgnored(inside.getVirtualFile());
+        service.isIgnored(outside.getVirtualFile());
+        Assertions.assertEquals(List.of(inside.getVirtualFile(), outside.getVirtualFile()), checked,
+                "Ignore status should be computed once per file");
+
+        checked.clear();
+        service.invalidateIgnoreStatus(List.of(), List.of(inside.getVirtualFile().getParent().getPath()));
+        service.isIgnored(inside.getVirtualFile());
+        service.isIgnored(outside.getVirtualFile());
+        Assertions.assertEquals(List.of(inside.getVirtualFile()), checked,
+                "Only files under the invalidated directory should be re-checked");
+    }
+
+    @Test
+    void testIgnoreStatusCachedOnlyForConcordFiles() {
+        var concordFile = myFixture.addFileToProject("sub/inside.concord.yaml", "flows: {}");
+        var otherFile = myFixture.addFileToProject("sub/readme.txt", "text");
+
+        var service = ConcordScopeService.getInstance(getProject());
+        var checked = new ArrayList<VirtualFile>();
+        service.setIgnoredFileChecker(file -> {
+            checked.add(file);
+            return false;
+        });
+
+        service.isIgnored(concordFile.getVirtualFile());
+        service.isIgnored(concordFile.getVirtualFile());
+        service.isIgnored(otherFile.getVirtualFile());
+        service.isIgnored(otherFile.getVirtualFile());
+        Assertions.assertEquals(List.of(concordFile.getVirtualFile(), otherFile.getVirtualFile(), otherFile.getVirtualFile()),
+                checked, "Only Concord files should be cached");
+    }
+
+    @Test
+    void testExcludedDirectoryLeavesScope() {
+        var root = myFixture.addFileToProject("concord.yaml", "flows: {}");
+        var utils = myFixture.addFileToProject("concord/utils.concord.yaml", "flows: {}");
+
+        var service = ConcordScopeService.getInstance(getProject());
+        var scopes = ReadAction.compute(() -> service.getScopesForFile(utils.getVirtualFile()));
+        Assertions.assertEquals(1, scopes.size());
+        Assertions.assertEquals(root.getVirtualFile(), scopes.getFirst().getRootFile());
+
+        var dir = utils.getVirtualFile().getParent();
+        PsiTestUtil.addExcludedRoot(myFixture.getModule(), dir);
+        try {
+            var afterExclude = ReadAction.compute(() -> service.getScopesForFile(utils.getVirtualFile()));
+            Assertions.assertTrue(afterExclude.isEmpty(), "Files under an excluded directory should leave the scope");
+        } finally {
+            PsiTestUtil.removeExcludedRoot(myFixture.getModule(), dir);
+        }
+
+        var afterRemove = ReadAction.compute(() -> service.getScopesForFile(utils.getVirtualFile()));
+        Assertions.assertEquals(1, afterRemove.size());
+    }
+
     /**
      * This test verifies that getScopesForFile correctly filters ignored files
      * after cache invalidation.
@@ -0,0 +1,78 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ConcordTopLevelSectionsTest {
+
+    private static final String TEXT = """
+            configuration:
+              arguments:
+                x: 1
+
+            # comment
+            flows:
+              main:
+                - log: "one"
+            """;
+
+    @Test
+    void testEditInsideSection() {
+        Assertions.assertEquals("flows", edit("\"one\"", "\"uno\""));
+        Assertions.assertEquals("configuration", edit("x: 1", "x: 2"));
+    }
+
+    @Test
+    void testIndentedLinesAreInsideSection() {
+        Assertions.assertEquals("flows", edit("    - log: \"one\"", "    - log: \"one\"\n    - log: \"two\""));
+        Assertions.assertEquals("configuration", edit("    x: 1\n", "    x: 1\n    y: 2\n"));
+    }
+
+    @Test
+    void testTopLevelKeyChangesAreUnknown() {
+        Assertions.assertNull(edit("flows:", "flow:"));
+        Assertions.assertNull(edit("flows:", "resources:\nflows:"));
+        Assertions.assertNull(edit("# comment\nflows:", "# comment flows:"));
+    }
+
+    @Test
+    void testCommentLinesBelongToPrecedingSection() {
+        Assertions.assertEquals("configuration", edit("\n\n# comment", "\n"));
+    }
+
+    @Test
+    void testEditAfterTopLevelKeyBelongsToIt() {
+        Assertions.assertEquals("flows", edit("flows:\n", "flows: \n"));
+    }
+
+    @Test
+    void testBeforeFirstKeyIsUnknown() {
+        var text = "# header\nflows:\n  main: []\n";
+        Assertions.assertNull(ConcordTopLevelSections.editedSection("# header!" + text.substring(8), 8, "", "!"));
+    }
+
+    @Test
+    void testFlowStyleDocumentIsUnknown() {
+        var text = "{configuration: {arguments: {x: 2}}}";
+        var offset = text.indexOf('2');
+        Assertions.assertNull(ConcordTopLevelSections.editedSection(text, offset, "1", "2"));
+    }
+
+    /**
+     * Applies the first occurrence of {@code oldText} -> {@code newText} to {@link #TEXT} and locates the edit.
+     */
+    private static String edit(String oldText, String newText) {
+        var offset = TEXT.indexOf(oldText);
+        Assertions.assertTrue(offset >= 0, oldText);
+
+        // Strip the common prefix, like an editor reports a typed character
+        var common = 0;
+        while (common < oldText.length() && common < newText.length() && oldText.charAt(common) == newText.charAt(common)) {
+            common++;
+        }
+        var after = TEXT.substring(0, offset) + newText + TEXT.substring(offset + oldText.length());
+        return ConcordTopLevelSections.editedSection(after, offset + common,
+                oldText.substring(common), newText.substring(common));
+    }
+}
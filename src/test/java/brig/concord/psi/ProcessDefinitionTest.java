@@ -3,9 +3,15 @@ package brig.concord.psi;
 
 import brig.concord.ConcordYamlTestBaseJunit5;
 import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Set;
+
 class ProcessDefinitionTest extends ConcordYamlTestBaseJunit5 {
 
     @Test
@@ -133,4 +139,154 @@ class ProcessDefinitionTest extends ConcordYamlTestBaseJunit5 {
             Assertions.assertEquals("secondFlow", secondResult.getKeyText());
         });
     }
+
+    @Test
+    void testFlowNames_limitedToScope() {
+        var rootA = createFile("a/concord.yaml", """
+                flows:
+                  mainA:
+                    - log: "a"
+                """);
+        createFile("a/concord/utils.concord.yaml", """
+                flows:
+                  utilsA:
+                    - log: "a"
+                """);
+        var rootB = createFile("b/concord.yaml", """
+                flows:
+                  mainB:
+                    - log: "b"
+                """);
+
+        ReadAction.run(() -> {
+            Assertions.assertEquals(Set.of("mainA", "utilsA"),
+                    ProcessDefinitionProvider.getInstance().get(rootA).flowNames());
+            Assertions.assertEquals(Set.of("mainB"),
+                    ProcessDefinitionProvider.getInstance().get(rootB).flowNames());
+        });
+    }
+
+    @Test
+    void testFlowNames_editInOtherRootKeepsTable() {
+        var rootA = createFile("a/concord.yaml", """
+                flows:
+                  mainA:
+                    - log: "a"
+                """);
+        var rootB = createFile("b/concord.yaml", """
+                flows:
+                  mainB:
+                    - log: "b"
+                """);
+
+        var namesB = ProcessDefinitionProvider.getInstance().get(rootB).flowNames();
+
+        replace(rootA, "log: \"a\"", "log: \"changed\"");
+        Assertions.assertSame(namesB, ProcessDefinitionProvider.getInstance().get(rootB).flowNames());
+
+        replace(rootA, "  mainA:", "  otherA:\n    - log: \"other\"\n  mainA:");
+        Assertions.assertEquals(Set.of("mainA", "otherA"), ProcessDefinitionProvider.getInstance().get(rootA).flowNames());
+        Assertions.assertEquals(Set.of("mainB"), ProcessDefinitionProvider.getInstance().get(rootB).flowNames());
+    }
+
+    @Test
+    void testFormsFromScope() {
+        var root = createFile("concord.yaml", """
+                forms:
+                  approval:
+                    - approved: { type: "boolean" }
+                """);
+        createFile("concord/forms.concord.yaml", """
+                forms:
+                  survey:
+                    - name: { type: "string?" }
+                    - age: { label: "Age" }
+                  approval:
+                    - ignored: { type: "string" }
+                """);
+
+        ReadAction.run(() -> {
+            var forms = ProcessDefinitionProvider.getInstance().get(root).forms();
+            Assertions.assertEquals(Set.of("approval", "survey"), forms.keySet());
+            Assertions.assertEquals(List.of(new FormsIndex.FormField("approved", "boolean")),
+                    forms.get("approval").fields());
+            Assertions.assertEquals(List.of(new FormsIndex.FormField("name", "string?"), new FormsIndex.FormField("age", null)),
+                    forms.get("survey").fields());
+        });
+    }
+
+    @Test
+    void testFormsMergedInArgumentsOrder() {
+        var root = createFile("concord.yaml", """
+                flows:
+                  main:
+                    - log: "hi"
+                """);
+        createFile("concord/b.concord.yaml", """
+                forms:
+                  survey:
+                    - fromB: { type: "string" }
+                """);
+        createFile("concord/a.concord.yaml", """
+                forms:
+                  survey:
+                    - fromA: { type: "string" }
+                """);
+
+        ReadAction.run(() -> {
+            var forms = ProcessDefinitionProvider.getInstance().get(root).forms();
+            // Like arguments, later files in name order override earlier ones
+            Assertions.assertEquals(List.of(new FormsIndex.FormField("fromB", "string")),
+                    forms.get("survey").fields());
+        });
+    }
+
+    @Test
+    void testFormsAndProfiles_keptAcrossUnrelatedEdits() {
+        var rootA = createFile("a/concord.yaml", """
+                forms:
+                  formA:
+                    - field: { type: "string" }
+                """);
+        var rootB = createFile("b/concord.yaml", """
+                profiles:
+                  dev:
+                    configuration: {}
+                forms:
+                  formB:
+                    - field: { type: "string" }
+                flows:
+                  main:
+                    - log: "b"
+                """);
+
+        var process = ProcessDefinitionProvider.getInstance().get(rootB);
+        var forms = process.forms();
+        var profiles = process.profileNames();
+
+        // Other sections of the same root
+        replace(rootB, "log: \"b\"", "log: \"changed\"");
+        Assertions.assertSame(forms, process.forms());
+        Assertions.assertSame(profiles, process.profileNames());
+
+        // Another root
+        replace(rootA, "formA:", "renamedA:");
+        Assertions.assertSame(profiles, process.profileNames());
+
+        replace(rootB, "formB:", "renamedB:");
+        Assertions.assertEquals(Set.of("renamedB"), process.forms().keySet());
+        Assertions.assertSame(profiles, process.profileNames());
+    }
+
+    private void replace(PsiFile file, String text, String replacement) {
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            var documentManager = PsiDocumentManager.getInstance(getProject());
+            var document = documentManager.getDocument(file);
+            Assertions.assertNotNull(document);
+            var offset = document.getText().indexOf(text);
+            Assertions.assertTrue(offset >= 0, text);
+            document.replaceString(offset, offset + text.length(), replacement);
+            documentManager.commitDocument(document);
+        });
+    }
 }
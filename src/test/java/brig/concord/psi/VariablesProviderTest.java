@@ -2,6 +2,7 @@
 package brig.concord.psi;
 
 import brig.concord.ConcordYamlTestBaseJunit5;
+import brig.concord.completion.provider.FlowCallParamsProvider;
 import brig.concord.schema.BuiltInVarsSchema;
 import brig.concord.schema.SchemaType;
 import brig.concord.schema.TaskSchemaRegistry;
@@ -440,6 +441,81 @@ class VariablesProviderTest extends ConcordYamlTestBaseJunit5 {
         assertInstanceOf(SchemaType.Any.class, outVars.get("localMsg").schema().schemaType());
     }
 
+    @Test
+    void testCallOutWithFlowDocFromAnotherFile() {
+        createFile("concord/helper.concord.yaml", """
+                flows:
+                  ##
+                  # Helper flow
+                  # out:
+                  #   processed: int, optional, Files processed count
+                  ##
+                  helper:
+                    - log: "hi"
+                """);
+
+        var root = createFile("concord.yaml", """
+                flows:
+                  main:
+                    - call: helper
+                      out: processed
+                    - log: "${processed}"
+                """);
+        configureFromExistingFile(root);
+
+        var target = element("/flows/main/[1]");
+        var vars = VariablesProvider.getVariables(target);
+
+        var processedVar = vars.stream()
+                .filter(v -> v.source() == VariableSource.STEP_OUT && "processed".equals(v.name()))
+                .findFirst().orElseThrow();
+
+        assertScalarType("integer", processedVar.schema().schemaType());
+        assertEquals("Files processed count", processedVar.schema().description());
+
+        var signature = FlowCallParamsProvider.findFlowSignature(element("/flows/main/[0]/call"));
+        assertNotNull(signature);
+        assertEquals(1, signature.outputParameters().size());
+        assertEquals("int", signature.outputParameters().getFirst().type());
+    }
+
+    @Test
+    void testCallSignatureFollowsResolvedDefinition() {
+        createFile("concord/b.concord.yaml", """
+                flows:
+                  ##
+                  # out:
+                  #   fromB: int, optional
+                  ##
+                  helper:
+                    - log: "b"
+                """);
+        createFile("concord/a.concord.yaml", """
+                flows:
+                  ##
+                  # out:
+                  #   fromA: int, optional
+                  ##
+                  helper:
+                    - log: "a"
+                """);
+
+        var root = createFile("concord.yaml", """
+                flows:
+                  main:
+                    - call: helper
+                """);
+        configureFromExistingFile(root);
+
+        var definition = ProcessDefinitionProvider.getInstance().get(root).flow("helper");
+        assertNotNull(definition);
+        assertEquals("a.concord.yaml", definition.getContainingFile().getName());
+
+        var signature = FlowCallParamsProvider.findFlowSignature(element("/flows/main/[0]/call"));
+        assertNotNull(signature);
+        assertEquals("fromA", signature.outputParameters().getFirst().name());
+    }
+
     @Test
     void testCallOutWithoutFlowDoc() {
         configureFromText("""
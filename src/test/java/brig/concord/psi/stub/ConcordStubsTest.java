@@ -0,0 +1,166 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.psi.stub;
+
+import brig.concord.ConcordYamlTestBaseJunit5;
+import brig.concord.psi.ArgumentsCollector;
+import brig.concord.psi.ProcessDefinitionProvider;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.impl.source.PsiFileImpl;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcordStubsTest extends ConcordYamlTestBaseJunit5 {
+
+    @Test
+    void stubsCoverSkeletonOnly() {
+        var file = createFile("concord.yaml", """
+                configuration:
+                  runtime: concord-v2
+                  arguments:
+                    myVar: "hello"
+                    nested:
+                      inner: 1
+                  dependencies:
+                    - "mvn://com.example:dep1:1.0.0"
+                profiles:
+                  dev:
+                    configuration:
+                      extraDependencies:
+                        - "mvn://com.example:dep2:1.0.0"
+                resources:
+                  concord:
+                    - "glob:flows/*.concord.yaml"
+                flows:
+                  main:
+                    - task: log
+                      in:
+                        msg: "hi"
+                """);
+
+        ReadAction.run(() -> {
+            assertEquals(1, ConcordFileStubs.find(file, ConcordStubKind.FLOW).size());
+            assertEquals("main", ConcordFileStubs.find(file, ConcordStubKind.FLOW).getFirst().getKeyText());
+
+            var arguments = ConcordFileStubs.find(file, ConcordStubKind.ARGUMENT);
+            assertEquals(2, arguments.size());
+            assertEquals("myVar", arguments.get(0).getKeyText());
+            assertEquals("nested", arguments.get(1).getKeyText());
+
+            var dependencies = ConcordFileStubs.find(file, ConcordStubKind.DEPENDENCIES);
+            assertEquals(2, dependencies.size());
+            assertEquals("mvn://com.example:dep1:1.0.0", dependencies.get(0).getValues().getFirst().text());
+            assertEquals("dev", dependencies.get(1).getParentKeyStub().getParentKeyStub().getKeyText());
+
+            var resources = ConcordFileStubs.find(file, ConcordStubKind.RESOURCES);
+            assertEquals(1, resources.size());
+            assertEquals("glob:flows/*.concord.yaml", resources.getFirst().getValues().getFirst().text());
+
+            assertEquals(1, ConcordFileStubs.find(file, ConcordStubKind.PROFILE).size());
+        });
+    }
+
+    @Test
+    void flowsResolvedFromStubIndexWithoutLoadingAst() {
+        var root = createFile("concord.yaml", """
+                flows:
+                  main:
+                    - call: utilsFlow
+                """);
+        var utils = createFile("concord/utils.concord.yaml", """
+                flows:
+                  utilsFlow:
+                    - log: "hi"
+                """);
+
+        ReadAction.run(() -> {
+            var flows = ProcessDefinitionProvider.getInstance().get(root).flows("utilsFlow");
+            assertEquals(1, flows.size());
+            assertSame(utils, flows.getFirst().getContainingFile());
+            assertFalse(((PsiFileImpl) utils).isContentsLoaded(), "flow lookup must not load the AST");
+
+            assertEquals("utilsFlow", ((YAMLKeyValue) flows.getFirst()).getKeyText());
+        });
+    }
+
+    @Test
+    void flowsOrderedByFileAndFirstDefinition() {
+        var root = createFile("concord.yaml", """
+                flows:
+                  main:
+                    - call: shared
+                """);
+        createFile("concord/b.concord.yaml", """
+                flows:
+                  shared:
+                    - log: "b1"
+                  shared:
+                    - log: "b2"
+                """);
+        createFile("concord/a.concord.yaml", """
+                flows:
+                  shared:
+                    - log: "a"
+                """);
+
+        ReadAction.run(() -> {
+            var flows = ProcessDefinitionProvider.getInstance().get(root).flows("shared");
+            assertEquals(2, flows.size());
+            assertEquals("a.concord.yaml", flows.get(0).getContainingFile().getName());
+            assertEquals("b.concord.yaml", flows.get(1).getContainingFile().getName());
+            assertTrue(flows.get(1).getText().contains("b1"), "The first definition in a file should win");
+        });
+    }
+
+    @Test
+    void argumentsCollectedWithoutLoadingAst() {
+        createFile("concord.yaml", """
+                resources:
+                  concord:
+                    - "glob:concord/*.concord.yaml"
+                flows:
+                  main:
+                    - log: "hi"
+                """);
+        var extra = createFile("concord/extra.concord.yaml", """
+                configuration:
+                  arguments:
+                    extraVar: "fromExtra"
+                """);
+
+        ReadAction.run(() -> {
+            var byScope = ArgumentsCollector.getInstance(getProject()).collectByScope();
+            assertEquals(1, byScope.size());
+            assertTrue(byScope.values().iterator().next().containsKey("extraVar"));
+            assertFalse(((PsiFileImpl) extra).isContentsLoaded(), "arguments must come from stubs");
+        });
+    }
+
+    @Test
+    void stubIndexesAreFilled() {
+        createFile("concord.yaml", """
+                configuration:
+                  arguments:
+                    myVar: 1
+                  dependencies:
+                    - "mvn://com.example:dep1:1.0.0"
+                profiles:
+                  dev:
+                    configuration:
+                      arguments:
+                        profileVar: 1
+                flows:
+                  main:
+                    - log: "hi"
+                """);
+
+        ReadAction.run(() -> {
+            var scope = GlobalSearchScope.projectScope(getProject());
+            var index = StubIndex.getInstance();
+            assertEquals(1, index.getElements(ConcordFlowIndex.KEY, "main", getProject(), scope, YAMLKeyValue.class).size());
+        });
+    }
+}
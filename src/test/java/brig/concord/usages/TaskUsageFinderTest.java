@@ -0,0 +1,42 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.usages;
+
+import brig.concord.ConcordYamlTestBaseJunit5;
+import brig.concord.el.psi.ElIdentifierExpr;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TaskUsageFinderTest extends ConcordYamlTestBaseJunit5 {
+
+    @Test
+    void testFindUsages() {
+        createFile("concord.yaml", """
+                flows:
+                  main:
+                    - task: http
+                      in:
+                        url: "https://example.com"
+                      out: result
+                    - log: "${crypto.decryptString('x')}"
+                    - try:
+                        - task: http
+                """);
+
+        ReadAction.run(() -> {
+            var scope = GlobalSearchScope.projectScope(getProject());
+
+            var http = TaskUsageFinder.findUsages(getProject(), "http", scope);
+            Assertions.assertEquals(2, http.size());
+            Assertions.assertInstanceOf(YAMLKeyValue.class, http.get(0).element());
+            Assertions.assertEquals(1, http.stream().filter(TaskUsageFinder.TaskUsage::hasOut).count());
+
+            var crypto = TaskUsageFinder.findUsages(getProject(), "crypto", scope);
+            Assertions.assertEquals(1, crypto.size());
+            Assertions.assertTrue(crypto.getFirst().expression());
+            Assertions.assertInstanceOf(ElIdentifierExpr.class, crypto.getFirst().element());
+        });
+    }
+}
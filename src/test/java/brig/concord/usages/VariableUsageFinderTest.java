@@ -0,0 +1,181 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.usages;
+
+import brig.concord.ConcordYamlTestBaseJunit5;
+import brig.concord.el.psi.ElIdentifierExpr;
+import brig.concord.psi.FlowDocParameter;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.EdtTestUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+class VariableUsageFinderTest extends ConcordYamlTestBaseJunit5 {
+
+    @Test
+    void testFindSetVariableUsages() {
+        configureFromText("""
+                flows:
+                  main:
+                    - set:
+                        myVar: "hello"
+                        other: 1
+                    - log: "${myVar}"
+                    - if: ${myVar == 'hello' && other > 0}
+                      then:
+                        - log: "${myVar}"
+                """);
+
+        ReadAction.run(() -> {
+            var declaration = key("/flows/main/[0]/set/myVar").asKeyValue();
+            Assertions.assertEquals("myVar", VariableUsageFinder.getVariableName(declaration));
+
+            var references = VariableUsageFinder.findReferences(declaration, GlobalSearchScope.projectScope(getProject()));
+            Assertions.assertEquals(3, references.size());
+            references.forEach(r -> Assertions.assertInstanceOf(ElIdentifierExpr.class, r.getElement()));
+        });
+    }
+
+    @Test
+    void testNotADeclaration() {
+        configureFromText("""
+                flows:
+                  main:
+                    - log: "${myVar}"
+                """);
+
+        ReadAction.run(() ->
+                Assertions.assertNull(VariableUsageFinder.getVariableName(key("/flows/main/[0]/log").asKeyValue())));
+    }
+
+    @Test
+    void testRenameOutVariable() {
+        configureFromText("""
+                flows:
+                  main:
+                    - task: http
+                      out: response
+                    - log: "${response.content}"
+                    - set:
+                        x: ${response}
+                """);
+
+        EdtTestUtil.runInEdtAndWait(() ->
+                myFixture.renameElement(value("/flows/main/[0]/out").element(), "httpResult"));
+
+        myFixture.checkResult("""
+                flows:
+                  main:
+                    - task: http
+                      out: httpResult
+                    - log: "${httpResult.content}"
+                    - set:
+                        x: ${httpResult}
+                """);
+    }
+
+    @Test
+    void testRenameSetVariable() {
+        configureFromText("""
+                flows:
+                  main:
+                    - set:
+                        myVar: "hello"
+                    - log: "${myVar}"
+                    - set:
+                        myVar: "${myVar} world"
+                  other:
+                    - set:
+                        myVar: 1
+                    - log: "${myVar}"
+                """);
+
+        EdtTestUtil.runInEdtAndWait(() ->
+                myFixture.renameElement(key("/flows/main/[0]/set/myVar").asKeyValue(), "greeting"));
+
+        myFixture.checkResult("""
+                flows:
+                  main:
+                    - set:
+                        greeting: "hello"
+                    - log: "${greeting}"
+                    - set:
+                        greeting: "${greeting} world"
+                  other:
+                    - set:
+                        myVar: 1
+                    - log: "${myVar}"
+                """);
+    }
+
+    @Test
+    void testRenameFlowInParameter() {
+        configureFromText("""
+                flows:
+                  ##
+                  # in:
+                  #   bucket: string, mandatory, S3 bucket
+                  ##
+                  myFlow:
+                    - log: "${bucket}"
+                    - if: ${bucket != null}
+                      then:
+                        - log: "${bucket}"
+                  other:
+                    - log: "${bucket}"
+                """);
+
+        var param = ReadAction.compute(() -> PsiTreeUtil.findChildOfType(myFixture.getFile(), FlowDocParameter.class));
+        Assertions.assertNotNull(param);
+        EdtTestUtil.runInEdtAndWait(() -> myFixture.renameElement(param, "bucketName"));
+
+        myFixture.checkResult("""
+                flows:
+                  ##
+                  # in:
+                  #   bucketName: string, mandatory, S3 bucket
+                  ##
+                  myFlow:
+                    - log: "${bucketName}"
+                    - if: ${bucketName != null}
+                      then:
+                        - log: "${bucketName}"
+                  other:
+                    - log: "${bucket}"
+                """);
+    }
+
+    @Test
+    void testFindSiblingDefinitions() {
+        configureFromText("""
+                flows:
+                  main:
+                    - set:
+                        result: 1
+                    - task: http
+                      out: result
+                    - set:
+                        result: 2
+                        other: 3
+                  other:
+                    - set:
+                        result: 4
+                """);
+
+        ReadAction.run(() -> {
+            var declaration = key("/flows/main/[0]/set/result").asKeyValue();
+            var siblings = VariableUsageFinder.findSiblingDefinitions(declaration);
+
+            Assertions.assertEquals(Set.of(value("/flows/main/[1]/out").element(), key("/flows/main/[2]/set/result").asKeyValue()),
+                    new HashSet<>(siblings));
+            Assertions.assertEquals(2, siblings.size());
+
+            var out = VariableUsageFinder.findSiblingDefinitions(value("/flows/main/[1]/out").element());
+            Assertions.assertEquals(Set.of(declaration, key("/flows/main/[2]/set/result").asKeyValue()), new HashSet<>(out));
+        });
+    }
+}
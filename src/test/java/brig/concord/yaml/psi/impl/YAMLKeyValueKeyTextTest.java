@@ -0,0 +1,114 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.yaml.psi.impl;
+
+import brig.concord.ConcordYamlTestBaseJunit5;
+import brig.concord.yaml.psi.YAMLKeyValue;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Map;
+
+class YAMLKeyValueKeyTextTest extends ConcordYamlTestBaseJunit5 {
+
+    @Test
+    void testKeyTextIsSharedAndFollowsEdits() {
+        configureFromText("""
+                flows:
+                  first:
+                    - task: "a"
+                  second:
+                    - "task": "b"
+                """);
+
+        ReadAction.run(() -> {
+            var first = key("/flows/first/[0]/task").asKeyValue();
+            var second = key("/flows/second/[0]/task").asKeyValue();
+            Assertions.assertEquals("task", first.getKeyText());
+            Assertions.assertEquals(keyTextOf(second), second.getKeyText());
+            Assertions.assertSame(first.getKeyText(), first.getKeyText());
+            Assertions.assertSame(first.getKeyText(), second.getKeyText());
+        });
+
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            var document = myFixture.getEditor().getDocument();
+            var offset = document.getText().indexOf("task: \"a\"");
+            document.replaceString(offset, offset + "task".length(), "call");
+            PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+        });
+
+        ReadAction.run(() -> {
+            var edited = key("/flows/first/[0]/call").asKeyValue();
+            Assertions.assertEquals("call", edited.getKeyText());
+            Assertions.assertEquals(keyTextOf(edited), edited.getKeyText());
+        });
+    }
+
+    /**
+     * Allocation benchmark of cached key texts against unquoting the key element text on each call,
+     * as {@code getKeyText} did before for plain and quoted keys. Opt-in, see the {@code benchmark} tag in the build.
+     */
+    @Test
+    @Tag("benchmark")
+    void testBenchmarkKeyTextAllocations(TestReporter reporter) {
+        var yaml = new StringBuilder("flows:\n  main:\n");
+        for (var i = 0; i < 2_000; i++) {
+            yaml.append("    - task: \"t").append(i).append("\"\n")
+                    .append("      in:\n")
+                    .append("        \"key").append(i).append("\": ").append(i).append('\n');
+        }
+        configureFromText(yaml.toString());
+
+        ReadAction.run(() -> {
+            var keyValues = new ArrayList<>(PsiTreeUtil.findChildrenOfType(myFixture.getFile(), YAMLKeyValue.class));
+            // Also warms up both paths
+            for (var kv : keyValues) {
+                Assertions.assertEquals(keyTextOf(kv), kv.getKeyText());
+            }
+
+            var rounds = 20;
+            var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            var threadId = Thread.currentThread().threadId();
+
+            var referenceHash = 0;
+            var start = threads.getThreadAllocatedBytes(threadId);
+            for (var r = 0; r < rounds; r++) {
+                for (var kv : keyValues) {
+                    referenceHash += keyTextOf(kv).hashCode();
+                }
+            }
+            var referenceBytes = threads.getThreadAllocatedBytes(threadId) - start;
+
+            var cachedHash = 0;
+            start = threads.getThreadAllocatedBytes(threadId);
+            for (var r = 0; r < rounds; r++) {
+                for (var kv : keyValues) {
+                    cachedHash += kv.getKeyText().hashCode();
+                }
+            }
+            var cachedBytes = threads.getThreadAllocatedBytes(threadId) - start;
+
+            Assertions.assertEquals(referenceHash, cachedHash);
+            Assertions.assertTrue(cachedBytes < referenceBytes / 10,
+                    "cached key texts allocated " + cachedBytes + " bytes, uncached " + referenceBytes);
+            reporter.publishEntry(Map.of(
+                    "calls", String.valueOf(rounds * keyValues.size()),
+                    "uncachedBytes", String.valueOf(referenceBytes),
+                    "cachedBytes", String.valueOf(cachedBytes)));
+        });
+    }
+
+    private static String keyTextOf(YAMLKeyValue kv) {
+        var key = kv.getKey();
+        Assertions.assertNotNull(key);
+        return StringUtil.unquoteString(key.getText());
+    }
+}
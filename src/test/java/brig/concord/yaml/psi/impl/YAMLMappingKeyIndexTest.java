@@ -0,0 +1,48 @@
+// SPDX-License-Identifier: Apache-2.0
+package brig.concord.yaml.psi.impl;
+
+import brig.concord.ConcordYamlTestBaseJunit5;
+import brig.concord.yaml.psi.YAMLMapping;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.psi.PsiDocumentManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class YAMLMappingKeyIndexTest extends ConcordYamlTestBaseJunit5 {
+
+    @Test
+    void testLookupInLargeMappingFollowsEdits() {
+        var yaml = new StringBuilder("configuration:\n  arguments:\n");
+        for (var i = 0; i < YAMLMappingImpl.KEY_INDEX_THRESHOLD * 2; i++) {
+            yaml.append("    arg").append(i).append(": ").append(i).append('\n');
+        }
+        yaml.append("    arg0: duplicate\n");
+        configureFromText(yaml.toString());
+
+        ReadAction.run(() -> {
+            var arguments = arguments();
+            Assertions.assertEquals(YAMLMappingImpl.KEY_INDEX_THRESHOLD * 2 + 1, arguments.getKeyValues().size());
+            Assertions.assertEquals("0", arguments.getKeyValueByKey("arg0").getValueText());
+            Assertions.assertEquals("40", arguments.getKeyValueByKey("arg40").getValueText());
+            Assertions.assertNull(arguments.getKeyValueByKey("renamed"));
+        });
+
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            var document = myFixture.getEditor().getDocument();
+            var offset = document.getText().indexOf("arg40:");
+            document.replaceString(offset, offset + "arg40".length(), "renamed");
+            PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+        });
+
+        ReadAction.run(() -> {
+            var arguments = arguments();
+            Assertions.assertNull(arguments.getKeyValueByKey("arg40"));
+            Assertions.assertEquals("40", arguments.getKeyValueByKey("renamed").getValueText());
+        });
+    }
+
+    private YAMLMapping arguments() {
+        return (YAMLMapping) value("/configuration/arguments").element();
+    }
+}